@@ -0,0 +1,130 @@
+package com.sample.routeconfigs.common.route.policy;
+
+import com.netflix.hystrix.HystrixCircuitBreaker;
+import com.netflix.hystrix.HystrixCommand;
+import com.netflix.hystrix.HystrixCommandGroupKey;
+import com.netflix.hystrix.HystrixCommandKey;
+import com.netflix.hystrix.HystrixCommandProperties;
+import com.netflix.hystrix.exception.HystrixRuntimeException;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.ScheduledBatchPollingConsumer;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CircuitBreakerSuspensionRoutePolicyTests {
+
+    private static final String COMMAND_KEY = "CircuitBreakerSuspensionRoutePolicyTests";
+    private static final int MAX_MESSAGES_PER_POLL = 10;
+    private static final long PROBE_INTERVAL_MS = 1000;
+    private static final long RAMP_UP_MS = 2000;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final DefaultCamelContext camelContext = new DefaultCamelContext();
+
+    @After
+    public void stopCamelContext() throws Exception {
+        camelContext.stop();
+    }
+
+    @Test
+    public void testPolicy_suspendsProbesAndRampsUpTheConsumer() throws Exception {
+        runCommand(false);
+        HystrixCircuitBreaker circuitBreaker = HystrixCircuitBreaker.Factory.getInstance(
+                HystrixCommandKey.Factory.asKey(COMMAND_KEY));
+        File inbox = temporaryFolder.newFolder("inbox");
+
+        camelContext.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() {
+                from("file:" + inbox.getAbsolutePath() + "?maxMessagesPerPoll=" + MAX_MESSAGES_PER_POLL
+                        + "&initialDelay=0&delay=10")
+                        .routeId("probed")
+                        .routePolicy(new CircuitBreakerSuspensionRoutePolicy(COMMAND_KEY, PROBE_INTERVAL_MS, RAMP_UP_MS,
+                                MAX_MESSAGES_PER_POLL, 10))
+                        .to("mock:out");
+            }
+        });
+        camelContext.start();
+        ScheduledBatchPollingConsumer consumer =
+                (ScheduledBatchPollingConsumer) camelContext.getRoute("probed").getConsumer();
+        MockEndpoint out = camelContext.getEndpoint("mock:out", MockEndpoint.class);
+
+        // Circuit closed: unthrottled
+        Thread.sleep(100);
+        assertFalse(consumer.isSuspended());
+        assertEquals(MAX_MESSAGES_PER_POLL, consumer.getMaxMessagesPerPoll());
+
+        // Circuit open: suspended, then a single message is let through as the probe
+        while (!circuitBreaker.isOpen()) {
+            runCommand(true);
+        }
+        await(consumer::isSuspended);
+        assertEquals(1, consumer.getMaxMessagesPerPoll());
+        for (int i = 0; i < 3; i++) {
+            Files.write(new File(inbox, "message" + i + ".txt").toPath(), ("message" + i).getBytes());
+        }
+        await(() -> out.getReceivedCounter() == 1);
+        Thread.sleep(PROBE_INTERVAL_MS / 4);
+        assertEquals(1, out.getReceivedCounter());
+        assertTrue(consumer.isSuspended());
+
+        // Circuit closed: resumed with a small batch, growing back to the configured batch over the ramp-up
+        // The failures stay in the health counts until the rolling window has passed, and would open it again
+        while (circuitBreaker.isOpen()) {
+            circuitBreaker.markSuccess();
+            Thread.sleep(10);
+        }
+        await(() -> !consumer.isSuspended());
+        assertTrue(consumer.getMaxMessagesPerPoll() < MAX_MESSAGES_PER_POLL);
+        await(() -> out.getReceivedCounter() == 3);
+        await(() -> consumer.getMaxMessagesPerPoll() == MAX_MESSAGES_PER_POLL);
+        assertFalse(consumer.isSuspended());
+    }
+
+    private static void runCommand(boolean fail) {
+        HystrixCommand.Setter setter = HystrixCommand.Setter
+                .withGroupKey(HystrixCommandGroupKey.Factory.asKey(COMMAND_KEY))
+                .andCommandKey(HystrixCommandKey.Factory.asKey(COMMAND_KEY))
+                .andCommandPropertiesDefaults(HystrixCommandProperties.Setter()
+                        .withCircuitBreakerRequestVolumeThreshold(1)
+                        .withCircuitBreakerErrorThresholdPercentage(1)
+                        .withCircuitBreakerSleepWindowInMilliseconds(60000)
+                        .withMetricsRollingStatisticalWindowInMilliseconds(1000)
+                        .withMetricsHealthSnapshotIntervalInMilliseconds(10));
+        try {
+            new HystrixCommand<Boolean>(setter) {
+                @Override
+                protected Boolean run() {
+                    if (fail) {
+                        throw new IllegalStateException("Downstream failure");
+                    }
+                    return true;
+                }
+            }.execute();
+        } catch (HystrixRuntimeException e) {
+            // Expected for failing and short circuited commands
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean()) {
+            assertTrue("Timed out waiting for the route policy", System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+    }
+}
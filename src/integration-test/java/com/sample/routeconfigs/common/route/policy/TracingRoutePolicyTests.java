@@ -0,0 +1,223 @@
+package com.sample.routeconfigs.common.route.policy;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.MDC;
+import wingtips.Span;
+import wingtips.TraceHeaders;
+import wingtips.Tracer;
+import wingtips.aws.general.util.WingtipsAwsGeneralUtil;
+import wingtips.lifecyclelistener.SpanLifecycleListener;
+import wingtips.sampling.SampleAllTheThingsStrategy;
+import wingtips.sampling.TailBasedSamplingStrategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TracingRoutePolicyTests {
+
+    private final List<Span> completed = new ArrayList<>();
+    private final SpanLifecycleListener listener = new SpanLifecycleListener() {
+        @Override
+        public void spanStarted(Span span) {
+        }
+
+        @Override
+        public void spanSampled(Span span) {
+        }
+
+        @Override
+        public void spanCompleted(Span span) {
+            completed.add(span);
+        }
+    };
+
+    // Trace id in the MDC and thread name seen by the steps of the threads route
+    private final Map<String, String> traceIds = new ConcurrentHashMap<>();
+    private final Map<String, String> threadNames = new ConcurrentHashMap<>();
+
+    private CamelContext camelContext;
+
+    @Before
+    public void startCamelContext() throws Exception {
+        Tracer.getInstance().addSpanLifecycleListener(listener);
+
+        camelContext = new DefaultCamelContext();
+        camelContext.addRoutePolicyFactory(
+                (context, routeId, route) -> new TracingRoutePolicy(new SampleAllTheThingsStrategy()));
+        camelContext.setUnitOfWorkFactory(new TraceIdMdcUnitOfWorkFactory());
+        camelContext.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() {
+                from("direct:outer").routeId("outer")
+                        .to("direct:inner")
+                        .process(TracingRoutePolicy::setTraceHeaders);
+
+                from("direct:siblings").routeId("siblings")
+                        .to("direct:inner")
+                        .delay(100)
+                        .to("direct:inner")
+                        .process(TracingRoutePolicy::setTraceHeaders);
+
+                from("direct:failing").routeId("failing")
+                        .onException(IllegalStateException.class).handled(true).end()
+                        .to("direct:inner")
+                        .to("direct:throwing");
+
+                from("direct:throwing").routeId("throwing")
+                        .throwException(new IllegalStateException("boom"));
+
+                from("direct:threads").routeId("threads")
+                        .onException(IllegalStateException.class)
+                            .maximumRedeliveries(1).redeliveryDelay(10).asyncDelayedRedelivery()
+                            .handled(true)
+                            .process(exchange -> record("onException"))
+                        .end()
+                        .process(exchange -> record("consumer"))
+                        .threads(1, 1, "TracingTest")
+                        .process(exchange -> record("threads"))
+                        .throwException(new IllegalStateException("boom"));
+
+                from("direct:inner").routeId("inner")
+                        .process(exchange -> exchange.getIn().setHeader("innerSpanId",
+                                TracingRoutePolicy.currentSpan(exchange).getSpanId()));
+            }
+        });
+        camelContext.start();
+    }
+
+    @After
+    public void stopCamelContext() throws Exception {
+        camelContext.stop();
+        Tracer.getInstance().removeSpanLifecycleListener(listener);
+    }
+
+    @Test
+    public void testRoutes_continueTraceFromSqsMessageAttribute() {
+        Exchange exchange = camelContext.createProducerTemplate().send("direct:outer", e -> e.getIn().setHeader(
+                WingtipsAwsGeneralUtil.TRACE_CONTEXT_MESSAGE_ATTR_NAME, "v1:aaaaaaaaaaaaaaaa:bbbbbbbbbbbbbbbb:1"));
+
+        assertEquals(2, completed.size());
+        Span inner = completed.get(0);
+        Span outer = completed.get(1);
+        assertEquals("outer", outer.getSpanName());
+        assertEquals("aaaaaaaaaaaaaaaa", outer.getTraceId());
+        assertEquals("bbbbbbbbbbbbbbbb", outer.getParentSpanId());
+        assertEquals(Span.SpanPurpose.SERVER, outer.getSpanPurpose());
+        assertEquals("inner", inner.getSpanName());
+        assertEquals(outer.getSpanId(), inner.getParentSpanId());
+        assertEquals(inner.getSpanId(), exchange.getIn().getHeader("innerSpanId"));
+
+        // The outer route's span is the current one again once the sub-route is done
+        assertEquals(outer.getSpanId(), exchange.getIn().getHeader(TraceHeaders.SPAN_ID));
+        assertNull(exchange.getProperty(TracingRoutePolicy.SPAN_PROPERTY));
+    }
+
+    @Test
+    public void testRoutes_completeEachSubRouteSpanWhenTheSubRouteReturns() {
+        Exchange exchange = camelContext.createProducerTemplate().send("direct:siblings", e -> { });
+
+        assertEquals(3, completed.size());
+        Span first = completed.get(0);
+        Span second = completed.get(1);
+        Span siblings = completed.get(2);
+        assertEquals("siblings", siblings.getSpanName());
+        assertEquals(siblings.getSpanId(), first.getParentSpanId());
+        assertEquals(siblings.getSpanId(), second.getParentSpanId());
+
+        // The first sub-route span does not include the delay that follows it in the calling route
+        assertTrue(first.getDurationNanos() < TimeUnit.MILLISECONDS.toNanos(100));
+        assertTrue(siblings.getDurationNanos() >= TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(siblings.getSpanId(), exchange.getIn().getHeader(TraceHeaders.SPAN_ID));
+        assertEquals(siblings.getTraceId(), exchange.getIn().getHeader(TraceHeaders.TRACE_ID));
+    }
+
+    @Test
+    public void testRoutes_completeSpansOfFailedSubRoutes() {
+        camelContext.createProducerTemplate().send("direct:failing", e -> { });
+
+        assertEquals(3, completed.size());
+        assertEquals("inner", completed.get(0).getSpanName());
+        assertEquals("throwing", completed.get(1).getSpanName());
+        assertEquals("failing", completed.get(2).getSpanName());
+        assertEquals(completed.get(2).getSpanId(), completed.get(1).getParentSpanId());
+    }
+
+    @Test
+    public void testRoutes_putTraceIdInMdcOnEveryThread() {
+        MDC.remove(Tracer.TRACE_ID_MDC_KEY);
+
+        Exchange exchange = camelContext.createProducerTemplate().send("direct:threads", e -> { });
+
+        assertNull(exchange.getException());
+        Span threads = completed.get(completed.size() - 1);
+        assertEquals("threads", threads.getSpanName());
+        assertEquals(threads.getTraceId(), traceIds.get("consumer"));
+        assertEquals(threads.getTraceId(), traceIds.get("threads"));
+        assertEquals(threads.getTraceId(), traceIds.get("onException"));
+        assertNotEquals(threadNames.get("consumer"), threadNames.get("threads"));
+
+        // Nothing is left in the MDC of the calling thread
+        assertNull(MDC.get(Tracer.TRACE_ID_MDC_KEY));
+    }
+
+    @Test
+    public void testRoutes_markOnlySampledTracesErrored() throws Exception {
+        TailBasedSamplingStrategy tailBasedSamplingStrategy = new TailBasedSamplingStrategy(listener, 60000, 10, 60000);
+        Tracer.getInstance().addSpanLifecycleListener(tailBasedSamplingStrategy);
+        CamelContext tailBasedContext = new DefaultCamelContext();
+        tailBasedContext.addRoutePolicyFactory(
+                (context, routeId, route) -> new TracingRoutePolicy(tailBasedSamplingStrategy));
+        tailBasedContext.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() {
+                from("direct:failing")
+                        .throwException(new IllegalStateException("boom"));
+            }
+        });
+        tailBasedContext.start();
+        try {
+            tailBasedContext.createProducerTemplate().send("direct:failing", e -> e.getIn().setHeader(
+                    WingtipsAwsGeneralUtil.TRACE_CONTEXT_MESSAGE_ATTR_NAME, "v1:aaaaaaaaaaaaaaaa:bbbbbbbbbbbbbbbb:0"));
+            tailBasedContext.createProducerTemplate().send("direct:failing", e -> e.getIn().setHeader(
+                    WingtipsAwsGeneralUtil.TRACE_CONTEXT_MESSAGE_ATTR_NAME, "v1:cccccccccccccccc:dddddddddddddddd:1"));
+        } finally {
+            tailBasedContext.stop();
+            Tracer.getInstance().removeSpanLifecycleListener(tailBasedSamplingStrategy);
+        }
+
+        // The sampled trace is kept, and the unsampled one leaves no buffer behind
+        assertEquals(1, tailBasedSamplingStrategy.getKeptCount());
+        assertEquals(0, tailBasedSamplingStrategy.getBufferedTraceCount());
+        assertEquals("cccccccccccccccc", completed.get(completed.size() - 1).getTraceId());
+    }
+
+    @Test
+    public void testRoutes_startNewTraceWithoutTraceContext() {
+        camelContext.createProducerTemplate().sendBody("direct:outer", "body");
+
+        assertEquals(2, completed.size());
+        Span outer = completed.get(1);
+        assertNull(outer.getParentSpanId());
+        assertTrue(outer.isSampleable());
+        assertEquals(outer.getTraceId(), completed.get(0).getTraceId());
+    }
+
+    private void record(String step) {
+        traceIds.put(step, String.valueOf(MDC.get(Tracer.TRACE_ID_MDC_KEY)));
+        threadNames.put(step, Thread.currentThread().getName());
+    }
+}
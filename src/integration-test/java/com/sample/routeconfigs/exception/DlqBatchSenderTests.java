@@ -0,0 +1,149 @@
+package com.sample.routeconfigs.exception;
+
+import com.amazonaws.services.sqs.model.MessageAttributeValue;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequest;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequestEntry;
+import org.apache.camel.Exchange;
+import org.apache.camel.http.common.HttpOperationFailedException;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.impl.SimpleRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import wingtips.aws.general.util.WingtipsAwsGeneralUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DlqBatchSenderTests {
+
+    private static final String DLQ_URI = "aws-sqs://test-dlq?amazonSQSClient=#dlqClient&delaySeconds=5";
+
+    private final RecordingAmazonSQS dlqClient = new RecordingAmazonSQS();
+    private final SimpleRegistry registry = new SimpleRegistry();
+    private final DefaultCamelContext camelContext = new DefaultCamelContext(registry);
+    private final DlqBatchSender dlqBatchSender = new DlqBatchSender(4);
+    private final ExecutorService executorService = Executors.newFixedThreadPool(25);
+
+    @Before
+    public void setUp() throws Exception {
+        registry.put("dlqClient", dlqClient);
+        camelContext.start();
+        ReflectionTestUtils.setField(dlqBatchSender, "lingerMs", 1000L);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executorService.shutdownNow();
+        dlqBatchSender.destroy();
+        camelContext.stop();
+    }
+
+    @Test
+    public void testSend_usesTheDlqEndpointAndPropagatesHeaders() throws Exception {
+        ReflectionTestUtils.setField(dlqBatchSender, "lingerMs", 10L);
+        Exchange exchange = new DefaultExchange(camelContext);
+        exchange.getIn().setBody("<shipment/>");
+        exchange.getIn().setHeader("orderNumber", "1234");
+        exchange.getIn().setHeader("lineCount", 3);
+        exchange.getIn().setHeader(Exchange.HTTP_RESPONSE_CODE, 503);
+        exchange.getIn().setHeader(Exchange.REDELIVERY_COUNTER, 2);
+        exchange.getIn().setHeader(WingtipsAwsGeneralUtil.TRACE_CONTEXT_MESSAGE_ATTR_NAME, "v1:trace:span:1");
+        exchange.setProperty(Exchange.EXCEPTION_CAUGHT,
+                new HttpOperationFailedException("http://localhost/pulse", 503, "Unavailable", null, null, ""));
+
+        dlqBatchSender.processorFor(DLQ_URI).process(exchange);
+
+        assertEquals(1, dlqClient.batches.size());
+        assertEquals(RecordingAmazonSQS.QUEUE_URL, dlqClient.batches.get(0).getQueueUrl());
+        SendMessageBatchRequestEntry entry = dlqClient.batches.get(0).getEntries().get(0);
+        assertEquals("<shipment/>", entry.getMessageBody());
+        assertEquals(Integer.valueOf(5), entry.getDelaySeconds());
+        Map<String, MessageAttributeValue> attributes = entry.getMessageAttributes();
+        assertEquals("1234", attributes.get("orderNumber").getStringValue());
+        assertEquals("Number.int", attributes.get("lineCount").getDataType());
+        assertFalse(attributes.containsKey(Exchange.HTTP_RESPONSE_CODE));
+        assertEquals("v1:trace:span:1",
+                attributes.get(WingtipsAwsGeneralUtil.TRACE_CONTEXT_MESSAGE_ATTR_NAME).getStringValue());
+        assertEquals(HttpOperationFailedException.class.getName(),
+                attributes.get(DlqBatchSender.EXCEPTION_CLASS).getStringValue());
+        assertEquals("503", attributes.get(DlqBatchSender.HTTP_STATUS_CODE).getStringValue());
+        assertEquals("3", attributes.get(DlqBatchSender.ATTEMPT_COUNT).getStringValue());
+    }
+
+    @Test
+    public void testSend_batchesAtMostTenMessages() throws Exception {
+        send(25, "<shipment/>");
+
+        List<Integer> batchSizes = dlqClient.batches.stream().map(batch -> batch.getEntries().size()).sorted()
+                .collect(Collectors.toList());
+        assertEquals(Arrays.asList(5, 10, 10), batchSizes);
+    }
+
+    @Test
+    public void testSend_sendsBatchBeforeItExceedsThePayloadLimit() throws Exception {
+        char[] body = new char[100 * 1024];
+        Arrays.fill(body, 'x');
+
+        send(5, new String(body));
+
+        assertEquals(5, dlqClient.batches.stream().mapToInt(batch -> batch.getEntries().size()).sum());
+        for (SendMessageBatchRequest batch : dlqClient.batches) {
+            int bytes = 0;
+            for (SendMessageBatchRequestEntry entry : batch.getEntries()) {
+                bytes += entry.getMessageBody().getBytes(StandardCharsets.UTF_8).length;
+                for (Map.Entry<String, MessageAttributeValue> attribute : entry.getMessageAttributes().entrySet()) {
+                    bytes += attribute.getKey().length() + attribute.getValue().getDataType().length()
+                            + attribute.getValue().getStringValue().length();
+                }
+            }
+            assertTrue(String.valueOf(bytes), bytes <= 256 * 1024);
+        }
+    }
+
+    @Test
+    public void testProcessor_continuesExchangeOnceTheBatchIsSent() throws Exception {
+        Exchange exchange = new DefaultExchange(camelContext);
+        exchange.getIn().setBody("<shipment/>");
+        CountDownLatch done = new CountDownLatch(1);
+
+        // The exchange's thread is not held while the message waits for the batch
+        boolean doneSync = dlqBatchSender.processorFor(DLQ_URI).process(exchange, doneSynchronously -> done.countDown());
+
+        assertFalse(doneSync);
+        assertTrue(dlqClient.batches.isEmpty());
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(1, dlqClient.batches.size());
+        assertNull(exchange.getException());
+    }
+
+    private void send(int messages, String body) throws Exception {
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < messages; i++) {
+            results.add(executorService.submit(() -> {
+                Exchange exchange = new DefaultExchange(camelContext);
+                exchange.getIn().setBody(body);
+                return dlqBatchSender.send(DLQ_URI, exchange).get(10, TimeUnit.SECONDS);
+            }));
+        }
+        for (Future<?> result : results) {
+            result.get(10, TimeUnit.SECONDS);
+        }
+    }
+}
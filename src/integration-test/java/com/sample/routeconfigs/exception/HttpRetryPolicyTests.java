@@ -0,0 +1,74 @@
+package com.sample.routeconfigs.exception;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HttpRetryPolicyTests {
+
+    private final HttpRetryPolicy httpRetryPolicy = new HttpRetryPolicy();
+
+    @Test
+    public void testSetStatusCodes_trimsConfiguredLists() {
+        httpRetryPolicy.setNonRetriableStatusCodes(" 400, 403 ,409,");
+        httpRetryPolicy.setThrottledStatusCodes("429, 503");
+
+        assertFalse(httpRetryPolicy.isRetriable(400));
+        assertFalse(httpRetryPolicy.isRetriable(403));
+        assertFalse(httpRetryPolicy.isRetriable(409));
+        assertTrue(httpRetryPolicy.isRetriable(500));
+        assertTrue(httpRetryPolicy.isRetriable(null));
+
+        // 503 uses the throttled curve: 5000 ms less at most half of it
+        long delayMs = httpRetryPolicy.redeliveryDelayMs(503, 0, null);
+        assertTrue(String.valueOf(delayMs), delayMs >= 2500 && delayMs <= 5000);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testSetStatusCodes_rejectsInvalidCodes() {
+        httpRetryPolicy.setNonRetriableStatusCodes("400,forbidden");
+    }
+
+    @Test
+    public void testRedeliveryDelayMs_addsJitterToRetryAfter() {
+        Map<String, String> responseHeaders = Collections.singletonMap("retry-after", "10");
+        Set<Long> delays = new HashSet<>();
+
+        for (int i = 0; i < 100; i++) {
+            long delayMs = httpRetryPolicy.redeliveryDelayMs(429, 0, responseHeaders);
+            assertTrue(String.valueOf(delayMs), delayMs >= 10000 && delayMs <= 15000);
+            delays.add(delayMs);
+        }
+        assertTrue(delays.size() > 1);
+    }
+
+    @Test
+    public void testRedeliveryDelayMs_capsRetryAfterAtMaxDelay() {
+        Map<String, String> responseHeaders = Collections.singletonMap("Retry-After", "3600");
+        Set<Long> delays = new HashSet<>();
+
+        for (int i = 0; i < 100; i++) {
+            long delayMs = httpRetryPolicy.redeliveryDelayMs(503, 0, responseHeaders);
+            assertTrue(String.valueOf(delayMs), delayMs >= 60000 && delayMs <= 120000);
+            delays.add(delayMs);
+        }
+        assertTrue(delays.size() > 1);
+    }
+
+    @Test
+    public void testRedeliveryDelayMs_ignoresRetryAfterForServerErrors() {
+        Map<String, String> responseHeaders = Collections.singletonMap("Retry-After", "30");
+
+        long delayMs = httpRetryPolicy.redeliveryDelayMs(500, 1, responseHeaders);
+
+        assertTrue(String.valueOf(delayMs), delayMs >= 2000 && delayMs <= 4000);
+        assertEquals(0, httpRetryPolicy.redeliveryDelayMs(429, 0, Collections.singletonMap("Retry-After", "0")));
+    }
+}
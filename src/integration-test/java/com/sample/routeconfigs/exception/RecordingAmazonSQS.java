@@ -0,0 +1,68 @@
+package com.sample.routeconfigs.exception;
+
+import com.amazonaws.services.sqs.AbstractAmazonSQS;
+import com.amazonaws.services.sqs.model.CreateQueueRequest;
+import com.amazonaws.services.sqs.model.CreateQueueResult;
+import com.amazonaws.services.sqs.model.GetQueueUrlRequest;
+import com.amazonaws.services.sqs.model.GetQueueUrlResult;
+import com.amazonaws.services.sqs.model.ListQueuesResult;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequest;
+import com.amazonaws.services.sqs.model.SendMessageBatchResult;
+import com.amazonaws.services.sqs.model.SendMessageBatchResultEntry;
+import com.amazonaws.services.sqs.model.SendMessageRequest;
+import com.amazonaws.services.sqs.model.SendMessageResult;
+import com.amazonaws.services.sqs.model.SetQueueAttributesRequest;
+import com.amazonaws.services.sqs.model.SetQueueAttributesResult;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves every queue to {@link #QUEUE_URL}, accepts every message and records the messages and batches sent.
+ */
+public class RecordingAmazonSQS extends AbstractAmazonSQS {
+
+    public static final String QUEUE_URL = "https://sqs.us-east-1.amazonaws.com/000000000000/test-dlq";
+
+    public final List<SendMessageRequest> messages = new CopyOnWriteArrayList<>();
+    public final List<SendMessageBatchRequest> batches = new CopyOnWriteArrayList<>();
+
+    @Override
+    public ListQueuesResult listQueues() {
+        return new ListQueuesResult().withQueueUrls(QUEUE_URL);
+    }
+
+    @Override
+    public GetQueueUrlResult getQueueUrl(GetQueueUrlRequest request) {
+        return new GetQueueUrlResult().withQueueUrl(QUEUE_URL);
+    }
+
+    @Override
+    public CreateQueueResult createQueue(CreateQueueRequest request) {
+        return new CreateQueueResult().withQueueUrl(QUEUE_URL);
+    }
+
+    @Override
+    public SetQueueAttributesResult setQueueAttributes(SetQueueAttributesRequest request) {
+        return new SetQueueAttributesResult();
+    }
+
+    @Override
+    public SendMessageResult sendMessage(SendMessageRequest request) {
+        messages.add(request);
+        return new SendMessageResult().withMessageId(UUID.randomUUID().toString());
+    }
+
+    @Override
+    public SendMessageBatchResult sendMessageBatch(SendMessageBatchRequest request) {
+        batches.add(request);
+        return new SendMessageBatchResult()
+                .withSuccessful(request.getEntries().stream()
+                        .map(entry -> new SendMessageBatchResultEntry().withId(entry.getId()))
+                        .collect(Collectors.toList()))
+                .withFailed(Collections.emptyList());
+    }
+}
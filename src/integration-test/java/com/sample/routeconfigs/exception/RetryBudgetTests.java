@@ -0,0 +1,195 @@
+package com.sample.routeconfigs.exception;
+
+import com.sample.springbootsampleapp.util.ErrorReporter;
+import com.sample.springbootsampleapp.util.ExceptionLoggingProcessor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.camel.Exchange;
+import org.apache.camel.ProducerTemplate;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.http.common.HttpOperationFailedException;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.impl.DefaultInjector;
+import org.apache.camel.impl.SimpleRegistry;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RetryBudgetTests {
+
+    private static final int MAX_REDELIVERIES = 3;
+
+    private final SimpleRegistry registry = new SimpleRegistry();
+    private final DefaultCamelContext camelContext = new DefaultCamelContext(registry);
+    private final AtomicInteger attempts = new AtomicInteger();
+    private final List<Long> redeliveryDelays = new CopyOnWriteArrayList<>();
+
+    @After
+    public void stopCamelContext() throws Exception {
+        camelContext.stop();
+    }
+
+    @Test
+    public void testTryAcquireRetry_allowsMinimumPlusRatioOfAttempts() {
+        RetryBudget retryBudget = new RetryBudget(true, 0.5, 1, 2, new SimpleMeterRegistry());
+
+        assertTrue(retryBudget.tryAcquireRetry());
+        assertTrue(retryBudget.tryAcquireRetry());
+        assertFalse(retryBudget.tryAcquireRetry());
+
+        retryBudget.recordAttempt();
+        retryBudget.recordAttempt();
+        assertTrue(retryBudget.tryAcquireRetry());
+        assertFalse(retryBudget.tryAcquireRetry());
+        assertEquals(3, retryBudget.getRetries(), 0);
+        assertEquals(2, retryBudget.getAttempts(), 0);
+    }
+
+    @Test
+    public void testTryAcquireRetry_disabled() {
+        RetryBudget retryBudget = new RetryBudget(false, 0, 0, 1, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(retryBudget.tryAcquireRetry());
+        }
+    }
+
+    @Test
+    public void testPredicate_stopsAtMaxRedeliveriesWithoutTakingFromBudget() {
+        RetryBudget retryBudget = new RetryBudget(true, 0, 1, 1, new SimpleMeterRegistry());
+        RetryBudgetPredicate predicate = new RetryBudgetPredicate(retryBudget, 2);
+        Exchange exchange = new DefaultExchange(camelContext);
+
+        exchange.getIn().setHeader(Exchange.REDELIVERY_COUNTER, 3);
+        assertFalse(predicate.matches(exchange));
+        assertEquals(0, retryBudget.getRetries(), 0);
+
+        exchange.getIn().setHeader(Exchange.REDELIVERY_COUNTER, 2);
+        assertTrue(predicate.matches(exchange));
+        assertFalse(predicate.matches(exchange));
+        assertTrue(new RetryBudgetPredicate(null, 2).matches(exchange));
+    }
+
+    @Test
+    public void testNonBlockingRedelivery_redeliversUpToMaxWithinBudget() throws Exception {
+        registry.put("retryBudget", new RetryBudget(true, 0, 100, 1, new SimpleMeterRegistry()));
+        startRoute(false);
+
+        Exchange result = send();
+
+        assertNotNull(result.getException());
+        assertEquals(1 + MAX_REDELIVERIES, attempts.get());
+        assertHandledOnce();
+    }
+
+    @Test
+    public void testNonBlockingRedelivery_sameHandlerRunsWhenBudgetIsExhausted() throws Exception {
+        registry.put("retryBudget", new RetryBudget(true, 0, 0, 1, new SimpleMeterRegistry()));
+        startRoute(false);
+
+        Exchange result = send();
+
+        assertNotNull(result.getException());
+        assertEquals(1, attempts.get());
+        assertHandledOnce();
+    }
+
+    @Test
+    public void testHttpHandler_sameHandlerRunsWhenBudgetIsExhausted() throws Exception {
+        RetryBudget retryBudget = new RetryBudget(true, 0, 1, 1, new SimpleMeterRegistry());
+        registry.put("retryBudget", retryBudget);
+        startRoute(true);
+
+        Exchange result = send();
+
+        // One redelivery was left in the budget, then the HTTP handler sent the message on without retrying further
+        assertEquals(2, attempts.get());
+        assertEquals(1, retryBudget.getRetries(), 0);
+        assertHandledOnce();
+        assertTrue(result.getProperty(Exchange.EXCEPTION_CAUGHT) instanceof HttpOperationFailedException);
+    }
+
+    @Test
+    public void testHttpHandler_doesNotLeaveRedeliveryDelayOnTheMessage() throws Exception {
+        registry.put("retryBudget", new RetryBudget(true, 0, 100, 1, new SimpleMeterRegistry()));
+        startRoute(true);
+
+        Exchange result = camelContext.createProducerTemplate().send("direct:failOnce", exchange -> { });
+
+        // The delay computed by the HTTP handler is not left for later redeliveries, e.g. by fixed delay handlers
+        assertNull(result.getException());
+        assertEquals(2, attempts.get());
+        assertNull(redeliveryDelays.get(1));
+        assertFalse(result.getIn().getHeaders().containsKey(Exchange.REDELIVERY_DELAY));
+    }
+
+    private void startRoute(boolean httpHandlers) throws Exception {
+        HttpRetryPolicy httpRetryPolicy = new HttpRetryPolicy();
+        ReflectionTestUtils.setField(httpRetryPolicy, "serverErrorInitialDelayMs", 1L);
+        registry.put("httpRetryPolicy", httpRetryPolicy);
+        ErrorReporter errorReporter = new ErrorReporter();
+        ReflectionTestUtils.setField(errorReporter, "samplesPerInterval", 10L);
+        ReflectionTestUtils.setField(errorReporter, "maxBodyLength", 512);
+        ExceptionLoggingProcessor exceptionLoggingProcessor = new ExceptionLoggingProcessor();
+        ReflectionTestUtils.setField(exceptionLoggingProcessor, "errorReporter", errorReporter);
+        // .bean(ExceptionLoggingProcessor.class) creates its processor with the injector, which Spring autowires
+        camelContext.setInjector(new DefaultInjector(camelContext) {
+            @Override
+            public <T> T newInstance(Class<T> type) {
+                return type == ExceptionLoggingProcessor.class ? type.cast(exceptionLoggingProcessor)
+                        : super.newInstance(type);
+            }
+        });
+
+        camelContext.addRoutes(new ExceptionHandlerRouteBuilder(MAX_REDELIVERIES, 1, 1) {
+            @Override
+            public void configure() throws Exception {
+                if (httpHandlers) {
+                    super.configure();
+                    getOnHttpOperationFailedExceptionDefinition().to("mock:handled");
+                } else {
+                    onExceptionWithNonBlockingRedelivery(Exception.class)
+                            .to("mock:handled");
+                }
+
+                from("direct:failOnce")
+                        .process(exchange -> {
+                            redeliveryDelays.add(exchange.getIn().getHeader(Exchange.REDELIVERY_DELAY, Long.class));
+                            if (attempts.incrementAndGet() == 1) {
+                                throw new HttpOperationFailedException("http://localhost/pulse", 500, "Server Error",
+                                        null, null, "");
+                            }
+                        });
+
+                from("direct:start")
+                        .process(exchange -> {
+                            attempts.incrementAndGet();
+                            throw new HttpOperationFailedException("http://localhost/pulse", 500, "Server Error",
+                                    null, null, "");
+                        });
+            }
+        });
+        camelContext.start();
+    }
+
+    private Exchange send() {
+        ProducerTemplate producerTemplate = camelContext.createProducerTemplate();
+        return producerTemplate.send("direct:start", exchange -> exchange.getIn().setBody("payload"));
+    }
+
+    private void assertHandledOnce() throws Exception {
+        MockEndpoint handled = camelContext.getEndpoint("mock:handled", MockEndpoint.class);
+        handled.expectedMessageCount(1);
+        handled.assertIsSatisfied(5000);
+    }
+}
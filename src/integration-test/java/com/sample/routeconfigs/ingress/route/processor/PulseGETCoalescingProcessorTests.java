@@ -0,0 +1,135 @@
+package com.sample.routeconfigs.ingress.route.processor;
+
+import com.sample.routeconfigs.common.route.OutgoingRESTCallRouteConfiguration;
+import com.sample.routeconfigs.ingress.route.configuration.IngressFromPulseRouteBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PulseGETCoalescingProcessorTests {
+
+    private static final int CONCURRENT_CALLS = 8;
+
+    private final DefaultCamelContext camelContext = new DefaultCamelContext();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService executorService = Executors.newFixedThreadPool(CONCURRENT_CALLS + 1);
+
+    private PulseGETCoalescingProcessor processor;
+
+    @Before
+    public void setUp() throws Exception {
+        camelContext.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() {
+                from(IngressFromPulseRouteBuilder.DIRECT_PULSE_GET_CALL_ROUTE)
+                        .process(exchange -> {
+                            String eventId = exchange.getIn().getHeader(OutgoingRESTCallRouteConfiguration.URL_SUFFIX,
+                                    String.class);
+                            int call = calls.computeIfAbsent(eventId, key -> new AtomicInteger()).incrementAndGet();
+                            assertTrue(release.await(10, TimeUnit.SECONDS));
+                            if (eventId.startsWith("failing")) {
+                                throw new IllegalStateException("Pulse unavailable");
+                            }
+                            exchange.getIn().setHeader(Exchange.HTTP_RESPONSE_CODE, 200);
+                            exchange.getIn().setBody("{\"eventId\":\"" + eventId + "\",\"call\":" + call + "}");
+                        });
+            }
+        });
+        camelContext.start();
+
+        processor = new PulseGETCoalescingProcessor(camelContext.createProducerTemplate(), meterRegistry);
+        ReflectionTestUtils.setField(processor, "coalescingEnabled", true);
+        ReflectionTestUtils.setField(processor, "followerTimeoutMs", 10000L);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executorService.shutdownNow();
+        camelContext.stop();
+    }
+
+    @Test
+    public void testProcess_concurrentCallsForSameEventShareOneCall() throws Exception {
+        List<Future<Exchange>> results = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_CALLS; i++) {
+            results.add(executorService.submit(() -> process("event-1", "trace-" + Thread.currentThread().getId())));
+        }
+        Future<Exchange> otherEvent = executorService.submit(() -> process("event-2", "trace-other"));
+        awaitFollowers(CONCURRENT_CALLS - 1);
+        release.countDown();
+
+        for (Future<Exchange> result : results) {
+            Exchange exchange = result.get(10, TimeUnit.SECONDS);
+            assertEquals("{\"eventId\":\"event-1\",\"call\":1}", exchange.getIn().getBody());
+            assertEquals(200, exchange.getIn().getHeader(Exchange.HTTP_RESPONSE_CODE));
+            assertTrue(exchange.getIn().getHeader("traceId", String.class).startsWith("trace-"));
+        }
+        assertEquals("{\"eventId\":\"event-2\",\"call\":1}", otherEvent.get(10, TimeUnit.SECONDS).getIn().getBody());
+        assertEquals(1, calls.get("event-1").get());
+        assertEquals(1, calls.get("event-2").get());
+        assertEquals(2, meterRegistry.counter("pulse.get.coalescing", "role", "leader").count(), 0);
+
+        // The key is released once the call completes, so a later GET makes a new call
+        assertEquals("{\"eventId\":\"event-1\",\"call\":2}", process("event-1", "trace-later").getIn().getBody());
+    }
+
+    @Test
+    public void testProcess_followersReceiveTheLeadersException() throws Exception {
+        List<Future<Exchange>> results = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_CALLS; i++) {
+            results.add(executorService.submit(() -> process("failing-event", "trace")));
+        }
+        awaitFollowers(CONCURRENT_CALLS - 1);
+        release.countDown();
+
+        for (Future<Exchange> result : results) {
+            try {
+                result.get(10, TimeUnit.SECONDS);
+                fail("Expected the Pulse GET call to fail");
+            } catch (ExecutionException e) {
+                assertEquals("Pulse unavailable", e.getCause().getMessage());
+            }
+        }
+        assertEquals(1, calls.get("failing-event").get());
+    }
+
+    private Exchange process(String eventId, String traceId) throws Exception {
+        Exchange exchange = new DefaultExchange(camelContext);
+        exchange.getIn().setHeader(OutgoingRESTCallRouteConfiguration.URL_SUFFIX, eventId);
+        exchange.getIn().setHeader("traceId", traceId);
+        processor.process(exchange);
+        return exchange;
+    }
+
+    private void awaitFollowers(int followers) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (meterRegistry.counter("pulse.get.coalescing", "role", "follower").count() < followers) {
+            assertTrue("Timed out waiting for the followers", System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.sample.routeconfigs.rest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class JWTSignatureCacheTests {
+
+    private static final String DOMAIN = "test-domain";
+
+    private final AtomicInteger signatures = new AtomicInteger();
+    private final AtomicBoolean signingFails = new AtomicBoolean();
+    private final ExecutorService executorService = Executors.newFixedThreadPool(8);
+
+    // Signs a token expiring in tokenLifetimeSeconds, numbered by the signature count
+    private volatile long tokenLifetimeSeconds = 3600;
+
+    private final RESTSecurityInterceptor restSecurityInterceptor = new RESTSecurityInterceptor(null) {
+        @Override
+        public void sign(Object headers, String domain) throws IOException {
+            if (signingFails.get()) {
+                throw new IOException("Signing failed");
+            }
+            try {
+                // Leaves time for concurrent callers to miss the cache
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            long exp = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) + tokenLifetimeSeconds;
+            ((HttpHeaders) headers).set(HttpHeaders.AUTHORIZATION, "Bearer " + token(exp, signatures.incrementAndGet()));
+        }
+    };
+
+    private final JWTSignatureCache jwtSignatureCache =
+            new JWTSignatureCache(restSecurityInterceptor, new SimpleMeterRegistry());
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testReadExpiryMillis_readsExpClaimOfBearerToken() {
+        assertEquals(1700000000000L,
+                jwtSignatureCache.readExpiryMillis(Collections.singletonList("Bearer " + token(1700000000L, 1))));
+        assertEquals(1700000000000L, jwtSignatureCache.readExpiryMillis(Collections.singletonList(token(1700000000L, 1))));
+    }
+
+    @Test
+    public void testReadExpiryMillis_returnsZeroForUnreadableTokens() {
+        String noExp = base64("{\"alg\":\"none\"}") + "." + base64("{\"sub\":\"ship\"}") + ".signature";
+
+        assertEquals(0, jwtSignatureCache.readExpiryMillis(null));
+        assertEquals(0, jwtSignatureCache.readExpiryMillis(Collections.emptyList()));
+        assertEquals(0, jwtSignatureCache.readExpiryMillis(Collections.singletonList("Bearer opaque")));
+        assertEquals(0, jwtSignatureCache.readExpiryMillis(Collections.singletonList("Bearer a.!!!.c")));
+        assertEquals(0, jwtSignatureCache.readExpiryMillis(Collections.singletonList("Bearer " + noExp)));
+    }
+
+    @Test
+    public void testGet_signsOnceForConcurrentMisses() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<HttpHeaders>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executorService.submit(() -> {
+                start.await();
+                return jwtSignatureCache.get(DOMAIN);
+            }));
+        }
+
+        start.countDown();
+
+        HttpHeaders first = results.get(0).get(10, TimeUnit.SECONDS);
+        for (Future<HttpHeaders> result : results) {
+            assertSame(first, result.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, signatures.get());
+    }
+
+    @Test
+    public void testRefresh_replacesSignatureBeforeItExpires() throws Exception {
+        HttpHeaders signed = signShortLivedToken();
+
+        jwtSignatureCache.refresh();
+
+        HttpHeaders refreshed = jwtSignatureCache.get(DOMAIN);
+        assertEquals(2, signatures.get());
+        assertEquals(2, tokenNumber(refreshed));
+        assertEquals(1, tokenNumber(signed));
+    }
+
+    @Test
+    public void testRefresh_keepsCurrentSignatureWhenSigningFails() throws Exception {
+        HttpHeaders signed = signShortLivedToken();
+        signingFails.set(true);
+
+        jwtSignatureCache.refresh();
+
+        assertSame(signed, jwtSignatureCache.get(DOMAIN));
+        assertEquals(1, signatures.get());
+    }
+
+    /**
+     * Caches a token expiring in 2 to 3 seconds, refreshed 2 seconds before it expires, and waits until it is due for
+     * refresh.
+     */
+    private HttpHeaders signShortLivedToken() throws Exception {
+        ReflectionTestUtils.setField(jwtSignatureCache, "refreshBeforeExpirySeconds", 2L);
+        ReflectionTestUtils.setField(jwtSignatureCache, "expirySkewSeconds", 0L);
+        tokenLifetimeSeconds = 3;
+        HttpHeaders signed = jwtSignatureCache.get(DOMAIN);
+        Thread.sleep(1500);
+        return signed;
+    }
+
+    private static int tokenNumber(HttpHeaders headers) {
+        String token = headers.getFirst(HttpHeaders.AUTHORIZATION);
+        return Integer.parseInt(token.substring(token.lastIndexOf('.') + 1));
+    }
+
+    private static String token(long exp, int number) {
+        return base64("{\"alg\":\"RS256\"}") + "." + base64("{\"sub\":\"ship\",\"exp\":" + exp + "}") + "." + number;
+    }
+
+    private static String base64(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,32 @@
+package com.sample.routeconfigs.rest;
+
+import com.sample.routeconfigs.common.model.pulse.EventData;
+import com.sample.routeconfigs.common.route.OutgoingRESTCallRouteConfiguration;
+import org.junit.Test;
+import wingtips.TraceHeaders;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OutboundHeaderFilterStrategyTests {
+
+    @Test
+    public void testApplyFilterToCamelHeaders_keepsOnlyAllowlistedHeaders() {
+        OutboundHeaderFilterStrategy strategy = new OutboundHeaderFilterStrategy("X-Custom-Header, ");
+
+        assertFalse(strategy.applyFilterToCamelHeaders("authorization", "Bearer token", null));
+        assertFalse(strategy.applyFilterToCamelHeaders(TraceHeaders.TRACE_ID, "trace", null));
+        assertFalse(strategy.applyFilterToCamelHeaders("x-custom-header", "value", null));
+        assertTrue(strategy.applyFilterToCamelHeaders(EventData.ENCODED_DATA, "encoded", null));
+        assertTrue(strategy.applyFilterToCamelHeaders("CamelHttpMethod", "POST", null));
+    }
+
+    @Test
+    public void testHandleHeaderFilterStrategy_keepsClientStrategy() {
+        assertEquals("&headerFilterStrategy=#outboundHeaderFilterStrategy",
+                OutgoingRESTCallRouteConfiguration.handleHeaderFilterStrategy(null));
+        assertEquals("", OutgoingRESTCallRouteConfiguration.handleHeaderFilterStrategy(
+                "headerFilterStrategy=#httpHeaderFilterStrategy&connectionClose=true"));
+    }
+}
@@ -0,0 +1,168 @@
+package com.sample.springbootsampleapp.route.configuration;
+
+import com.amazonaws.services.sqs.model.SendMessageRequest;
+import com.sample.phylon.s3.LocalS3Client;
+import com.sample.routeconfigs.exception.RecordingAmazonSQS;
+import com.sample.springbootsampleapp.util.ApplicationConstants;
+import com.sample.springbootsampleapp.util.ErrorReporter;
+import com.sample.springbootsampleapp.util.ExceptionLoggingProcessor;
+import com.sample.springbootsampleapp.util.PayloadLogger;
+import com.sample.springbootsampleapp.util.SchemaValidationTests;
+import com.sample.springbootsampleapp.util.TrackingUrlTemplateEngine;
+import com.sample.springbootsampleapp.util.XmlSchemaRegistry;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultInjector;
+import org.apache.camel.impl.SimpleRegistry;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ShipConfirmationRouteTests {
+
+    private static final String NOTIFICATION = "{\"Type\":\"Notification\",\"Message\":\"event-1\"}";
+
+    // The lines of the second chunk repeat a tracking number of the first one
+    private static final String SHIPMENT = "<shipment><messageID>m-1</messageID>"
+            + "<standardCarrierAlphaCode>FEDX</standardCarrierAlphaCode><lines>"
+            + "<line><containers><container><trackingNumber>1Z1</trackingNumber></container></containers></line>"
+            + "<line><containers><container><trackingNumber>1Z2</trackingNumber></container>"
+            + "<container><trackingNumber>1Z1</trackingNumber></container><container/></containers></line>"
+            + "</lines></shipment>";
+
+    private final XmlSchemaRegistry xmlSchemaRegistry = new XmlSchemaRegistry();
+    private final TrackingUrlTemplateEngine trackingUrlTemplateEngine =
+            new TrackingUrlTemplateEngine(new LocalS3Client("data/s3"));
+    private final RecordingAmazonSQS amazonSQSClient = new RecordingAmazonSQS();
+    private final SimpleRegistry registry = new SimpleRegistry();
+    private final DefaultCamelContext camelContext = new DefaultCamelContext(registry);
+
+    @After
+    public void stopCamelContext() throws Exception {
+        camelContext.stop();
+        trackingUrlTemplateEngine.destroy();
+    }
+
+    @Test
+    public void testSchemaValidation_movesInvalidDocumentToDlq() throws Exception {
+        startShipConfirmationRoute(true, false);
+        String shipment = SchemaValidationTests.readGoldenShipment();
+
+        Exchange valid = send(shipment);
+        assertNull(valid.getException());
+        assertTrue(amazonSQSClient.messages.isEmpty());
+
+        Exchange invalid = send(shipment.replace(">885909950123<", ">UPC-1<"));
+
+        // The exception is handled, so the consumer deletes the message, and the original message is dead-lettered
+        assertNull(invalid.getException());
+        assertEquals(1, amazonSQSClient.messages.size());
+        SendMessageRequest dlqMessage = amazonSQSClient.messages.get(0);
+        assertEquals(RecordingAmazonSQS.QUEUE_URL, dlqMessage.getQueueUrl());
+        assertEquals(NOTIFICATION, dlqMessage.getMessageBody());
+    }
+
+    @Test
+    public void testTrackingUrls_renderedForEveryContainer() throws Exception {
+        startShipConfirmationRoute(false, false);
+
+        Exchange result = send(SHIPMENT);
+
+        assertNull(result.getException());
+        assertEquals(expectedTrackingUrls(), result.getProperty(ApplicationConstants.TRACKING_URLS));
+    }
+
+    @Test
+    public void testTrackingUrls_collectedFromEveryChunkWhenStreaming() throws Exception {
+        startShipConfirmationRoute(false, true);
+
+        Exchange result = send(SHIPMENT);
+
+        assertNull(result.getException());
+        assertEquals(expectedTrackingUrls(), result.getProperty(ApplicationConstants.TRACKING_URLS));
+    }
+
+    @Test
+    public void testTrackingUrls_emptyForCarrierWithoutTemplate() throws Exception {
+        startShipConfirmationRoute(false, false);
+
+        Exchange result = send(SHIPMENT.replace(">FEDX<", ">UPSN<"));
+
+        assertNull(result.getException());
+        assertEquals(Collections.emptyMap(), result.getProperty(ApplicationConstants.TRACKING_URLS));
+    }
+
+    private static Map<String, String> expectedTrackingUrls() {
+        Map<String, String> trackingUrls = new LinkedHashMap<>();
+        trackingUrls.put("1Z1", "http://www.fedextest.com/fedextrack/?locale=en_US&tracknumbers=1Z1");
+        trackingUrls.put("1Z2", "http://www.fedextest.com/fedextrack/?locale=en_US&tracknumbers=1Z2");
+        return trackingUrls;
+    }
+
+    private Exchange send(String document) {
+        return camelContext.createProducerTemplate().send("direct:ingress", exchange -> {
+            exchange.getIn().setHeader("document", document);
+            exchange.getIn().setBody(NOTIFICATION);
+        });
+    }
+
+    private void startShipConfirmationRoute(boolean schemaValidation, boolean streaming) throws Exception {
+        ReflectionTestUtils.setField(xmlSchemaRegistry, "maxIdle", 2);
+        xmlSchemaRegistry.afterPropertiesSet();
+        ReflectionTestUtils.setField(trackingUrlTemplateEngine, "defaultLocale", "en_US");
+        ReflectionTestUtils.setField(trackingUrlTemplateEngine, "bucket", "sample-test-mp-fulfillment-repo");
+        ReflectionTestUtils.setField(trackingUrlTemplateEngine, "mappingPath", "tracking-urls-metadata");
+        ReflectionTestUtils.setField(trackingUrlTemplateEngine, "reloadIntervalSeconds", 60L);
+        trackingUrlTemplateEngine.afterPropertiesSet();
+
+        registry.put("amazonSQSClient", amazonSQSClient);
+        ErrorReporter errorReporter = new ErrorReporter();
+        ReflectionTestUtils.setField(errorReporter, "samplesPerInterval", 10L);
+        ReflectionTestUtils.setField(errorReporter, "maxBodyLength", 512);
+        ExceptionLoggingProcessor exceptionLoggingProcessor = new ExceptionLoggingProcessor();
+        ReflectionTestUtils.setField(exceptionLoggingProcessor, "errorReporter", errorReporter);
+        // .bean(ExceptionLoggingProcessor.class) creates its processor with the injector, which Spring autowires
+        camelContext.setInjector(new DefaultInjector(camelContext) {
+            @Override
+            public <T> T newInstance(Class<T> type) {
+                return type == ExceptionLoggingProcessor.class ? type.cast(exceptionLoggingProcessor)
+                        : super.newInstance(type);
+            }
+        });
+        PayloadLogger payloadLogger = new PayloadLogger();
+        ReflectionTestUtils.setField(payloadLogger, "maxLength", 64);
+
+        ShipConfirmationRoute shipConfirmationRoute = new ShipConfirmationRoute();
+        ReflectionTestUtils.setField(shipConfirmationRoute, "maxRedeliveryCount", 5);
+        ReflectionTestUtils.setField(shipConfirmationRoute, "redeliveryDelayMs", 1L);
+        ReflectionTestUtils.setField(shipConfirmationRoute, "staxCodecEnabled", true);
+        ReflectionTestUtils.setField(shipConfirmationRoute, "schemaValidationEnabled", schemaValidation);
+        ReflectionTestUtils.setField(shipConfirmationRoute, "streamingEnabled", streaming);
+        ReflectionTestUtils.setField(shipConfirmationRoute, "streamingChunkSize", 1);
+        ReflectionTestUtils.setField(shipConfirmationRoute, "dlqName", "test-dlq");
+        ReflectionTestUtils.setField(shipConfirmationRoute, "xmlSchemaRegistry", xmlSchemaRegistry);
+        ReflectionTestUtils.setField(shipConfirmationRoute, "payloadLogger", payloadLogger);
+        ReflectionTestUtils.setField(shipConfirmationRoute, "trackingUrlTemplateEngine", trackingUrlTemplateEngine);
+        camelContext.addRoutes(shipConfirmationRoute);
+
+        // Stands for the ingress route, which consumes the notification and fetches the document from Pulse
+        camelContext.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() {
+                from("direct:ingress")
+                        .setBody(header("document"))
+                        .to(ApplicationConstants.SHIP_CONFIRM_ROUTER);
+            }
+        });
+        camelContext.start();
+    }
+}
@@ -0,0 +1,102 @@
+package com.sample.springbootsampleapp.util;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ErrorReporterTests {
+
+    private final ErrorReporter errorReporter = new ErrorReporter();
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(errorReporter, "intervalSeconds", 60L);
+        ReflectionTestUtils.setField(errorReporter, "samplesPerInterval", 2L);
+        ReflectionTestUtils.setField(errorReporter, "maxBodyLength", 8);
+    }
+
+    @Test
+    public void testRecord_samplesFirstErrorsOfEachGroupPerInterval() {
+        assertTrue(errorReporter.record("java.io.IOException", "route", null));
+        assertTrue(errorReporter.record("java.io.IOException", "route", null));
+        assertFalse(errorReporter.record("java.io.IOException", "route", null));
+        assertTrue(errorReporter.record("java.io.IOException", "route", 500));
+
+        assertEquals(2, drainCounts().size());
+        assertTrue(errorReporter.record("java.io.IOException", "route", null));
+
+        assertEquals(Collections.singletonMap("ExceptionType=java.io.IOException RouteId=route StatusCode=null", 1L),
+                drainCounts());
+
+        // Idle groups are removed at the end of the interval
+        assertTrue(drainCounts().isEmpty());
+        assertTrue(((Map<?, ?>) ReflectionTestUtils.getField(errorReporter, "errorCounts")).isEmpty());
+    }
+
+    @Test
+    public void testRecord_countsEveryErrorWhileIntervalsEnd() throws Exception {
+        int threads = 4;
+        int errorsPerThread = 200000;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean done = new AtomicBoolean();
+        List<Thread> recorders = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Thread recorder = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int j = 0; j < errorsPerThread; j++) {
+                    errorReporter.record("java.io.IOException", "route", j % 100 == 0 ? 500 : null);
+                }
+            });
+            recorder.start();
+            recorders.add(recorder);
+        }
+
+        long counted = 0;
+        start.countDown();
+        while (!done.get()) {
+            done.set(recorders.stream().noneMatch(Thread::isAlive));
+            counted += drainCounts().values().stream().mapToLong(Long::longValue).sum();
+        }
+        counted += drainCounts().values().stream().mapToLong(Long::longValue).sum();
+
+        assertEquals((long) threads * errorsPerThread, counted);
+    }
+
+    @Test
+    public void testTruncate() {
+        assertNull(errorReporter.truncate(null));
+        assertEquals("<a>b</a>", errorReporter.truncate("<a>b</a>"));
+        assertEquals("<a>bc</a...(1 more characters)", errorReporter.truncate(new StringBuilder("<a>bc</a>")));
+        assertEquals("héllo wö...(3 more bytes)",
+                errorReporter.truncate("héllo wörld".getBytes(StandardCharsets.UTF_8)));
+        assertEquals("héllo", errorReporter.truncate("héllo".getBytes(StandardCharsets.UTF_8)));
+
+        InputStream body = new ByteArrayInputStream("<a>b</a>".getBytes(StandardCharsets.UTF_8));
+        assertEquals("[Body is instance of java.io.ByteArrayInputStream]", errorReporter.truncate(body));
+        assertEquals(8, ((ByteArrayInputStream) body).available());
+    }
+
+    private Map<String, Long> drainCounts() {
+        return ReflectionTestUtils.invokeMethod(errorReporter, "drainCounts");
+    }
+}
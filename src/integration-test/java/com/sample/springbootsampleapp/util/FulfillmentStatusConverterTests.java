@@ -0,0 +1,80 @@
+package com.sample.springbootsampleapp.util;
+
+import com.sample.springbootsampleapp.model.FulfillmentStatus;
+import com.sample.springbootsampleapp.model.FulfillmentStatusTarget;
+import org.apache.camel.CamelContext;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class FulfillmentStatusConverterTests {
+
+    private static final int LINE_COUNT = 1000;
+
+    @Test
+    public void testConvertBodyTo_mapsLargeDocument() throws Exception {
+        CamelContext camelContext = new DefaultCamelContext();
+        FulfillmentStatus source = fulfillmentStatus(LINE_COUNT);
+
+        FulfillmentStatusTarget target = camelContext.getTypeConverter()
+                .mandatoryConvertTo(FulfillmentStatusTarget.class, source);
+
+        assertSame(source.getFulfillmentRequestNumber(), target.getFulfillmentRequestNumber());
+        assertSame(source.getMessageID(), target.getMessageID());
+        assertEquals(1, target.getLines().size());
+        List<FulfillmentStatusTarget.Lines.Line> lines = target.getLines().get(0).getLine();
+        assertEquals(LINE_COUNT, lines.size());
+        for (int i = 0; i < LINE_COUNT; i++) {
+            FulfillmentStatus.Lines.Line sourceLine = source.getLines().get(0).getLine().get(i);
+            FulfillmentStatusTarget.Lines.Line line = lines.get(i);
+            assertSame(sourceLine.getLineNumber(), line.getLineNumber());
+            assertSame(sourceLine.getOrderLineIdentifier(), line.getOrderLineKey());
+            assertSame(sourceLine.getOrderLineStatus(), line.getOrderLineStatus());
+            assertSame(sourceLine.getConfirmedQuantity(), line.getConfirmedQuantity());
+            assertEquals(i % 2 == 0 ? 100000 + i : 0, line.getUniversalProductCode());
+            assertNull(line.getProductCode());
+        }
+    }
+
+    @Test
+    public void testConvertBodyTo_keepsAbsentListsNull() throws Exception {
+        FulfillmentStatusTarget target = FulfillmentStatusConverter.toFulfillmentStatusTarget(new FulfillmentStatus());
+
+        assertNull(target.getLines());
+    }
+
+    private FulfillmentStatus fulfillmentStatus(int lineCount) {
+        FulfillmentStatus fulfillmentStatus = new FulfillmentStatus();
+        fulfillmentStatus.setFulfillmentRequestNumber("FR0000012345");
+        fulfillmentStatus.setMessageID("0f3b2c4d-5e6f-4a1b-8c9d-0e1f2a3b4c5d");
+
+        List<FulfillmentStatus.Lines.Line> lines = new ArrayList<>(lineCount);
+        for (int i = 0; i < lineCount; i++) {
+            FulfillmentStatus.Lines.Line line = new FulfillmentStatus.Lines.Line();
+            line.setLineNumber(String.valueOf(i + 1));
+            line.setOrderLineIdentifier("OL-" + i);
+            line.setOrderLineStatus("SHIPPED");
+            line.setConfirmedQuantity("1");
+            if (i % 2 == 0) {
+                FulfillmentStatus.Lines.Line.Containers.Container container =
+                        new FulfillmentStatus.Lines.Line.Containers.Container();
+                container.setUniversalProductCode(100000 + i);
+                FulfillmentStatus.Lines.Line.Containers containers = new FulfillmentStatus.Lines.Line.Containers();
+                containers.setContainer(Collections.singletonList(container));
+                line.setContainers(Collections.singletonList(containers));
+            }
+            lines.add(line);
+        }
+        FulfillmentStatus.Lines linesElement = new FulfillmentStatus.Lines();
+        linesElement.setLine(lines);
+        fulfillmentStatus.setLines(Collections.singletonList(linesElement));
+        return fulfillmentStatus;
+    }
+}
@@ -0,0 +1,70 @@
+package com.sample.springbootsampleapp.util;
+
+import com.sample.routeconfigs.common.model.pulse.EventContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class NspPayloadTranscoderTests {
+
+    private static final String GOLDEN_MESSAGE_ID = "8d7c1b62-3f0e-4c1a-9b7e-2f4a6d9e5c10";
+
+    @Test
+    public void testProcess_encodesGzipBase64AndSetsBusinessKey() throws Exception {
+        String document = readGoldenFile("/golden/shipment.xml");
+        Exchange exchange = new DefaultExchange(new DefaultCamelContext());
+        exchange.getIn().setBody(document);
+
+        new NspPayloadTranscoder().process(exchange);
+
+        assertEquals(GOLDEN_MESSAGE_ID, exchange.getProperty(ApplicationConstants.MESSAGE_ID));
+        assertEquals(GOLDEN_MESSAGE_ID, exchange.getIn().getHeader(EventContext.BUSINESS_KEY_VALUE));
+        assertEquals(ApplicationConstants.MESSAGE_ID, exchange.getIn().getHeader(EventContext.BUSINESS_KEY_NAME));
+        assertEquals(document, decode(exchange.getIn().getBody(String.class)));
+    }
+
+    @Test
+    public void testEncode_keepsNonAsciiCharacters() throws Exception {
+        String document = "<shipment><shipTo><name>Björk Étienne 東京</name></shipTo></shipment>";
+
+        assertEquals(document, decode(NspPayloadTranscoder.encode(document)));
+    }
+
+    @Test
+    public void testExtractMessageId_missing() throws Exception {
+        assertNull(NspPayloadTranscoder.extractMessageId("<shipment><lines><line><messageID>nested</messageID></line></lines></shipment>"));
+    }
+
+    private String decode(String encoded) throws Exception {
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(encoded)))) {
+            return readFully(inputStream);
+        }
+    }
+
+    private String readGoldenFile(String goldenFile) throws Exception {
+        try (InputStream inputStream = getClass().getResourceAsStream(goldenFile)) {
+            return readFully(inputStream);
+        }
+    }
+
+    private String readFully(InputStream inputStream) throws Exception {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            content.write(buffer, 0, read);
+        }
+        return new String(content.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
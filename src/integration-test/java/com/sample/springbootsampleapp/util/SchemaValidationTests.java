@@ -0,0 +1,82 @@
+package com.sample.springbootsampleapp.util;
+
+import com.sample.springbootsampleapp.model.FulfillmentStatus;
+import com.sample.springbootsampleapp.model.Shipment;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.processor.validation.SchemaValidationException;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class SchemaValidationTests {
+
+    private final XmlSchemaRegistry xmlSchemaRegistry = new XmlSchemaRegistry();
+    private final DefaultCamelContext camelContext = new DefaultCamelContext();
+
+    @Before
+    public void setUp() throws Exception {
+        ReflectionTestUtils.setField(xmlSchemaRegistry, "maxIdle", 2);
+        xmlSchemaRegistry.afterPropertiesSet();
+    }
+
+    @Test
+    public void testValidate_acceptsGoldenDocuments() throws Exception {
+        // zipCode 97005 is out of the xs:short range and the 12 digit product codes out of the xs:int range
+        validate(Shipment.class, readGoldenShipment());
+        validate(FulfillmentStatus.class, readGoldenFile("/golden/fulfillmentStatus.xml"));
+    }
+
+    @Test
+    public void testValidate_rejectsInvalidCodes() throws Exception {
+        String shipment = readGoldenShipment();
+
+        assertRejected(Shipment.class, shipment.replace(">885909950123<", ">UPC-1<"));
+        assertRejected(Shipment.class, shipment.replace(">885909950123<", ">123456789012345<"));
+        assertRejected(Shipment.class, shipment.replace("> 97005 <", ">97005-12345-6<"));
+        validate(Shipment.class, shipment.replace("> 97005 <", ">97005-1234<"));
+        validate(Shipment.class, shipment.replace("> 97005 <", ">K1A 0B1<"));
+    }
+
+    @Test
+    public void testValidate_rejectsDoctype() throws Exception {
+        String shipment = readGoldenShipment();
+        int root = shipment.indexOf("<shipment");
+
+        assertRejected(Shipment.class, shipment.substring(0, root)
+                + "<!DOCTYPE shipment [<!ENTITY name \"value\">]>" + shipment.substring(root));
+    }
+
+    private void validate(Class<?> modelClass, String document) throws Exception {
+        Exchange exchange = new DefaultExchange(camelContext);
+        exchange.getIn().setBody(document);
+        new SchemaValidationProcessor(xmlSchemaRegistry, modelClass).process(exchange);
+    }
+
+    private void assertRejected(Class<?> modelClass, String document) throws Exception {
+        try {
+            validate(modelClass, document);
+            fail("Expected the document to be rejected");
+        } catch (SchemaValidationException e) {
+            assertEquals(1, e.getErrors().size());
+        }
+    }
+
+    public static String readGoldenShipment() throws Exception {
+        // The golden shipment also covers the unknown elements JAXB skips, which the schema rejects
+        return readGoldenFile("/golden/shipment.xml").replaceAll("(?s)\\s*<unknownElement>.*?</unknownElement>", "");
+    }
+
+    private static String readGoldenFile(String goldenFile) throws Exception {
+        return new String(Files.readAllBytes(Paths.get(SchemaValidationTests.class.getResource(goldenFile).toURI())),
+                StandardCharsets.UTF_8);
+    }
+}
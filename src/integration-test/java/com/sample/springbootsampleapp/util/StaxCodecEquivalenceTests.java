@@ -0,0 +1,221 @@
+package com.sample.springbootsampleapp.util;
+
+import com.sample.springbootsampleapp.model.FulfillmentStatus;
+import com.sample.springbootsampleapp.model.Shipment;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks that the StAX codecs read and write the golden documents exactly like JAXB does.
+ * <p>
+ * Both results are marshalled with JAXB before comparing, so the assertions cover every bound field and are not
+ * affected by formatting differences such as the XML declaration or empty-element syntax.
+ */
+public class StaxCodecEquivalenceTests {
+
+    private final CamelContext camelContext = new DefaultCamelContext();
+
+    @Test
+    public void testShipmentCodec_readsLikeJaxb() throws Exception {
+        assertReadsLikeJaxb(ShipmentStaxCodec.INSTANCE, "/golden/shipment.xml");
+    }
+
+    @Test
+    public void testShipmentCodec_writesLikeJaxb() throws Exception {
+        assertWritesLikeJaxb(ShipmentStaxCodec.INSTANCE, "/golden/shipment.xml");
+    }
+
+    @Test
+    public void testShipmentCodec_readsNumbersLikeJaxb() throws Exception {
+        // Out of range, signed, spaced and invalid numbers, which JAXB narrows, wraps or leaves at the default
+        assertReadsLikeJaxb(ShipmentStaxCodec.INSTANCE, "/golden/shipmentNumbers.xml");
+    }
+
+    @Test
+    public void testFulfillmentStatusCodec_readsLikeJaxb() throws Exception {
+        assertReadsLikeJaxb(FulfillmentStatusStaxCodec.INSTANCE, "/golden/fulfillmentStatus.xml");
+    }
+
+    @Test
+    public void testFulfillmentStatusCodec_writesLikeJaxb() throws Exception {
+        assertWritesLikeJaxb(FulfillmentStatusStaxCodec.INSTANCE, "/golden/fulfillmentStatus.xml");
+    }
+
+    @Test
+    public void testCompactCodecs_readLikeJaxb() throws Exception {
+        assertReadsLikeJaxb(ShipmentStaxCodec.COMPACT, "/golden/shipment.xml");
+        assertReadsLikeJaxb(FulfillmentStatusStaxCodec.COMPACT, "/golden/fulfillmentStatus.xml");
+    }
+
+    @Test
+    public void testCompactCodec_sharesCodesAcrossDocuments() throws Exception {
+        FulfillmentStatus first = readGolden(FulfillmentStatusStaxCodec.COMPACT, "/golden/fulfillmentStatus.xml");
+        FulfillmentStatus second = readGolden(FulfillmentStatusStaxCodec.COMPACT, "/golden/fulfillmentStatus.xml");
+
+        FulfillmentStatus.Lines.Line firstLine = first.getLines().get(0).getLine().get(0);
+        FulfillmentStatus.Lines.Line secondLine = second.getLines().get(0).getLine().get(0);
+        assertSame(firstLine.getOrderLineStatus(), secondLine.getOrderLineStatus());
+        assertSame(firstLine.getConfirmedQuantity(), secondLine.getConfirmedQuantity());
+        assertSame(first.getContainerDetails().get(0).getContainerDetail().get(0).getDimensions().getWeightUnitOfMeasure(),
+                second.getContainerDetails().get(0).getContainerDetail().get(0).getDimensions().getWeightUnitOfMeasure());
+        assertNotSame(first.getMessageID(), second.getMessageID());
+    }
+
+    @Test
+    public void testStaxUnmarshalProcessor_capturesMessageId() throws Exception {
+        Exchange exchange = new DefaultExchange(camelContext);
+        exchange.getIn().setBody(new String(readGoldenFile("/golden/shipment.xml"), StandardCharsets.UTF_8));
+
+        new StaxUnmarshalProcessor(ShipmentStaxCodec.INSTANCE).process(exchange);
+
+        assertEquals("8d7c1b62-3f0e-4c1a-9b7e-2f4a6d9e5c10", exchange.getProperty(ApplicationConstants.MESSAGE_ID));
+        assertEquals(jaxbMarshal(jaxbUnmarshal(Shipment.class, "/golden/shipment.xml")),
+                jaxbMarshal(exchange.getIn().getBody(Shipment.class)));
+    }
+
+    @Test
+    public void testStaxUnmarshalProcessor_setsMessageIdWhenUnmarshalFails() throws Exception {
+        JaxbRegistry jaxbRegistry = new JaxbRegistry();
+        ReflectionTestUtils.setField(jaxbRegistry, "maxIdle", 1);
+        jaxbRegistry.afterPropertiesSet();
+        String document = "<shipment><messageID> broken-1 </messageID><shipTo><address></shipTo></shipment>";
+
+        for (StaxUnmarshalProcessor processor : new StaxUnmarshalProcessor[] {
+                new StaxUnmarshalProcessor(ShipmentStaxCodec.INSTANCE),
+                new StaxUnmarshalProcessor(jaxbRegistry, Shipment.class)}) {
+            Exchange exchange = new DefaultExchange(camelContext);
+            exchange.getIn().setBody(document);
+            try {
+                processor.process(exchange);
+                fail("Expected the malformed document to fail");
+            } catch (Exception expected) {
+                assertEquals("broken-1", exchange.getProperty(ApplicationConstants.MESSAGE_ID));
+            }
+        }
+    }
+
+    @Test
+    public void testShipmentLineSplitter_setsMessageIdWhenHeaderFails() {
+        Exchange exchange = new DefaultExchange(camelContext);
+        exchange.getIn().setBody("<shipment><messageID>broken-2</messageID><shipTo><address></shipTo></shipment>");
+
+        try {
+            new ShipmentLineSplitter(ShipmentStaxCodec.COMPACT, 1).evaluate(exchange);
+            fail("Expected the malformed document to fail");
+        } catch (RuntimeException expected) {
+            assertEquals("broken-2", exchange.getProperty(ApplicationConstants.MESSAGE_ID));
+        }
+    }
+
+    @Test
+    public void testShipmentLineSplitter_readsLikeJaxb() throws Exception {
+        Exchange exchange = new DefaultExchange(camelContext);
+        exchange.getIn().setBody(new String(readGoldenFile("/golden/shipment.xml"), StandardCharsets.UTF_8));
+
+        Iterator<?> chunks = (Iterator<?>) new ShipmentLineSplitter(ShipmentStaxCodec.COMPACT, 1).evaluate(exchange);
+        List<Shipment.Lines.Line> lines = new ArrayList<>();
+        while (chunks.hasNext()) {
+            List<?> chunk = (List<?>) chunks.next();
+            assertEquals(1, chunk.size());
+            lines.add((Shipment.Lines.Line) chunk.get(0));
+        }
+
+        Shipment header = exchange.getProperty(ShipmentLineSplitter.SHIPMENT_HEADER, Shipment.class);
+        assertEquals("8d7c1b62-3f0e-4c1a-9b7e-2f4a6d9e5c10", exchange.getProperty(ApplicationConstants.MESSAGE_ID));
+        assertNull(header.getLines());
+
+        // Putting the streamed lines back must give the document JAXB reads
+        Shipment.Lines streamedLines = new Shipment.Lines();
+        streamedLines.setLine(lines);
+        header.setLines(streamedLines);
+        assertEquals(jaxbMarshal(jaxbUnmarshal(Shipment.class, "/golden/shipment.xml")), jaxbMarshal(header));
+    }
+
+    @Test
+    public void testStaxDataFormat_roundTrip() throws Exception {
+        StaxDataFormat<FulfillmentStatus> dataFormat = new StaxDataFormat<>(FulfillmentStatusStaxCodec.INSTANCE);
+        Exchange exchange = new DefaultExchange(camelContext);
+
+        Object fulfillmentStatus = dataFormat.unmarshal(exchange,
+                new ByteArrayInputStream(readGoldenFile("/golden/fulfillmentStatus.xml")));
+        ByteArrayOutputStream marshalled = new ByteArrayOutputStream();
+        dataFormat.marshal(exchange, fulfillmentStatus, marshalled);
+        Object roundTripped = dataFormat.unmarshal(exchange, new ByteArrayInputStream(marshalled.toByteArray()));
+
+        assertEquals(jaxbMarshal(jaxbUnmarshal(FulfillmentStatus.class, "/golden/fulfillmentStatus.xml")),
+                jaxbMarshal(roundTripped));
+    }
+
+    private <T> void assertReadsLikeJaxb(StaxCodec<T> codec, String goldenFile) throws Exception {
+        String expected = jaxbMarshal(jaxbUnmarshal(codec.getType(), goldenFile));
+
+        assertEquals(expected, jaxbMarshal(readGolden(codec, goldenFile)));
+    }
+
+    private <T> T readGolden(StaxCodec<T> codec, String goldenFile) throws Exception {
+        XMLStreamReader reader = XMLInputFactory.newInstance()
+                .createXMLStreamReader(new ByteArrayInputStream(readGoldenFile(goldenFile)));
+        return codec.read(reader);
+    }
+
+    private <T> void assertWritesLikeJaxb(StaxCodec<T> codec, String goldenFile) throws Exception {
+        T value = jaxbUnmarshal(codec.getType(), goldenFile);
+        String expected = jaxbMarshal(value);
+
+        StringWriter written = new StringWriter();
+        codec.write(value, StaxCodec.XML_OUTPUT_FACTORY.createXMLStreamWriter(written));
+        Object actual = JAXBContext.newInstance(codec.getType()).createUnmarshaller()
+                .unmarshal(new ByteArrayInputStream(written.toString().getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(expected, jaxbMarshal(actual));
+    }
+
+    private <T> T jaxbUnmarshal(Class<T> type, String goldenFile) throws Exception {
+        Object value = JAXBContext.newInstance(type).createUnmarshaller()
+                .unmarshal(new ByteArrayInputStream(readGoldenFile(goldenFile)));
+        return type.cast(value);
+    }
+
+    private String jaxbMarshal(Object value) throws Exception {
+        Marshaller marshaller = JAXBContext.newInstance(value.getClass()).createMarshaller();
+        marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+        StringWriter document = new StringWriter();
+        marshaller.marshal(value, document);
+        return document.toString();
+    }
+
+    private byte[] readGoldenFile(String goldenFile) throws Exception {
+        try (InputStream inputStream = getClass().getResourceAsStream(goldenFile)) {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                content.write(buffer, 0, read);
+            }
+            return content.toByteArray();
+        }
+    }
+}
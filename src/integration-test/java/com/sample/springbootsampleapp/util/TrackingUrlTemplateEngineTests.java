@@ -0,0 +1,78 @@
+package com.sample.springbootsampleapp.util;
+
+import com.sample.phylon.s3.LocalS3Client;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class TrackingUrlTemplateEngineTests {
+
+    private static final String FEDEX_TEMPLATE =
+            "http://www.fedextest.com/fedextrack/?locale=locale_value&tracknumbers=tracking_number_value";
+
+    @Test
+    public void testTemplate_rendersLikeReplace() {
+        assertRendersLikeReplace(FEDEX_TEMPLATE);
+        assertRendersLikeReplace("tracking_number_value/locale_value/tracking_number_value");
+        assertRendersLikeReplace("http://carrier.example.com/track");
+    }
+
+    @Test
+    public void testTemplate_rendersNullValuesAsEmpty() {
+        TrackingUrlTemplateEngine.Template template = TrackingUrlTemplateEngine.Template.compile(FEDEX_TEMPLATE);
+
+        assertEquals("http://www.fedextest.com/fedextrack/?locale=&tracknumbers=", template.render(null, null));
+    }
+
+    @Test
+    public void testTemplate_percentEncodesValues() {
+        TrackingUrlTemplateEngine.Template template = TrackingUrlTemplateEngine.Template.compile(FEDEX_TEMPLATE);
+
+        assertEquals("http://www.fedextest.com/fedextrack/?locale=en%20US&tracknumbers=1Z%26x%3D1%2F%C3%A9",
+                template.render("en US", "1Z&x=1/\u00e9"));
+    }
+
+    @Test
+    public void testReload_loadsMappingAndKeepsItWhileETagIsUnchanged() {
+        TrackingUrlTemplateEngine engine = new TrackingUrlTemplateEngine(new LocalS3Client("data/s3"));
+        ReflectionTestUtils.setField(engine, "bucket", "sample-test-mp-fulfillment-repo");
+        ReflectionTestUtils.setField(engine, "mappingPath", "tracking-urls-metadata");
+
+        engine.reload();
+        Object loaded = ReflectionTestUtils.getField(engine, "templates");
+        engine.reload();
+
+        assertSame(loaded, ReflectionTestUtils.getField(engine, "templates"));
+        assertEquals("http://www.fedextest.com/fedextrack/?locale=en_US&tracknumbers=1Z999",
+                engine.render("FEDX", "en_US", "1Z999"));
+        assertNull(engine.render("UPSN", "en_US", "1Z999"));
+    }
+
+    @Test
+    public void testReload_keepsTemplatesInUseWhenMappingIsMissing() {
+        TrackingUrlTemplateEngine engine = new TrackingUrlTemplateEngine(new LocalS3Client("data/s3"));
+        ReflectionTestUtils.setField(engine, "templates",
+                TrackingUrlTemplateEngine.compile("etag", Collections.singletonMap("FEDX", FEDEX_TEMPLATE)));
+        ReflectionTestUtils.setField(engine, "bucket", "missing-bucket");
+        ReflectionTestUtils.setField(engine, "mappingPath", "tracking-urls-metadata");
+
+        engine.reload();
+
+        assertEquals("http://www.fedextest.com/fedextrack/?locale=en_US&tracknumbers=1Z999",
+                engine.render("FEDX", "en_US", "1Z999"));
+    }
+
+    private void assertRendersLikeReplace(String template) {
+        Map<String, String> mapping = Collections.singletonMap("CARRIER", template);
+        TrackingUrlTemplateEngine.Template compiled = TrackingUrlTemplateEngine.compile(null, mapping).get("CARRIER");
+
+        assertEquals(template.replace("locale_value", "en_US").replace("tracking_number_value", "794698745123"),
+                compiled.render("en_US", "794698745123"));
+    }
+}
@@ -0,0 +1,60 @@
+package wingtips;
+
+import org.junit.After;
+import org.junit.Test;
+import wingtips.TraceAndSpanIdGenerator.IdGenerationMode;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TraceAndSpanIdGeneratorTests {
+
+    @After
+    public void resetMode() {
+        TraceAndSpanIdGenerator.setIdGenerationMode(null);
+    }
+
+    @Test
+    public void testLongToUnsignedLowerHexString_matchesFormat() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            long value = random.nextLong();
+            String hex = TraceAndSpanIdGenerator.longToUnsignedLowerHexString(value);
+
+            assertEquals(String.format("%016x", value), hex);
+            assertEquals(value, TraceAndSpanIdGenerator.unsignedLowerHexStringToLong(hex));
+        }
+        assertEquals("0000000000000000", TraceAndSpanIdGenerator.longToUnsignedLowerHexString(0L));
+        assertEquals("ffffffffffffffff", TraceAndSpanIdGenerator.longToUnsignedLowerHexString(-1L));
+    }
+
+    @Test
+    public void testGenerateId_threadLocalModeGeneratesDistinctIdsPerThread() throws Exception {
+        TraceAndSpanIdGenerator.setIdGenerationMode(IdGenerationMode.THREAD_LOCAL);
+        Set<String> ids = Collections.synchronizedSet(new HashSet<>());
+
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    ids.add(TraceAndSpanIdGenerator.generateId());
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(IdGenerationMode.THREAD_LOCAL, TraceAndSpanIdGenerator.getIdGenerationMode());
+        assertEquals(4000, ids.size());
+        for (String id : ids) {
+            assertTrue(id.matches("[0-9a-f]{16}"));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package wingtips;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TracerSpanStackTests {
+
+    private final Tracer tracer = Tracer.getInstance();
+
+    @After
+    public void cleanUp() {
+        tracer.unregisterFromThread();
+    }
+
+    @Test
+    public void testCompleteRequestSpan_keepsEmptyStackForNextRequest() {
+        Span root = tracer.startRequestWithRootSpan("root");
+        Span sub = tracer.startSubSpan("sub", Span.SpanPurpose.LOCAL_ONLY);
+
+        assertSame(sub, tracer.getCurrentSpan());
+        Deque<Span> copy = tracer.getCurrentSpanStackCopy();
+        assertSame(sub, copy.peekFirst());
+        assertSame(root, copy.peekLast());
+
+        tracer.completeSubSpan();
+        assertSame(root, tracer.getCurrentSpan());
+        tracer.completeRequestSpan();
+
+        assertNull(tracer.getCurrentSpan());
+        assertEquals(0, tracer.getCurrentSpanStackSize());
+        assertTrue(sub.isCompleted());
+        assertTrue(root.isCompleted());
+
+        Span nextRoot = tracer.startRequestWithRootSpan("nextRoot");
+        assertSame(nextRoot, tracer.getCurrentSpan());
+        assertEquals(1, tracer.getCurrentSpanStackSize());
+        tracer.completeRequestSpan();
+    }
+
+    @Test
+    public void testRegisterWithThread_registersArrayBackedCopy() {
+        Span root = tracer.startRequestWithRootSpan("root");
+        Span sub = tracer.startSubSpan("sub", Span.SpanPurpose.LOCAL_ONLY);
+        Deque<Span> unregistered = tracer.unregisterFromThread();
+        assertNull(tracer.getCurrentSpan());
+
+        Deque<Span> registerMe = new LinkedList<>(unregistered);
+        tracer.registerWithThread(registerMe);
+        registerMe.clear();
+
+        Deque<Span> copy = tracer.getCurrentSpanStackCopy();
+        assertTrue(copy instanceof ArrayDeque);
+        assertNotSame(unregistered, copy);
+        assertSame(sub, copy.pop());
+        assertSame(root, copy.pop());
+        assertEquals(2, tracer.getCurrentSpanStackSize());
+
+        tracer.completeSubSpan();
+        tracer.completeRequestSpan();
+    }
+}
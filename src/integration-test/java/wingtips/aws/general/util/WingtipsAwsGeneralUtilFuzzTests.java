@@ -0,0 +1,102 @@
+package wingtips.aws.general.util;
+
+import org.junit.Test;
+import wingtips.Span;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Compares the single-pass trace context message attribute parser with the split based implementation it replaced, on
+ * random input built from the fragments that matter to the format. The seed is fixed, so a failure can be reproduced.
+ */
+public class WingtipsAwsGeneralUtilFuzzTests {
+
+    private static final String[] TRACE_CONTEXT_FRAGMENTS = {
+            "v1", "v2", "v", ":", ":", ":", "%3A", "%3a", "%3", "0", "1", "a", "f00", " ", "\t", ""
+    };
+
+    @Test
+    public void testFromTraceContextMessageAttributeValue_matchesSplitImplementation() {
+        Random random = new Random(42);
+        for (int i = 0; i < 200000; i++) {
+            // Mostly four colon separated fields starting with the version, so that many inputs are close to valid
+            StringBuilder builder = new StringBuilder(random.nextInt(4) > 0 ? "v1" : "");
+            for (int field = 0; field < 4; field++) {
+                if (field > 0 || random.nextInt(4) == 0) {
+                    builder.append(':');
+                }
+                int fragments = random.nextInt(4);
+                for (int j = 0; j < fragments; j++) {
+                    builder.append(TRACE_CONTEXT_FRAGMENTS[random.nextInt(TRACE_CONTEXT_FRAGMENTS.length)]);
+                }
+            }
+            String traceContext = builder.toString();
+
+            Span expected = splitTraceContext(traceContext);
+            Span actual = WingtipsAwsGeneralUtil.fromTraceContextMessageAttributeValue(traceContext);
+            if (expected == null) {
+                assertNull(traceContext, actual);
+            } else {
+                assertNotNull(traceContext, actual);
+                assertEquals(traceContext, expected.getTraceId(), actual.getTraceId());
+                assertEquals(traceContext, expected.getSpanId(), actual.getSpanId());
+                assertEquals(traceContext, expected.isSampleable(), actual.isSampleable());
+                assertEquals(traceContext, expected.getSpanName(), actual.getSpanName());
+                assertEquals(traceContext, expected.getSpanPurpose(), actual.getSpanPurpose());
+                assertNull(traceContext, actual.getParentSpanId());
+            }
+        }
+    }
+
+    @Test
+    public void testFromTraceContextMessageAttributeValue_parsesRoundTrip() {
+        Span span = Span.newBuilder("span", Span.SpanPurpose.CLIENT).withTraceId("trace:id").withSampleable(false)
+                .build();
+
+        Span parsed = WingtipsAwsGeneralUtil.fromTraceContextMessageAttributeValue(
+                WingtipsAwsGeneralUtil.toTraceContextMessageAttributeValue(span));
+
+        assertEquals("trace:id", parsed.getTraceId());
+        assertEquals(span.getSpanId(), parsed.getSpanId());
+        assertEquals(false, parsed.isSampleable());
+    }
+
+    /**
+     * The split based parser that fromTraceContextMessageAttributeValue replaced.
+     */
+    private static Span splitTraceContext(String traceContext) {
+        if (isBlank(traceContext)) {
+            return null;
+        }
+
+        String[] parts = traceContext.split(":");
+        if (parts.length != 4 || !"v1".equals(parts[0])) {
+            return null;
+        }
+
+        String traceId = parts[1].replace("%3A", ":");
+        String spanId = parts[2].replace("%3A", ":");
+        if (isBlank(traceId) || isBlank(spanId)) {
+            return null;
+        }
+
+        return Span.newBuilder("syntheticParentTraceContext", Span.SpanPurpose.CLIENT)
+                .withTraceId(traceId)
+                .withSpanId(spanId)
+                .withSampleable(!"0".equals(parts[3]))
+                .build();
+    }
+
+    private static boolean isBlank(String str) {
+        for (int i = 0; i < str.length(); i++) {
+            if (!Character.isWhitespace(str.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
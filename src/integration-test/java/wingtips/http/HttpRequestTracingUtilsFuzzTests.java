@@ -0,0 +1,99 @@
+package wingtips.http;
+
+import org.junit.Test;
+import wingtips.Span;
+import wingtips.TraceHeaders;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Compares the single-pass request header parsing with the header handling it replaced, on random header and attribute
+ * values. The seed is fixed, so a failure can be reproduced.
+ */
+public class HttpRequestTracingUtilsFuzzTests {
+
+    private static final String[] HEADER_VALUES = {
+            null, "", " ", "\t", "0", "1", "false", "FALSE", " 0 ", "true", "abc", " abc ", "\u00a0x"
+    };
+    private static final List<String> USER_ID_HEADER_KEYS = Collections.singletonList("userId");
+
+    @Test
+    public void testFromRequestWithHeaders_matchesPreviousHeaderHandling() {
+        Random random = new Random(7);
+        for (int i = 0; i < 100000; i++) {
+            Map<String, Object> headers = new HashMap<>();
+            Map<String, Object> attributes = new HashMap<>();
+            for (String name : new String[] {TraceHeaders.TRACE_ID, TraceHeaders.SPAN_ID, TraceHeaders.PARENT_SPAN_ID,
+                    TraceHeaders.TRACE_SAMPLED, TraceHeaders.SPAN_NAME, "userId"}) {
+                headers.put(name, HEADER_VALUES[random.nextInt(HEADER_VALUES.length)]);
+                attributes.put(name, HEADER_VALUES[random.nextInt(HEADER_VALUES.length)]);
+            }
+            RequestWithHeaders request = new MapRequest(headers, attributes);
+
+            Span actual = HttpRequestTracingUtils.fromRequestWithHeaders(request, USER_ID_HEADER_KEYS);
+            String traceId = previousHeaderWithAttributeAsBackup(request, TraceHeaders.TRACE_ID);
+            if (traceId == null) {
+                assertNull(actual);
+                continue;
+            }
+
+            String description = headers + " " + attributes;
+            String spanName = previousHeaderWithAttributeAsBackup(request, TraceHeaders.SPAN_NAME);
+            String spanId = previousHeaderWithAttributeAsBackup(request, TraceHeaders.SPAN_ID);
+            String sampled = previousHeaderWithAttributeAsBackup(request, TraceHeaders.TRACE_SAMPLED);
+            String userId = previousHeaderWithAttributeAsBackup(request, "userId");
+            assertEquals(description, traceId, actual.getTraceId());
+            assertEquals(description, previousHeaderWithAttributeAsBackup(request, TraceHeaders.PARENT_SPAN_ID),
+                    actual.getParentSpanId());
+            if (spanId != null) {
+                assertEquals(description, spanId, actual.getSpanId());
+            }
+            assertEquals(description, spanName == null || spanName.isEmpty()
+                    ? HttpRequestTracingUtils.UNSPECIFIED_SPAN_NAME : spanName, actual.getSpanName());
+            assertEquals(description, !("0".equals(sampled) || "false".equalsIgnoreCase(sampled)),
+                    actual.isSampleable());
+            assertEquals(description, userId == null || userId.isEmpty() ? null : userId, actual.getUserId());
+            assertEquals(description, Span.SpanPurpose.SERVER, actual.getSpanPurpose());
+        }
+    }
+
+    /**
+     * The header lookup that HttpRequestTracingUtils used before it stopped trimming the header twice.
+     */
+    private static String previousHeaderWithAttributeAsBackup(RequestWithHeaders request, String headerName) {
+        Object result = request.getHeader(headerName);
+
+        if (result == null || result.toString().trim().length() == 0)
+            result = request.getAttribute(headerName);
+
+        return (result == null) ? null : result.toString().trim();
+    }
+
+    private static class MapRequest implements RequestWithHeaders {
+
+        private final Map<String, Object> headers;
+        private final Map<String, Object> attributes;
+
+        private MapRequest(Map<String, Object> headers, Map<String, Object> attributes) {
+            this.headers = headers;
+            this.attributes = attributes;
+        }
+
+        @Override
+        public String getHeader(String headerName) {
+            return (String) headers.get(headerName);
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            return attributes.get(name);
+        }
+    }
+}
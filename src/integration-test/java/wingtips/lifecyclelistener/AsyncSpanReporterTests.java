@@ -0,0 +1,64 @@
+package wingtips.lifecyclelistener;
+
+import org.junit.Test;
+import wingtips.Span;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AsyncSpanReporterTests {
+
+    @Test
+    public void testSpanCompleted_exportsSampledSpansInBatches() {
+        List<Span> exported = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        AsyncSpanReporter reporter = new AsyncSpanReporter(spans -> {
+            batchSizes.add(spans.size());
+            exported.addAll(spans);
+        }, 1024, 10);
+
+        for (int i = 0; i < 100; i++) {
+            reporter.spanCompleted(span(true));
+        }
+        reporter.spanCompleted(span(false));
+        reporter.close();
+
+        assertEquals(100, exported.size());
+        assertEquals(100, reporter.getExportedCount());
+        assertEquals(0, reporter.getDroppedCount());
+        for (int batchSize : batchSizes) {
+            assertTrue(batchSize <= 10);
+        }
+    }
+
+    @Test
+    public void testSpanCompleted_dropsWithoutBlockingWhenBufferIsFull() throws Exception {
+        CountDownLatch exporterBlocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AsyncSpanReporter reporter = new AsyncSpanReporter(spans -> {
+            exporterBlocked.countDown();
+            release.await();
+        }, 4, 1);
+
+        reporter.spanCompleted(span(true));
+        exporterBlocked.await();
+        for (int i = 0; i < 20; i++) {
+            reporter.spanCompleted(span(true));
+        }
+        release.countDown();
+        reporter.close();
+
+        assertEquals(21, reporter.getPublishedCount() + reporter.getDroppedCount());
+        assertTrue(reporter.getDroppedCount() >= 16);
+        assertEquals(reporter.getPublishedCount(), reporter.getExportedCount());
+    }
+
+    private Span span(boolean sampleable) {
+        return Span.generateRootSpanForNewTrace("span", Span.SpanPurpose.LOCAL_ONLY).withSampleable(sampleable).build();
+    }
+}
@@ -0,0 +1,122 @@
+package wingtips.sampling;
+
+import org.junit.After;
+import org.junit.Test;
+import wingtips.Span;
+import wingtips.Tracer;
+import wingtips.lifecyclelistener.SpanLifecycleListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SamplingStrategyTests {
+
+    private final Tracer tracer = Tracer.getInstance();
+    private final List<Span> reported = new ArrayList<>();
+
+    @After
+    public void resetTracer() {
+        tracer.unregisterFromThread();
+        tracer.setRootSpanSamplingStrategy(new SampleAllTheThingsStrategy());
+        for (SpanLifecycleListener listener : new ArrayList<>(tracer.getSpanLifecycleListeners())) {
+            tracer.removeSpanLifecycleListener(listener);
+        }
+        tracer.setValidSpanLoggingEnabled(true);
+    }
+
+    @Test
+    public void testProbabilisticSamplingStrategy_samplesAboutTheProbability() {
+        ProbabilisticSamplingStrategy strategy = new ProbabilisticSamplingStrategy(0.1);
+
+        int sampled = 0;
+        for (int i = 0; i < 100000; i++) {
+            if (strategy.isNextRootSpanSampleable()) {
+                sampled++;
+            }
+        }
+
+        assertTrue(sampled > 9000 && sampled < 11000);
+        assertFalse(new ProbabilisticSamplingStrategy(0).isNextRootSpanSampleable());
+        assertTrue(new ProbabilisticSamplingStrategy(1).isNextRootSpanSampleable());
+    }
+
+    @Test
+    public void testRateLimitedSamplingStrategy_samplesBurstThenLimits() {
+        RateLimitedSamplingStrategy strategy = new RateLimitedSamplingStrategy(0.001, 5);
+
+        int sampled = 0;
+        for (int i = 0; i < 100; i++) {
+            if (strategy.isNextRootSpanSampleable()) {
+                sampled++;
+            }
+        }
+
+        assertEquals(5, sampled);
+    }
+
+    @Test
+    public void testTailBasedSamplingStrategy_keepsOnlyErroredOrSlowTraces() throws Exception {
+        TailBasedSamplingStrategy strategy = new TailBasedSamplingStrategy(new ReportingListener(), 50, 100, 60000);
+        tracer.setRootSpanSamplingStrategy(strategy);
+        tracer.addSpanLifecycleListener(strategy);
+        tracer.setValidSpanLoggingEnabled(false);
+
+        runTrace(false, 0);
+        assertEquals(0, reported.size());
+        assertEquals(1, strategy.getDiscardedCount());
+
+        runTrace(true, 0);
+        assertEquals(2, reported.size());
+
+        runTrace(false, 60);
+        assertEquals(4, reported.size());
+        assertEquals(2, strategy.getKeptCount());
+        assertEquals(0, strategy.getBufferedTraceCount());
+    }
+
+    @Test
+    public void testTailBasedSamplingStrategy_ignoresErrorsOfUnsampledTraces() {
+        TailBasedSamplingStrategy strategy = new TailBasedSamplingStrategy(new ReportingListener(), 50, 100, 60000);
+        tracer.setRootSpanSamplingStrategy(strategy);
+        tracer.addSpanLifecycleListener(strategy);
+        tracer.setValidSpanLoggingEnabled(false);
+
+        tracer.startRequestWithSpanInfo("trace-1", "parent-1", "server", false, null, Span.SpanPurpose.SERVER);
+        strategy.markCurrentTraceErrored();
+
+        assertEquals(0, strategy.getBufferedTraceCount());
+        tracer.completeRequestSpan();
+        assertEquals(0, reported.size());
+    }
+
+    private void runTrace(boolean errored, long subSpanMillis) throws InterruptedException {
+        tracer.startRequestWithRootSpan("root");
+        tracer.startSubSpan("sub", Span.SpanPurpose.LOCAL_ONLY);
+        if (errored) {
+            ((TailBasedSamplingStrategy) tracer.getSpanLifecycleListeners().get(0)).markCurrentTraceErrored();
+        }
+        Thread.sleep(subSpanMillis);
+        tracer.completeSubSpan();
+        tracer.completeRequestSpan();
+    }
+
+    private class ReportingListener implements SpanLifecycleListener {
+
+        @Override
+        public void spanStarted(Span span) {
+        }
+
+        @Override
+        public void spanSampled(Span span) {
+        }
+
+        @Override
+        public void spanCompleted(Span span) {
+            reported.add(span);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package wingtips.util;
+
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.spi.ObjectThreadContextMap;
+import org.junit.After;
+import org.junit.Test;
+import org.slf4j.MDC;
+import wingtips.Span;
+import wingtips.Tracer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * The application runs with log4j2.garbagefreeThreadContextMap=true, see log4j2.component.properties, so the span JSON
+ * is put into the MDC as a lazily-rendered snapshot.
+ */
+public class LazySpanMdcTests {
+
+    private final Tracer tracer = Tracer.getInstance();
+
+    @After
+    public void cleanUp() {
+        tracer.unregisterFromThread();
+        MDC.clear();
+    }
+
+    @Test
+    public void testPutSpanJson_rendersSpanAsOfPutTime() {
+        Span root = tracer.startRequestWithRootSpan("root");
+        String jsonAtPutTime = root.toJSON();
+        Object value = ((ObjectThreadContextMap) ThreadContext.getThreadContextMap()).getValue(Tracer.SPAN_JSON_MDC_KEY);
+
+        assertFalse(value instanceof String);
+        assertEquals(jsonAtPutTime, MDC.getCopyOfContextMap().get(Tracer.SPAN_JSON_MDC_KEY));
+
+        // An async logger renders the value on its own thread, possibly after the span was completed
+        tracer.completeRequestSpan();
+        assertTrue(root.isCompleted());
+        assertFalse(root.toJSON().equals(jsonAtPutTime));
+        assertEquals(jsonAtPutTime, value.toString());
+    }
+
+    @Test
+    public void testPutSpanJson_valueCannotBeReadAsString() {
+        Span root = tracer.startRequestWithRootSpan("root");
+        assertTrue(LazySpanMdc.putSpanJson(Tracer.SPAN_JSON_MDC_KEY, root));
+
+        try {
+            MDC.get(Tracer.SPAN_JSON_MDC_KEY);
+            fail("Expected MDC.get to fail for the lazily-rendered span JSON");
+        } catch (ClassCastException e) {
+            // Documented contract, see LazySpanMdc
+        }
+        assertEquals(root.getTraceId(), MDC.get(Tracer.TRACE_ID_MDC_KEY));
+        assertEquals(root.toJSON(), MDC.getCopyOfContextMap().get(Tracer.SPAN_JSON_MDC_KEY));
+    }
+}
@@ -2,7 +2,8 @@ package com.sample.routeconfigs.common.route;
 
 
 
-import com.sample.springbootsampleapp.util.DistributedTraceProcessor;
+import com.sample.routeconfigs.common.route.policy.TracingRoutePolicy;
+import com.sample.routeconfigs.rest.OutboundHeaderFilterStrategy;
 import org.apache.camel.builder.RouteBuilder;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
@@ -22,6 +23,9 @@ public class OutgoingRESTCallRouteConfiguration {
     private static final String URL_PARAMETERS_SUFFIX_HEADER_VALUE = "${header." + URL_PARAMETERS_SUFFIX + "}";
     public static final String EVENT_MANAGER_HEADER = "X-sample-AppName";
 
+    // Suffix of the Hystrix command key of an outgoing REST call route, see hystrixCommandKey(routeId).
+    private static final String HYSTRIX_COMMAND_KEY_SUFFIX = "Hystrix";
+
 
     @Value("${info.app.name:}")
     private String appName;
@@ -64,11 +68,11 @@ public class OutgoingRESTCallRouteConfiguration {
                         .routeId(routeId)
                         .description("Makes an outgoing REST call to " + vipName + baseURL
                                 + " using Hystrix and Eureka")
-                        .bean(DistributedTraceProcessor.class)
+                        .process(TracingRoutePolicy::setTraceHeaders)
 
                         // Configure hystrix and make REST call
                         .setHeader(EVENT_MANAGER_HEADER, constant(appName))
-                        .hystrix()
+                        .hystrix().id(hystrixCommandKey(routeId))
                         .hystrixConfiguration()
                         .executionTimeoutInMilliseconds(hystrixTimeout)
                         .maxQueueSize(hystrixMaxQueueSize)
@@ -90,6 +94,17 @@ public class OutgoingRESTCallRouteConfiguration {
         };
     }
 
+    /**
+     * Returns the Hystrix command key used by the outgoing REST call route with the given id, for example to look up
+     * its circuit breaker.
+     *
+     * @param routeId
+     * @return the Hystrix command key
+     */
+    public static String hystrixCommandKey(String routeId) {
+        return routeId + HYSTRIX_COMMAND_KEY_SUFFIX;
+    }
+
     public static class URLConstructor {
 
         public String construct(String path, String parametersSuffix) {
@@ -98,6 +113,7 @@ public class OutgoingRESTCallRouteConfiguration {
                     + "&httpClient.ConnectTimeout=2000"
                     + "&httpClientConfigurer=#customJWTNoRetryConfigurer"
                     + handleConnectionClose(parametersSuffix)
+                    + handleHeaderFilterStrategy(parametersSuffix)
                     + formatParametersSuffix(parametersSuffix);
         }
     }
@@ -136,6 +152,24 @@ public class OutgoingRESTCallRouteConfiguration {
         // connectionClose parameter was provided by the client so do not add
         return "";
     }
+
+    /**
+     * Returns the default outbound header allowlist filter if parametersSuffix does not already include a
+     * headerFilterStrategy parameter
+     *
+     * @param parametersSuffix
+     * @return headerFilterStrategy=#outboundHeaderFilterStrategy if parameter not provided by client
+     */
+    public static String handleHeaderFilterStrategy(String parametersSuffix) {
+        // Converts potential null to empty string
+        parametersSuffix = StringUtils.isEmpty(parametersSuffix) ? "" : parametersSuffix;
+
+        // Adds the default outbound header filter if the client did not provide its own
+        if (!parametersSuffix.contains("headerFilterStrategy")) {
+            return "&headerFilterStrategy=#" + OutboundHeaderFilterStrategy.BEAN_NAME;
+        }
+        return "";
+    }
 }
 
 
@@ -0,0 +1,186 @@
+package com.sample.routeconfigs.common.route.policy;
+
+import com.netflix.hystrix.HystrixCircuitBreaker;
+import com.netflix.hystrix.HystrixCommandKey;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Consumer;
+import org.apache.camel.Exchange;
+import org.apache.camel.Route;
+import org.apache.camel.impl.ScheduledBatchPollingConsumer;
+import org.apache.camel.support.RoutePolicySupport;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Suspends the consumer of a route while the Hystrix circuit of a downstream command is open, so that messages stay
+ * in the queue instead of failing, being redelivered and ending in the DLQ.
+ * <p>
+ * While the circuit is open the consumer is suspended. Every probeIntervalMs it is resumed for a single in-flight
+ * exchange, which lets Hystrix run its half-open test request; if the circuit is still open afterwards the consumer
+ * is suspended again. Once the circuit closes, the number of in-flight exchanges allowed on the route grows linearly
+ * from 1 to maxInflightExchanges over rampUpMs, after which the route runs unthrottled.
+ * <p>
+ * A batch polling consumer, such as the SQS consumer, receives up to maxMessagesPerPoll messages per poll and
+ * processes them one after the other, so resuming it for one exchange would still receive a full batch. While the
+ * route is throttled, the consumer's maxMessagesPerPoll is therefore lowered to the number of exchanges the route may
+ * still start, 1 for a probe, and the configured value is restored once the route runs unthrottled. Other consumers
+ * are only suspended and resumed, and may start more exchanges than allowed before they are suspended again.
+ * <p>
+ * A policy instance holds the state of one route and must not be shared between routes.
+ */
+@Slf4j
+public class CircuitBreakerSuspensionRoutePolicy extends RoutePolicySupport {
+
+    private final HystrixCommandKey commandKey;
+    private final long probeIntervalMs;
+    private final long rampUpMs;
+    private final int maxInflightExchanges;
+    private final long checkIntervalMs;
+
+    private volatile Route route;
+    private volatile boolean circuitOpen;
+    private volatile long circuitStateChangedAt;
+    private volatile long lastProbeAt;
+    private volatile int configuredMaxMessagesPerPoll = -1;
+    private ScheduledExecutorService executorService;
+
+    public CircuitBreakerSuspensionRoutePolicy(String commandKey, long probeIntervalMs, long rampUpMs,
+                                               int maxInflightExchanges, long checkIntervalMs) {
+        this.commandKey = HystrixCommandKey.Factory.asKey(commandKey);
+        this.probeIntervalMs = probeIntervalMs;
+        this.rampUpMs = rampUpMs;
+        this.maxInflightExchanges = Math.max(1, maxInflightExchanges);
+        this.checkIntervalMs = checkIntervalMs;
+    }
+
+    @Override
+    public void onInit(Route route) {
+        this.route = route;
+    }
+
+    @Override
+    public void onExchangeBegin(Route route, Exchange exchange) {
+        if (inflightExchanges() > allowedInflightExchanges(System.currentTimeMillis())) {
+            suspendConsumer();
+        }
+    }
+
+    @Override
+    public void onExchangeDone(Route route, Exchange exchange) {
+        if (circuitOpen) {
+            // The probe has been attempted; wait a full interval before the next one
+            lastProbeAt = System.currentTimeMillis();
+            suspendConsumer();
+        }
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+        CamelContext camelContext = route.getRouteContext().getCamelContext();
+        executorService = camelContext.getExecutorServiceManager()
+                .newSingleThreadScheduledExecutor(this, "CircuitBreakerSuspensionRoutePolicy-" + route.getId());
+        executorService.scheduleWithFixedDelay(this::check, checkIntervalMs, checkIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (executorService != null) {
+            route.getRouteContext().getCamelContext().getExecutorServiceManager().shutdownNow(executorService);
+            executorService = null;
+        }
+        super.doStop();
+    }
+
+    private void check() {
+        try {
+            long now = System.currentTimeMillis();
+            boolean open = isCircuitOpen();
+            if (open != circuitOpen) {
+                circuitOpen = open;
+                circuitStateChangedAt = now;
+                lastProbeAt = now;
+                log.info("Hystrix circuit {} is now {} for routeId={}", commandKey.name(), open ? "open" : "closed",
+                        route.getId());
+            }
+
+            int inflight = inflightExchanges();
+            int allowed = allowedInflightExchanges(now);
+            limitMaxMessagesPerPoll(allowed == Integer.MAX_VALUE ? Integer.MAX_VALUE : allowed - inflight);
+            if (inflight >= allowed) {
+                suspendConsumer();
+            } else {
+                resumeConsumer();
+            }
+        } catch (Exception e) {
+            log.warn("Unable to check Hystrix circuit {} for routeId={}", commandKey.name(), route.getId(), e);
+        }
+    }
+
+    private int allowedInflightExchanges(long now) {
+        if (circuitOpen) {
+            return now - lastProbeAt >= probeIntervalMs ? 1 : 0;
+        }
+        long sinceClosed = now - circuitStateChangedAt;
+        if (circuitStateChangedAt == 0 || sinceClosed >= rampUpMs) {
+            return Integer.MAX_VALUE;
+        }
+        return (int) Math.max(1, maxInflightExchanges * sinceClosed / rampUpMs);
+    }
+
+    private boolean isCircuitOpen() {
+        HystrixCircuitBreaker circuitBreaker = HystrixCircuitBreaker.Factory.getInstance(commandKey);
+        return circuitBreaker != null && circuitBreaker.isOpen();
+    }
+
+    /**
+     * @param maxMessages the number of exchanges the route may still start, or Integer.MAX_VALUE when unthrottled
+     */
+    private void limitMaxMessagesPerPoll(int maxMessages) {
+        Consumer consumer = route.getConsumer();
+        if (!(consumer instanceof ScheduledBatchPollingConsumer)) {
+            return;
+        }
+        ScheduledBatchPollingConsumer pollingConsumer = (ScheduledBatchPollingConsumer) consumer;
+        if (configuredMaxMessagesPerPoll < 0) {
+            configuredMaxMessagesPerPoll = pollingConsumer.getMaxMessagesPerPoll();
+        }
+
+        // 0 or less means the consumer's default batch size, e.g. a single message for SQS
+        int maxMessagesPerPoll = configuredMaxMessagesPerPoll;
+        if (maxMessages != Integer.MAX_VALUE && configuredMaxMessagesPerPoll > 0) {
+            maxMessagesPerPoll = Math.max(1, Math.min(maxMessages, configuredMaxMessagesPerPoll));
+        }
+        if (pollingConsumer.getMaxMessagesPerPoll() != maxMessagesPerPoll) {
+            pollingConsumer.setMaxMessagesPerPoll(maxMessagesPerPoll);
+            log.debug("Set maxMessagesPerPoll={} on consumer of routeId={}", maxMessagesPerPoll, route.getId());
+        }
+    }
+
+    private int inflightExchanges() {
+        return route.getRouteContext().getCamelContext().getInflightRepository().size(route.getId());
+    }
+
+    private void suspendConsumer() {
+        try {
+            if (suspendOrStopConsumer(route.getConsumer())) {
+                log.info("Suspended consumer of routeId={} while Hystrix circuit {} is {}", route.getId(),
+                        commandKey.name(), circuitOpen ? "open" : "ramping up");
+            }
+        } catch (Exception e) {
+            handleException(e);
+        }
+    }
+
+    private void resumeConsumer() {
+        try {
+            if (resumeOrStartConsumer(route.getConsumer())) {
+                log.info("Resumed consumer of routeId={}", route.getId());
+            }
+        } catch (Exception e) {
+            handleException(e);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.sample.routeconfigs.common.route.policy;
+
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.impl.DefaultUnitOfWork;
+import org.apache.camel.spi.UnitOfWork;
+import org.apache.camel.spi.UnitOfWorkFactory;
+import org.slf4j.MDC;
+import wingtips.Span;
+import wingtips.Tracer;
+
+/**
+ * Creates units of work putting the trace id of the exchange's route span (see {@link TracingRoutePolicy}) in the MDC
+ * before each processor of a route runs, so that the logs of route steps and of exception handlers carry the trace id
+ * on whichever thread processes the exchange, e.g. after .threads() or an asynchronous delayed redelivery.
+ * <p>
+ * Camel calls the unit of work around every processor on the thread running it, which is how its own MDC logging
+ * follows an exchange across threads; an intercept strategy would not do, since Camel 2.x bypasses intercept
+ * strategies on redelivery when JMX is enabled. Like Camel's MDC logging, the trace id is removed from a thread when
+ * the exchange continues on another thread and when the exchange is done.
+ * <p>
+ * Replaces the default unit of work factory, so Camel's own MDC logging (useMDCLogging) is not available with it.
+ */
+public class TraceIdMdcUnitOfWorkFactory implements UnitOfWorkFactory {
+
+    @Override
+    public UnitOfWork createUnitOfWork(Exchange exchange) {
+        return new TraceIdMdcUnitOfWork(exchange);
+    }
+
+    private static final class TraceIdMdcUnitOfWork extends DefaultUnitOfWork {
+
+        private TraceIdMdcUnitOfWork(Exchange exchange) {
+            super(exchange);
+        }
+
+        @Override
+        public UnitOfWork createChildUnitOfWork(Exchange childExchange) {
+            UnitOfWork child = new TraceIdMdcUnitOfWork(childExchange);
+            child.setParentUnitOfWork(this);
+            return child;
+        }
+
+        @Override
+        public AsyncCallback beforeProcess(Processor processor, Exchange exchange, AsyncCallback callback) {
+            Span span = TracingRoutePolicy.currentSpan(exchange);
+            if (span != null) {
+                MDC.put(Tracer.TRACE_ID_MDC_KEY, span.getTraceId());
+            }
+            return super.beforeProcess(processor, exchange, callback);
+        }
+
+        @Override
+        public void afterProcess(Processor processor, Exchange exchange, AsyncCallback callback, boolean doneSync) {
+            super.afterProcess(processor, exchange, callback, doneSync);
+            if (!doneSync) {
+                // The exchange continues on another thread, which sets its own MDC
+                MDC.remove(Tracer.TRACE_ID_MDC_KEY);
+            }
+        }
+
+        @Override
+        public void done(Exchange exchange) {
+            super.done(exchange);
+            MDC.remove(Tracer.TRACE_ID_MDC_KEY);
+        }
+    }
+}
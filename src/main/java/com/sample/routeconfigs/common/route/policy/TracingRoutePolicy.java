@@ -0,0 +1,163 @@
+package com.sample.routeconfigs.common.route.policy;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Message;
+import org.apache.camel.Route;
+import org.apache.camel.support.RoutePolicySupport;
+import wingtips.Span;
+import wingtips.Span.SpanPurpose;
+import wingtips.TraceHeaders;
+import wingtips.aws.general.util.WingtipsAwsGeneralUtil;
+import wingtips.sampling.RootSpanSamplingStrategy;
+import wingtips.sampling.TailBasedSamplingStrategy;
+
+/**
+ * Opens one span per route an exchange goes through, so that routes do not need a tracing step of their own. A
+ * policy is added to every route by the route policy factory registered on the CamelContext, see
+ * WingtipsConfiguration.
+ * <p>
+ * The span of the route currently processing an exchange is kept in the {@link #SPAN_PROPERTY} exchange property,
+ * which is the only trace state carried by the exchange:
+ * <ul>
+ *     <li>
+ *         When an exchange enters a route and already has a route span (e.g. a direct: sub-route), the new span is a
+ *         child of it. The parent becomes the current span again when the sub-route is done: Camel 2.x calls
+ *         {@link #onExchangeDone(Route, Exchange)} from the route's internal processor as soon as the route has
+ *         processed the exchange, not when the whole exchange completes, so sibling sub-routes get sibling spans and
+ *         each span lasts as long as its route.
+ *     </li>
+ *     <li>
+ *         Otherwise the trace is continued from the Wingtips-XB3-TraceContext SQS message attribute, if present and
+ *         valid, with the new span as a child of the sending span.
+ *     </li>
+ *     <li>Otherwise a new trace is started, sampled according to the root span sampling strategy.</li>
+ * </ul>
+ * The spans are not attached to the thread's Tracer span stack, since an exchange can move between threads; they are
+ * completed with {@link Span#close()}, which reports them to the span lifecycle listeners like any other span. For the
+ * same reason the trace id is not put in the MDC here but around each processor, by
+ * {@link TraceIdMdcUnitOfWorkFactory}. When
+ * tail-based sampling is selected, the sampled trace of an exchange that failed in a route is marked errored before
+ * the route's span completes.
+ */
+public class TracingRoutePolicy extends RoutePolicySupport {
+
+    /**
+     * The exchange property holding the span of the route currently processing the exchange.
+     */
+    public static final String SPAN_PROPERTY = "WingtipsRouteSpan";
+
+    private final RootSpanSamplingStrategy rootSpanSamplingStrategy;
+    private final TailBasedSamplingStrategy tailBasedSamplingStrategy;
+
+    /**
+     * @param rootSpanSamplingStrategy The strategy deciding whether the new traces started by the route are sampled.
+     */
+    public TracingRoutePolicy(RootSpanSamplingStrategy rootSpanSamplingStrategy) {
+        this.rootSpanSamplingStrategy = rootSpanSamplingStrategy;
+        this.tailBasedSamplingStrategy = rootSpanSamplingStrategy instanceof TailBasedSamplingStrategy
+                ? (TailBasedSamplingStrategy) rootSpanSamplingStrategy : null;
+    }
+
+    /**
+     * @return The span of the route currently processing the given exchange, or null if it is not traced.
+     */
+    public static Span currentSpan(Exchange exchange) {
+        RouteSpan routeSpan = exchange.getProperty(SPAN_PROPERTY, RouteSpan.class);
+        return routeSpan != null ? routeSpan.span : null;
+    }
+
+    /**
+     * Sets the B3 headers of the current route span on the exchange's in message, so that they are sent with an
+     * outgoing HTTP call. Can be used directly as a processor: {@code .process(TracingRoutePolicy::setTraceHeaders)}.
+     */
+    public static void setTraceHeaders(Exchange exchange) {
+        Span span = currentSpan(exchange);
+        if (span == null) {
+            return;
+        }
+        Message in = exchange.getIn();
+        in.setHeader(TraceHeaders.TRACE_ID, span.getTraceId());
+        in.setHeader(TraceHeaders.SPAN_ID, span.getSpanId());
+        in.setHeader(TraceHeaders.TRACE_SAMPLED, span.isSampleable() ? "1" : "0");
+        if (span.getParentSpanId() != null) {
+            in.setHeader(TraceHeaders.PARENT_SPAN_ID, span.getParentSpanId());
+        } else {
+            in.removeHeader(TraceHeaders.PARENT_SPAN_ID);
+        }
+    }
+
+    @Override
+    public void onExchangeBegin(Route route, Exchange exchange) {
+        RouteSpan parent = exchange.getProperty(SPAN_PROPERTY, RouteSpan.class);
+        Span span;
+        if (parent != null) {
+            span = parent.span.generateChildSpan(route.getId(), SpanPurpose.LOCAL_ONLY);
+        } else {
+            Span traceContext = WingtipsAwsGeneralUtil.fromTraceContextMessageAttributeValue(
+                    exchange.getIn().getHeader(WingtipsAwsGeneralUtil.TRACE_CONTEXT_MESSAGE_ATTR_NAME, String.class));
+            span = traceContext != null
+                    ? traceContext.generateChildSpan(route.getId(), SpanPurpose.SERVER)
+                    : Span.generateRootSpanForNewTrace(route.getId(), SpanPurpose.SERVER)
+                            .withSampleable(rootSpanSamplingStrategy.isNextRootSpanSampleable())
+                            .build();
+        }
+
+        exchange.setProperty(SPAN_PROPERTY, new RouteSpan(route.getId(), span, parent));
+    }
+
+    @Override
+    public void onExchangeDone(Route route, Exchange exchange) {
+        RouteSpan current = exchange.getProperty(SPAN_PROPERTY, RouteSpan.class);
+        RouteSpan routeSpan = current;
+        while (routeSpan != null && !route.getId().equals(routeSpan.routeId)) {
+            routeSpan = routeSpan.parent;
+        }
+        if (routeSpan == null) {
+            return;
+        }
+
+        // Sub-route spans still open above this route's span (e.g. their completion was skipped while Camel was
+        //      stopping) are completed first, so that no span is left open.
+        for (RouteSpan open = current; open != routeSpan; open = open.parent) {
+            complete(open.span, exchange);
+        }
+        complete(routeSpan.span, exchange);
+
+        if (routeSpan.parent != null) {
+            exchange.setProperty(SPAN_PROPERTY, routeSpan.parent);
+        } else {
+            exchange.removeProperty(SPAN_PROPERTY);
+        }
+    }
+
+    private void complete(Span span, Exchange exchange) {
+        if (span.isCompleted()) {
+            return;
+        }
+        // Unsampled spans never reach the strategy, which would buffer their trace until it is evicted
+        if (tailBasedSamplingStrategy != null && span.isSampleable() && isFailed(exchange)) {
+            tailBasedSamplingStrategy.markTraceErrored(span.getTraceId());
+        }
+        span.close();
+    }
+
+    private static boolean isFailed(Exchange exchange) {
+        return exchange.getException() != null || exchange.getProperty(Exchange.EXCEPTION_CAUGHT) != null;
+    }
+
+    /**
+     * The span of a route and the span of the route it was called from, if any.
+     */
+    private static final class RouteSpan {
+
+        private final String routeId;
+        private final Span span;
+        private final RouteSpan parent;
+
+        private RouteSpan(String routeId, Span span, RouteSpan parent) {
+            this.routeId = routeId;
+            this.span = span;
+            this.parent = parent;
+        }
+    }
+}
@@ -10,7 +10,6 @@ import org.apache.camel.Exchange;
 import org.apache.camel.Processor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.RequestMethod;
 
@@ -28,8 +27,6 @@ import java.io.IOException;
 public class PulseHeadersProcessor implements Processor {
 
     @Autowired
-    private ApplicationContext context;
-
     private RESTHeadersSetter restHeadersSetter;
 
     @Value("${ship.pulse.vipName}")
@@ -38,7 +35,6 @@ public class PulseHeadersProcessor implements Processor {
     @Override
     public void process(Exchange exchange) throws IOException {
 
-        restHeadersSetter = context.getBean(RESTHeadersSetter.class);
         restHeadersSetter.setHeaders(exchange, (RequestMethod) exchange.getIn().getHeader(RouteConstants.PULSE_HTTP_REQUEST_METHOD),
                 shipPulseVipName);
     }
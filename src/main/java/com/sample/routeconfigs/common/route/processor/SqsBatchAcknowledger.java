@@ -0,0 +1,110 @@
+package com.sample.routeconfigs.common.route.processor;
+
+import com.amazonaws.services.sqs.AmazonSQS;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Deletes processed messages from their queue with DeleteMessageBatch instead of one DeleteMessage call per message.
+ * <p>
+ * Use it on a route consuming with deleteAfterRead=false, as the last step of the successful path:
+ * <p>
+ * .process(sqsBatchAcknowledger.processorFor(queueName))
+ * <p>
+ * Receipt handles of the same queue are buffered by a {@link SqsBatchBuffer} until 10 are waiting (the SQS batch limit)
+ * or "sqs.ack.batch.lingerMs" has elapsed since the first one, and are deleted on a background thread, so the exchange
+ * does not wait for the delete. A message whose delete fails becomes visible again after its visibility timeout and is
+ * processed again, which is the same at-least-once guarantee as deleteAfterRead=true.
+ * <p>
+ * Exported metrics: sqs.ack.batch.size (entries per DeleteMessageBatch call) and sqs.ack.failed (entries not deleted).
+ */
+@Slf4j
+@Component
+public class SqsBatchAcknowledger implements DisposableBean {
+
+    public static final String RECEIPT_HANDLE = "CamelAwsSqsReceiptHandle";
+
+    private final AmazonSQS amazonSQSClient;
+    private final Map<String, SqsBatchBuffer<String>> queueBuffers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = SqsBatchBuffer.newScheduler("SqsBatchAcknowledger", 1);
+
+    private final DistributionSummary batchSizeSummary;
+    private final Counter failedCounter;
+
+    @Value("${sqs.ack.batch.lingerMs:100}")
+    private long lingerMs;
+
+    @Autowired
+    public SqsBatchAcknowledger(AmazonSQS amazonSQSClient, MeterRegistry meterRegistry) {
+        this.amazonSQSClient = amazonSQSClient;
+        this.batchSizeSummary = meterRegistry.summary("sqs.ack.batch.size");
+        this.failedCounter = meterRegistry.counter("sqs.ack.failed");
+    }
+
+    /**
+     * Returns a processor acknowledging the exchange's message on the named queue.
+     *
+     * @param queueName
+     * @return
+     */
+    public Processor processorFor(String queueName) {
+        return exchange -> acknowledge(queueName, exchange);
+    }
+
+    public void acknowledge(String queueName, Exchange exchange) {
+        String receiptHandle = exchange.getIn().getHeader(RECEIPT_HANDLE, String.class);
+        if (receiptHandle == null) {
+            log.warn("No SQS receipt handle on exchange, message cannot be acknowledged queueName={}", queueName);
+            return;
+        }
+        queueBuffers.computeIfAbsent(queueName, name -> {
+            String queueUrl = amazonSQSClient.getQueueUrl(name).getQueueUrl();
+            return new SqsBatchBuffer<>(scheduler, lingerMs, Integer.MAX_VALUE, handle -> 0,
+                    batch -> deleteBatch(queueUrl, batch));
+        }).add(receiptHandle);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdown();
+        queueBuffers.values().forEach(SqsBatchBuffer::flush);
+    }
+
+    private void deleteBatch(String queueUrl, List<String> batch) {
+        List<DeleteMessageBatchRequestEntry> entries = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            entries.add(new DeleteMessageBatchRequestEntry(String.valueOf(i), batch.get(i)));
+        }
+        batchSizeSummary.record(entries.size());
+        try {
+            DeleteMessageBatchResult result = amazonSQSClient.deleteMessageBatch(
+                    new DeleteMessageBatchRequest(queueUrl, entries));
+            for (BatchResultErrorEntry failed : result.getFailed()) {
+                failedCounter.increment();
+                log.warn("SQS ack batch entry failed queueUrl={} code={} message={}", queueUrl, failed.getCode(),
+                        failed.getMessage());
+            }
+        } catch (Exception e) {
+            failedCounter.increment(entries.size());
+            log.error("SQS ack batch failed queueUrl={} size={}", queueUrl, entries.size(), e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.sample.routeconfigs.common.route.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Buffers the entries of the SQS batch requests of one queue, for the senders using SendMessageBatch or
+ * DeleteMessageBatch.
+ * <p>
+ * Entries are handed to the batch handler as a batch once 10 are waiting (the SQS batch limit), once lingerMs has
+ * elapsed since the first one, or before the next entry would take the batch over maxBatchBytes. Batches are handled
+ * on the scheduler, never on the thread adding the entry, so the batch handler may block on the SQS call.
+ *
+ * @param <E> The type of the buffered entries
+ */
+public class SqsBatchBuffer<E> {
+
+    public static final int MAX_BATCH_SIZE = 10;
+
+    private final ScheduledExecutorService scheduler;
+    private final long lingerMs;
+    private final int maxBatchBytes;
+    private final ToIntFunction<E> entryBytes;
+    private final Consumer<List<E>> batchHandler;
+
+    private List<E> pending = new ArrayList<>(MAX_BATCH_SIZE);
+    private int pendingBytes;
+
+    /**
+     * @param scheduler     The scheduler handling the batches, see {@link #newScheduler(String, int)}
+     * @param lingerMs      The longest time an entry waits for the batch to fill up
+     * @param maxBatchBytes The largest size of a batch, as counted by entryBytes
+     * @param entryBytes    The size of an entry
+     * @param batchHandler  Sends a batch to SQS
+     */
+    public SqsBatchBuffer(ScheduledExecutorService scheduler, long lingerMs, int maxBatchBytes,
+                          ToIntFunction<E> entryBytes, Consumer<List<E>> batchHandler) {
+        this.scheduler = scheduler;
+        this.lingerMs = lingerMs;
+        this.maxBatchBytes = maxBatchBytes;
+        this.entryBytes = entryBytes;
+        this.batchHandler = batchHandler;
+    }
+
+    /**
+     * Returns a scheduler with the given number of daemon threads, named after the batching sender.
+     *
+     * @param threadName
+     * @param threads
+     * @return
+     */
+    public static ScheduledExecutorService newScheduler(String threadName, int threads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ScheduledThreadPoolExecutor(threads, runnable -> {
+            Thread thread = new Thread(runnable, threadName + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void add(E entry) {
+        int bytes = entryBytes.applyAsInt(entry);
+        List<E> batch = null;
+        synchronized (this) {
+            // At most one of the two checks below takes the pending batch, since a new batch starts with one entry
+            if (!pending.isEmpty() && pendingBytes + bytes > maxBatchBytes) {
+                batch = takePending();
+            }
+            pending.add(entry);
+            pendingBytes += bytes;
+            if (pending.size() == 1) {
+                scheduler.schedule(this::flush, lingerMs, TimeUnit.MILLISECONDS);
+            }
+            if (pending.size() >= MAX_BATCH_SIZE) {
+                batch = takePending();
+            }
+        }
+        if (batch != null) {
+            List<E> fullBatch = batch;
+            scheduler.execute(() -> batchHandler.accept(fullBatch));
+        }
+    }
+
+    /**
+     * Handles the pending entries, if any, on the calling thread.
+     */
+    public void flush() {
+        List<E> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = takePending();
+        }
+        batchHandler.accept(batch);
+    }
+
+    private List<E> takePending() {
+        List<E> batch = pending;
+        pending = new ArrayList<>(MAX_BATCH_SIZE);
+        pendingBytes = 0;
+        return batch;
+    }
+}
@@ -10,7 +10,6 @@ import com.sample.routeconfigs.egress.route.processor.PulsePOSTPayloadProcessor;
 import com.jayway.jsonpath.PathNotFoundException;
 
 import com.sample.routeconfigs.exception.ExceptionHandlerRouteBuilder;
-import com.sample.springbootsampleapp.util.DistributedTraceProcessor;
 import org.apache.camel.LoggingLevel;
 import org.apache.camel.builder.RouteBuilder;
 import org.apache.camel.model.dataformat.JsonLibrary;
@@ -262,7 +261,6 @@ public class EgressToPulseRouteBuilder {
                 super.configure();
 
                 onException(PathNotFoundException.class)
-                        .bean(DistributedTraceProcessor.class)
                         .log(LoggingLevel.WARN, "Failed to retrieve eventId from pulse response")
                         .handled(true);
 
@@ -282,7 +280,6 @@ public class EgressToPulseRouteBuilder {
                 from(fromUri)
                         .routeId(routeId)
                         .routeDescription("Base64 encodes and gzips body and posts to Pulse")
-                        .bean(DistributedTraceProcessor.class)
 
                         // Prepares the payload for posting to Pulse
                         .setHeader(RouteConstants.PULSE_HTTP_REQUEST_METHOD, constant(RequestMethod.POST))
@@ -4,6 +4,8 @@ import com.sample.routeconfigs.common.exception.PulseTrafficRoutingException;
 import com.sample.routeconfigs.common.model.pulse.EventContext;
 import com.sample.routeconfigs.common.model.pulse.EventData;
 import com.sample.routeconfigs.common.model.pulse.Pulse;
+import com.sample.routeconfigs.common.route.policy.TracingRoutePolicy;
+import wingtips.Span;
 import wingtips.TraceHeaders;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.camel.Exchange;
@@ -62,7 +64,8 @@ public class PulsePOSTPayloadProcessor implements Processor {
     private Pulse buildPulseRequest(Exchange exchange) {
         Message message = exchange.getIn();
 
-        String traceId = (String) message.getHeader(TraceHeaders.TRACE_ID);
+        Span span = TracingRoutePolicy.currentSpan(exchange);
+        String traceId = span != null ? span.getTraceId() : null;
         String businessKey = (String) message.getHeader(EventContext.BUSINESS_KEY_VALUE);
         String businessKeyName = (String) message.getHeader(EventContext.BUSINESS_KEY_NAME);
         Map<String, String> filterMapEntrySets = (HashMap<String, String>) message.getHeader(EVENT_CONTEXT_FILTER_MAP_ENTRY_SETS);
@@ -0,0 +1,305 @@
+package com.sample.routeconfigs.exception;
+
+import com.amazonaws.services.sqs.AmazonSQS;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
+import com.amazonaws.services.sqs.model.GetQueueUrlRequest;
+import com.amazonaws.services.sqs.model.MessageAttributeValue;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequest;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.SendMessageBatchResult;
+import com.amazonaws.services.sqs.model.SendMessageBatchResultEntry;
+import com.sample.routeconfigs.common.route.processor.SqsBatchBuffer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.AsyncProcessor;
+import org.apache.camel.Exchange;
+import org.apache.camel.component.aws.sqs.SqsConfiguration;
+import org.apache.camel.component.aws.sqs.SqsConstants;
+import org.apache.camel.component.aws.sqs.SqsEndpoint;
+import org.apache.camel.http.common.HttpOperationFailedException;
+import org.apache.camel.spi.HeaderFilterStrategy;
+import org.apache.camel.util.AsyncProcessorHelper;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import wingtips.aws.general.util.WingtipsAwsGeneralUtil;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Sends failed exchanges to a DLQ with SendMessageBatch instead of one SendMessage call per exchange.
+ * <p>
+ * Messages for the same DLQ URI are buffered by a {@link SqsBatchBuffer} until 10 messages (the SQS batch limit) are
+ * waiting or "sqs.dlq.batch.lingerMs" has elapsed since the first one. A batch is sent early when the next message
+ * would take its payload over 256 KB, the SQS limit for a whole batch.
+ * <p>
+ * The processor is asynchronous: the failing exchange does not hold its thread while its message waits for the
+ * batch, and continues once its own entry has been accepted by SQS, so a message is never removed from its source
+ * queue before it is safely in the DLQ. Batches are sent, and the exchanges continued, on a pool of
+ * "sqs.dlq.batch.threads" threads, so a slow batch does not hold up the other DLQ writes.
+ * <p>
+ * The DLQ URI is resolved to its Camel aws-sqs endpoint, so the client referenced by amazonSQSClient=#..., the queue
+ * owner, queueUrl, delaySeconds and the FIFO message group and deduplication strategies are used as the aws-sqs
+ * producer would. Like the producer, the message headers not filtered by the endpoint's header filter strategy are
+ * sent as message attributes.
+ * <p>
+ * Each DLQ message also carries the failure metadata as message attributes, so that redrive and triage tooling can
+ * filter without parsing bodies:
+ * <p>
+ * - FailedRouteId - the id of the route the exchange was consumed by
+ * - ExceptionClass - the class of the caught exception
+ * - HttpStatusCode - the status code of a failed HTTP call, if any
+ * - AttemptCount - the number of delivery attempts made
+ * <p>
+ * The Wingtips trace context attribute is carried over when present.
+ */
+@Slf4j
+@Component
+public class DlqBatchSender implements DisposableBean {
+
+    public static final String FAILED_ROUTE_ID = "FailedRouteId";
+    public static final String EXCEPTION_CLASS = "ExceptionClass";
+    public static final String HTTP_STATUS_CODE = "HttpStatusCode";
+    public static final String ATTEMPT_COUNT = "AttemptCount";
+
+    private static final int MAX_BATCH_BYTES = 256 * 1024;
+
+    private final Map<String, QueueBuffer> queueBuffers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    @Value("${sqs.dlq.batch.lingerMs:100}")
+    private long lingerMs;
+
+    public DlqBatchSender(@Value("${sqs.dlq.batch.threads:4}") int threads) {
+        this.scheduler = SqsBatchBuffer.newScheduler("DlqBatchSender", threads);
+    }
+
+    /**
+     * Returns an asynchronous processor sending the exchange to the queue of the given aws-sqs URI. The exchange fails
+     * if its message is not accepted by SQS.
+     *
+     * @param dlqUri
+     * @return
+     */
+    public AsyncProcessor processorFor(String dlqUri) {
+        return new AsyncProcessor() {
+            @Override
+            public boolean process(Exchange exchange, AsyncCallback callback) {
+                CompletableFuture<Void> sent;
+                try {
+                    sent = send(dlqUri, exchange);
+                } catch (Exception e) {
+                    exchange.setException(e);
+                    callback.done(true);
+                    return true;
+                }
+                sent.whenComplete((result, e) -> {
+                    if (e != null) {
+                        exchange.setException(new IllegalStateException("Unable to send message to DLQ " + dlqUri, e));
+                    }
+                    callback.done(false);
+                });
+                return false;
+            }
+
+            @Override
+            public void process(Exchange exchange) throws Exception {
+                AsyncProcessorHelper.process(this, exchange);
+            }
+        };
+    }
+
+    /**
+     * Adds the exchange's message to the next batch of the queue of the given aws-sqs URI.
+     *
+     * @param dlqUri
+     * @param exchange
+     * @return A future completed once SQS has accepted the message
+     */
+    public CompletableFuture<Void> send(String dlqUri, Exchange exchange) {
+        QueueBuffer queueBuffer = queueBuffers.computeIfAbsent(dlqUri,
+                uri -> new QueueBuffer(exchange.getContext().getEndpoint(uri, SqsEndpoint.class)));
+        PendingMessage message = new PendingMessage(buildEntry(queueBuffer.endpoint, exchange));
+        queueBuffer.batchBuffer.add(message);
+        return message.future;
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdown();
+        queueBuffers.values().forEach(queueBuffer -> queueBuffer.batchBuffer.flush());
+    }
+
+    private SendMessageBatchRequestEntry buildEntry(SqsEndpoint endpoint, Exchange exchange) {
+        Map<String, MessageAttributeValue> attributes = translateHeaders(endpoint.getHeaderFilterStrategy(), exchange);
+
+        Throwable exception = exchange.getProperty(Exchange.EXCEPTION_CAUGHT, Throwable.class);
+        HttpOperationFailedException httpOperationFailedException =
+                HttpExceptionRetryPredicate.getHttpOperationFailedException(exception);
+        Integer redeliveryCounter = exchange.getIn().getHeader(Exchange.REDELIVERY_COUNTER, Integer.class);
+        String traceContext = exchange.getIn().getHeader(WingtipsAwsGeneralUtil.TRACE_CONTEXT_MESSAGE_ATTR_NAME,
+                String.class);
+
+        putString(attributes, FAILED_ROUTE_ID, exchange.getFromRouteId());
+        putString(attributes, EXCEPTION_CLASS, exception != null ? exception.getClass().getName() : null);
+        if (httpOperationFailedException != null) {
+            putNumber(attributes, HTTP_STATUS_CODE, httpOperationFailedException.getStatusCode());
+        }
+        putNumber(attributes, ATTEMPT_COUNT, redeliveryCounter != null ? redeliveryCounter + 1 : 1);
+        putString(attributes, WingtipsAwsGeneralUtil.TRACE_CONTEXT_MESSAGE_ATTR_NAME, traceContext);
+
+        SqsConfiguration configuration = endpoint.getConfiguration();
+        Integer delaySeconds = exchange.getIn().getHeader(SqsConstants.DELAY_HEADER, Integer.class);
+        SendMessageBatchRequestEntry entry = new SendMessageBatchRequestEntry()
+                .withMessageBody(exchange.getIn().getBody(String.class))
+                .withMessageAttributes(attributes)
+                .withDelaySeconds(delaySeconds != null ? delaySeconds : configuration.getDelaySeconds());
+        if (configuration.getQueueName().endsWith(".fifo")) {
+            entry.setMessageGroupId(configuration.getMessageGroupIdStrategy().getMessageGroupId(exchange));
+            entry.setMessageDeduplicationId(
+                    configuration.getMessageDeduplicationIdStrategy().getMessageDeduplicationId(exchange));
+        }
+        return entry;
+    }
+
+    /**
+     * Translates the message headers to message attributes as the aws-sqs producer does.
+     */
+    private Map<String, MessageAttributeValue> translateHeaders(HeaderFilterStrategy headerFilterStrategy,
+                                                                Exchange exchange) {
+        Map<String, MessageAttributeValue> attributes = new HashMap<>();
+        for (Map.Entry<String, Object> header : exchange.getIn().getHeaders().entrySet()) {
+            Object value = header.getValue();
+            if (headerFilterStrategy.applyFilterToCamelHeaders(header.getKey(), value, exchange)) {
+                continue;
+            }
+            if (value instanceof String && !((String) value).isEmpty()) {
+                putString(attributes, header.getKey(), (String) value);
+            } else if (value instanceof ByteBuffer) {
+                attributes.put(header.getKey(),
+                        new MessageAttributeValue().withDataType("Binary").withBinaryValue((ByteBuffer) value));
+            } else if (value instanceof Boolean) {
+                attributes.put(header.getKey(), new MessageAttributeValue().withDataType("Number.Boolean")
+                        .withStringValue((Boolean) value ? "1" : "0"));
+            } else if (value instanceof Number) {
+                attributes.put(header.getKey(), new MessageAttributeValue().withDataType(numberDataType((Number) value))
+                        .withStringValue(value.toString()));
+            } else if (value != null && !(value instanceof String)) {
+                log.warn("Cannot put the message header key={}, value={} into Sqs MessageAttribute", header.getKey(),
+                        value);
+            }
+        }
+        return attributes;
+    }
+
+    private String numberDataType(Number value) {
+        if (value instanceof Integer) {
+            return "Number.int";
+        } else if (value instanceof Byte) {
+            return "Number.byte";
+        } else if (value instanceof Double) {
+            return "Number.double";
+        } else if (value instanceof Float) {
+            return "Number.float";
+        } else if (value instanceof Long) {
+            return "Number.long";
+        } else if (value instanceof Short) {
+            return "Number.short";
+        }
+        return "Number";
+    }
+
+    /**
+     * The size SQS counts for a message: the body and the name, data type and value of each attribute.
+     */
+    private static int payloadBytes(SendMessageBatchRequestEntry entry) {
+        int bytes = utf8Length(entry.getMessageBody());
+        for (Map.Entry<String, MessageAttributeValue> attribute : entry.getMessageAttributes().entrySet()) {
+            MessageAttributeValue value = attribute.getValue();
+            bytes += utf8Length(attribute.getKey()) + utf8Length(value.getDataType()) + utf8Length(value.getStringValue());
+            if (value.getBinaryValue() != null) {
+                bytes += value.getBinaryValue().remaining();
+            }
+        }
+        return bytes;
+    }
+
+    private static int utf8Length(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8).length : 0;
+    }
+
+    private void putString(Map<String, MessageAttributeValue> attributes, String name, String value) {
+        if (value != null && !value.isEmpty()) {
+            attributes.put(name, new MessageAttributeValue().withDataType("String").withStringValue(value));
+        }
+    }
+
+    private void putNumber(Map<String, MessageAttributeValue> attributes, String name, int value) {
+        attributes.put(name, new MessageAttributeValue().withDataType("Number").withStringValue(String.valueOf(value)));
+    }
+
+    /**
+     * The endpoint and pending messages of one DLQ URI.
+     */
+    private final class QueueBuffer {
+
+        private final SqsEndpoint endpoint;
+        private final AmazonSQS amazonSQSClient;
+        private final String queueUrl;
+        private final SqsBatchBuffer<PendingMessage> batchBuffer;
+
+        private QueueBuffer(SqsEndpoint endpoint) {
+            SqsConfiguration configuration = endpoint.getConfiguration();
+            this.endpoint = endpoint;
+            this.amazonSQSClient = endpoint.getClient();
+            this.queueUrl = configuration.getQueueUrl() != null ? configuration.getQueueUrl()
+                    : amazonSQSClient.getQueueUrl(new GetQueueUrlRequest(configuration.getQueueName())
+                            .withQueueOwnerAWSAccountId(configuration.getQueueOwnerAWSAccountId())).getQueueUrl();
+            this.batchBuffer = new SqsBatchBuffer<>(scheduler, lingerMs, MAX_BATCH_BYTES, message -> message.bytes,
+                    this::sendBatch);
+        }
+
+        private void sendBatch(List<PendingMessage> batch) {
+            List<SendMessageBatchRequestEntry> entries = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                entries.add(batch.get(i).entry.withId(String.valueOf(i)));
+            }
+            try {
+                SendMessageBatchResult result = amazonSQSClient.sendMessageBatch(
+                        new SendMessageBatchRequest(queueUrl, entries));
+                for (SendMessageBatchResultEntry successful : result.getSuccessful()) {
+                    batch.get(Integer.parseInt(successful.getId())).future.complete(null);
+                }
+                for (BatchResultErrorEntry failed : result.getFailed()) {
+                    log.error("DLQ batch entry failed queueUrl={} code={} message={}", queueUrl, failed.getCode(),
+                            failed.getMessage());
+                    batch.get(Integer.parseInt(failed.getId())).future.completeExceptionally(
+                            new IllegalStateException(failed.getCode() + ": " + failed.getMessage()));
+                }
+            } catch (Exception e) {
+                log.error("DLQ batch send failed queueUrl={} size={}", queueUrl, batch.size(), e);
+                batch.forEach(message -> message.future.completeExceptionally(e));
+            }
+        }
+    }
+
+    private static final class PendingMessage {
+
+        private final SendMessageBatchRequestEntry entry;
+        private final int bytes;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private PendingMessage(SendMessageBatchRequestEntry entry) {
+            this.entry = entry;
+            this.bytes = payloadBytes(entry);
+        }
+    }
+}
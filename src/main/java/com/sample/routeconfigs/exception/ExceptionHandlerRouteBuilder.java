@@ -1,11 +1,12 @@
 package com.sample.routeconfigs.exception;
 
 import com.netflix.hystrix.exception.HystrixRuntimeException;
+import com.sample.routeconfigs.common.RouteConstants;
 
-import com.sample.springbootsampleapp.util.DistributedTraceProcessor;
 import com.sample.springbootsampleapp.util.ExceptionLoggingProcessor;
 import lombok.Getter;
 import org.apache.camel.LoggingLevel;
+import org.apache.camel.Predicate;
 import org.apache.camel.builder.RouteBuilder;
 import org.apache.camel.http.common.HttpOperationFailedException;
 import org.apache.camel.model.OnExceptionDefinition;
@@ -24,7 +25,13 @@ import org.apache.camel.model.OnExceptionDefinition;
  *
  * HTTP status codes 400, 403 and 409, and all other exceptions, will not retry.
  *
- * The HttpExceptionRetryPredicate returns false if the status code is 409. If corrected retries are required for 409 then we might need to create seperate predicate.
+ * Retries are also limited by the application-wide {@link RetryBudget}, when one is present in the Camel registry.
+ * Once the budget is spent, the handler matching the failure stops redelivering and handles the message as if its
+ * redeliveries were exhausted, so it is still logged and sent to the DLQ.
+ *
+ * The non retriable status codes and the delay between attempts are decided by the {@link HttpRetryPolicy} found in
+ * the Camel registry, or {@link HttpRetryPolicy#DEFAULT}. The policy delay replaces redeliveryDelayMs and
+ * backOffMultiplier for HTTP failures; throttling responses (429, 503) back off longer and honour Retry-After.
  *
  * When the attempts are exhausted, the original message will be sent to the DLQ defined by the class that implements
  * ExceptionHandlerRouteBuilder.
@@ -99,19 +106,19 @@ public abstract class ExceptionHandlerRouteBuilder extends RouteBuilder {
     @Override
     public void configure() throws Exception {
 
-        if (_maxRedeliveryCount < 0 || _redeliveryDelayMs < 0 || _backoffMultiplier < 0) {
-            throw new IllegalStateException("Queue properties have not been set in abstract class " + this.getClass().getName() + ". "
-                    + "Call initialize(int maxRedeliveryCount, long redeliveryDelayMs, int backOffMultiplier) "
-                    + "prior to calling configure().");
-        }
+        ensureInitialized();
+
+        final Predicate retryPredicate = new HttpExceptionRetryPredicate(lookupHttpRetryPolicy());
+        final Predicate retryBudgetPredicate = new RetryBudgetPredicate(lookupRetryBudget(), _maxRedeliveryCount);
 
         onHttpOperationFailedExceptionDefinition = onException(HttpOperationFailedException.class)
-                .onWhen(new HttpExceptionRetryPredicate())
-                .bean(DistributedTraceProcessor.class)
+                .onWhen(retryPredicate)
+                .retryWhile(retryBudgetPredicate)
                 .maximumRedeliveries(_maxRedeliveryCount)
                 .redeliveryDelay(_redeliveryDelayMs)
                 .backOffMultiplier(_backoffMultiplier)
                 .asyncDelayedRedelivery()
+                .onRedelivery(HttpExceptionRetryPredicate.REMOVE_REDELIVERY_DELAY)
                 .retryAttemptedLogLevel(LoggingLevel.WARN)
                 .retriesExhaustedLogLevel(LoggingLevel.ERROR)
                 .useOriginalMessage()
@@ -119,12 +126,13 @@ public abstract class ExceptionHandlerRouteBuilder extends RouteBuilder {
                 // The appropriate DLQ URI must be added in the inheriting class
 
         onHystrixRuntimeExceptionDefinition = onException(HystrixRuntimeException.class)
-                .onWhen(new HttpExceptionRetryPredicate())
-                .bean(DistributedTraceProcessor.class)
+                .onWhen(retryPredicate)
+                .retryWhile(retryBudgetPredicate)
                 .maximumRedeliveries(_maxRedeliveryCount)
                 .redeliveryDelay(_redeliveryDelayMs)
                 .backOffMultiplier(_backoffMultiplier)
                 .asyncDelayedRedelivery()
+                .onRedelivery(HttpExceptionRetryPredicate.REMOVE_REDELIVERY_DELAY)
                 .retryAttemptedLogLevel(LoggingLevel.WARN)
                 .retriesExhaustedLogLevel(LoggingLevel.ERROR)
                 .useOriginalMessage()
@@ -132,12 +140,61 @@ public abstract class ExceptionHandlerRouteBuilder extends RouteBuilder {
                 // The appropriate DLQ URI must be added in the inheriting class
 
         onExceptionDefinition = onException(Exception.class)
-                .bean(DistributedTraceProcessor.class)
                 .useOriginalMessage()
                 .bean(ExceptionLoggingProcessor.class);
                 // The appropriate DLQ URI must be added in the inheriting class
     }
 
+    /**
+     * Defines a general exception handler for routes that do not use the HTTP exception handlers of configure(), such
+     * as routes consuming application queues or direct sub routes.
+     *
+     * Redeliveries are scheduled asynchronously, so a failing message does not hold its consumer thread asleep during
+     * the backoff and the consumer keeps processing other messages meanwhile. Redeliveries are limited by the
+     * {@link RetryBudget}; once it is spent, the handler stops redelivering but still runs its processors. The exception
+     * is not handled, so it propagates to the caller once redeliveries are exhausted.
+     *
+     * Call initialize(maxRedeliveryCount, redeliveryDelayMs, backOffMultiplier) first; configure() does not need to be
+     * called. The returned definition can be extended with logging and DLQ steps, for example:
+     *
+     *  onExceptionWithNonBlockingRedelivery(Exception.class)
+     *          .log(LoggingLevel.ERROR, "...")
+     *          .bean(ExceptionLoggingProcessor.class);
+     *
+     * @param exceptionType
+     * @return the exception handler definition
+     */
+    protected OnExceptionDefinition onExceptionWithNonBlockingRedelivery(Class<? extends Throwable> exceptionType) {
+
+        ensureInitialized();
+
+        return onException(exceptionType)
+                .retryWhile(new RetryBudgetPredicate(lookupRetryBudget(), _maxRedeliveryCount))
+                .maximumRedeliveries(_maxRedeliveryCount)
+                .redeliveryDelay(_redeliveryDelayMs)
+                .backOffMultiplier(_backoffMultiplier)
+                .asyncDelayedRedelivery()
+                .retryAttemptedLogLevel(LoggingLevel.INFO)
+                .handled(false)
+                .useOriginalMessage();
+    }
+
+    private void ensureInitialized() {
+        if (_maxRedeliveryCount < 0 || _redeliveryDelayMs < 0 || _backoffMultiplier < 0) {
+            throw new IllegalStateException("Queue properties have not been set in abstract class " + this.getClass().getName() + ". "
+                    + "Call initialize(int maxRedeliveryCount, long redeliveryDelayMs, int backOffMultiplier) "
+                    + "prior to calling configure().");
+        }
+    }
+
+    private HttpRetryPolicy lookupHttpRetryPolicy() {
+        return getContext().getRegistry().findByType(HttpRetryPolicy.class).stream().findFirst().orElse(null);
+    }
+
+    private RetryBudget lookupRetryBudget() {
+        return getContext().getRegistry().findByType(RetryBudget.class).stream().findFirst().orElse(null);
+    }
+
     /**
      * Configures the exception handlers to route to a DLQ.
      *
@@ -145,15 +202,35 @@ public abstract class ExceptionHandlerRouteBuilder extends RouteBuilder {
      *
      *  aws-sqs://ship-mp_vom_work_order_to_boxlabel-work-dlq?amazonSQSClient=#amazonSQSClient
      *
+     * When a {@link DlqBatchSender} is present in the Camel registry, messages are sent to the queue of the URI in
+     * batches, with the failure metadata as message attributes. Otherwise they are sent to the URI one by one.
+     *
      * @param dlqUri
      */
     protected void configureDlq(String dlqUri) {
 
-        onHttpOperationFailedExceptionDefinition
-                .to(dlqUri);
+        configureDlq(onHttpOperationFailedExceptionDefinition, dlqUri);
+        configureDlq(onHystrixRuntimeExceptionDefinition, dlqUri);
+        configureDlq(onExceptionDefinition, dlqUri);
+    }
 
-        onHystrixRuntimeExceptionDefinition
-                .to(dlqUri);
+    /**
+     * Configures a single exception handler to route to a DLQ, such as a handler that acknowledges messages which would
+     * fail again on every delivery. The URI has the same format as for configureDlq(String).
+     *
+     * @param onExceptionDefinition
+     * @param dlqUri
+     */
+    protected void configureDlq(OnExceptionDefinition onExceptionDefinition, String dlqUri) {
+
+        DlqBatchSender dlqBatchSender = getContext().getRegistry().findByType(DlqBatchSender.class).stream()
+                .findFirst().orElse(null);
+
+        if (dlqBatchSender != null && dlqUri.startsWith(RouteConstants.SQS_SCHEMA)) {
+            onExceptionDefinition
+                    .process(dlqBatchSender.processorFor(dlqUri));
+            return;
+        }
 
         onExceptionDefinition
                 .to(dlqUri);
@@ -3,58 +3,70 @@ package com.sample.routeconfigs.exception;
 import com.netflix.hystrix.exception.HystrixRuntimeException;
 import org.apache.camel.Exchange;
 import org.apache.camel.Predicate;
+import org.apache.camel.Processor;
 import org.apache.camel.http.common.HttpOperationFailedException;
 
 
 /***
- * This predicate returns false if the status code is 409. If corrected retries are required for 409 then we might need to create seperate predicate.
+ * This predicate returns false if the HTTP status code of the failure is non retriable per the {@link HttpRetryPolicy}
+ * (by default 400, 403 and 409). If corrected retries are required for 409 then the policy must be configured
+ * accordingly.
+ *
+ * The status code is read from the HttpOperationFailedException, either caught directly or as the cause of a
+ * HystrixRuntimeException.
+ *
+ * When the failure is retriable, the delay before the next attempt is computed by the policy and set in the
+ * {@link Exchange#REDELIVERY_DELAY} header, which Camel uses instead of the redeliveryDelay of the exception handler.
+ * The header would also be used by any later redelivery of the exchange, including by other handlers, so the
+ * handlers using this predicate remove it before redelivering with {@link #REMOVE_REDELIVERY_DELAY}.
  */
 public class HttpExceptionRetryPredicate implements Predicate {
 
-    private static final String STATUS_CODE_400 = "statusCode: 400";
-    private static final String STATUS_CODE_403 = "statusCode: 403";
-    private static final String STATUS_CODE_409 = "statusCode: 409";
+    /**
+     * The onRedelivery processor removing the header set by the predicate once Camel has used it.
+     */
+    public static final Processor REMOVE_REDELIVERY_DELAY =
+            exchange -> exchange.getIn().removeHeader(Exchange.REDELIVERY_DELAY);
 
+    private final HttpRetryPolicy retryPolicy;
+
+    public HttpExceptionRetryPredicate() {
+        this(HttpRetryPolicy.DEFAULT);
+    }
+
+    public HttpExceptionRetryPredicate(HttpRetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy != null ? retryPolicy : HttpRetryPolicy.DEFAULT;
+    }
 
     @Override
     public boolean matches(Exchange exchange) {
 
         Throwable t = exchange.getProperty(Exchange.EXCEPTION_CAUGHT, Throwable.class);
+        HttpOperationFailedException httpOperationFailedException = getHttpOperationFailedException(t);
+        Integer statusCode = httpOperationFailedException != null ? httpOperationFailedException.getStatusCode() : null;
 
-        if (isHystrixRuntimeException(t) && isNonRetriableHttpOperationFailedException(t)) {
+        if (!retryPolicy.isRetriable(statusCode)) {
             return false;
         }
 
-        if (isHttpOperationFailedException(t) && isHttpStatusCodeNonRetriable(t)) {
-            return false;
-        }
+        int redeliveryCounter = exchange.getIn().getHeader(Exchange.REDELIVERY_COUNTER, 0, Integer.class);
+        long redeliveryDelayMs = retryPolicy.redeliveryDelayMs(statusCode, redeliveryCounter,
+                httpOperationFailedException != null ? httpOperationFailedException.getResponseHeaders() : null);
+        exchange.getIn().setHeader(Exchange.REDELIVERY_DELAY, redeliveryDelayMs);
 
         return true;
     }
 
-    private boolean isHystrixRuntimeException(Throwable t) {
-        return t instanceof HystrixRuntimeException;
-    }
-
-    private boolean isHttpOperationFailedException(Throwable t) {
-        return t instanceof HttpOperationFailedException;
-    }
-
-    private boolean isNonRetriableHttpOperationFailedException(Throwable t) {
-        return isCauseHttpOperationFailedException(t) && isCauseHttpStatusCodeNonRetriable(t);
-    }
-
-    private boolean isCauseHttpOperationFailedException(Throwable t) {
-        return t.getCause() instanceof HttpOperationFailedException;
-    }
-
-    private boolean isCauseHttpStatusCodeNonRetriable(Throwable t) {
-        return isHttpStatusCodeNonRetriable(t.getCause());
-    }
-
-    private boolean isHttpStatusCodeNonRetriable(Throwable t) {
-        return t.getMessage().contains(STATUS_CODE_400)
-                || t.getMessage().contains(STATUS_CODE_403)
-                || t.getMessage().contains(STATUS_CODE_409);
+    /**
+     * @return The HttpOperationFailedException caught directly or as the cause of a HystrixRuntimeException, if any.
+     */
+    static HttpOperationFailedException getHttpOperationFailedException(Throwable t) {
+        if (t instanceof HttpOperationFailedException) {
+            return (HttpOperationFailedException) t;
+        }
+        if (t instanceof HystrixRuntimeException && t.getCause() instanceof HttpOperationFailedException) {
+            return (HttpOperationFailedException) t.getCause();
+        }
+        return null;
     }
 }
@@ -0,0 +1,155 @@
+package com.sample.routeconfigs.exception;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Decides whether a failed HTTP call is retriable and how long to wait before the next attempt, based on the HTTP
+ * status code of the response.
+ * <p>
+ * Status codes are grouped in three classes:
+ * <p>
+ * - non retriable (default 400, 403, 409) - the call is not retried
+ * - throttled (default 429, 503) - the server asked us to slow down; a long backoff curve is used and a
+ * Retry-After response header, in seconds or as an HTTP date, takes precedence over the curve
+ * - everything else, including Hystrix timeouts and short circuits without a status - the server error curve is used
+ * <p>
+ * Each curve is initialDelayMs * multiplier^redeliveryCounter, capped at maxDelayMs. A random part of each delay,
+ * sized by camel.retryPolicy.jitterFactor, is removed so that messages failing together do not retry together. A
+ * Retry-After delay is the earliest time the server accepts the retry, so the random part is added to it instead,
+ * still capped at the throttled maxDelayMs.
+ * <p>
+ * The status code lists are comma separated, e.g. camel.retryPolicy.nonRetriableStatusCodes=400, 403, 409.
+ */
+@Slf4j
+@Component
+public class HttpRetryPolicy {
+
+    /**
+     * Used when no policy bean is present in the Camel registry. Keeps the historical non retriable status codes.
+     */
+    public static final HttpRetryPolicy DEFAULT = new HttpRetryPolicy();
+
+    private static final String RETRY_AFTER = "Retry-After";
+
+    private Set<Integer> nonRetriableStatusCodes = toSet(400, 403, 409);
+
+    private Set<Integer> throttledStatusCodes = toSet(429, 503);
+
+    @Value("${camel.retryPolicy.serverError.initialDelayMs:2000}")
+    private long serverErrorInitialDelayMs = 2000;
+
+    @Value("${camel.retryPolicy.serverError.multiplier:2}")
+    private double serverErrorMultiplier = 2;
+
+    @Value("${camel.retryPolicy.serverError.maxDelayMs:60000}")
+    private long serverErrorMaxDelayMs = 60000;
+
+    @Value("${camel.retryPolicy.throttled.initialDelayMs:5000}")
+    private long throttledInitialDelayMs = 5000;
+
+    @Value("${camel.retryPolicy.throttled.multiplier:3}")
+    private double throttledMultiplier = 3;
+
+    @Value("${camel.retryPolicy.throttled.maxDelayMs:120000}")
+    private long throttledMaxDelayMs = 120000;
+
+    @Value("${camel.retryPolicy.jitterFactor:0.5}")
+    private double jitterFactor = 0.5;
+
+    @Value("${camel.retryPolicy.nonRetriableStatusCodes:400,403,409}")
+    public void setNonRetriableStatusCodes(String statusCodes) {
+        this.nonRetriableStatusCodes = parseStatusCodes(statusCodes);
+    }
+
+    @Value("${camel.retryPolicy.throttledStatusCodes:429,503}")
+    public void setThrottledStatusCodes(String statusCodes) {
+        this.throttledStatusCodes = parseStatusCodes(statusCodes);
+    }
+
+    public boolean isRetriable(Integer statusCode) {
+        return statusCode == null || !nonRetriableStatusCodes.contains(statusCode);
+    }
+
+    /**
+     * @param statusCode the HTTP status code, or null when the call failed without a response
+     * @param redeliveryCounter the number of redeliveries already attempted
+     * @param responseHeaders the response headers, may be null
+     * @return the delay in milliseconds before the next attempt
+     */
+    public long redeliveryDelayMs(Integer statusCode, int redeliveryCounter, Map<String, String> responseHeaders) {
+        if (statusCode != null && throttledStatusCodes.contains(statusCode)) {
+            Long retryAfterMs = retryAfterMs(responseHeaders);
+            if (retryAfterMs != null && retryAfterMs < throttledMaxDelayMs) {
+                return Math.min(retryAfterMs + jitter(retryAfterMs), throttledMaxDelayMs);
+            }
+            if (retryAfterMs != null) {
+                return withJitter(throttledMaxDelayMs);
+            }
+            return withJitter(backoff(throttledInitialDelayMs, throttledMultiplier, throttledMaxDelayMs, redeliveryCounter));
+        }
+        return withJitter(backoff(serverErrorInitialDelayMs, serverErrorMultiplier, serverErrorMaxDelayMs, redeliveryCounter));
+    }
+
+    private long backoff(long initialDelayMs, double multiplier, long maxDelayMs, int redeliveryCounter) {
+        double delay = initialDelayMs * Math.pow(multiplier, Math.max(0, redeliveryCounter));
+        return (long) Math.min(delay, maxDelayMs);
+    }
+
+    private long withJitter(long delayMs) {
+        return delayMs - jitter(delayMs);
+    }
+
+    private long jitter(long delayMs) {
+        return (long) (delayMs * jitterFactor * ThreadLocalRandom.current().nextDouble());
+    }
+
+    private Long retryAfterMs(Map<String, String> responseHeaders) {
+        if (responseHeaders == null) {
+            return null;
+        }
+        String retryAfter = responseHeaders.entrySet().stream()
+                .filter(header -> RETRY_AFTER.equalsIgnoreCase(header.getKey()))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(null);
+        if (retryAfter == null || retryAfter.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return Math.max(0, Long.parseLong(retryAfter.trim()) * 1000);
+        } catch (NumberFormatException e) {
+            try {
+                Instant retryAt = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+                return Math.max(0, retryAt.toEpochMilli() - System.currentTimeMillis());
+            } catch (DateTimeParseException dateTimeParseException) {
+                log.warn("Ignoring unparseable Retry-After header value={}", retryAfter);
+                return null;
+            }
+        }
+    }
+
+    private static Set<Integer> parseStatusCodes(String statusCodes) {
+        return toSet(Arrays.stream(statusCodes.split(","))
+                .map(String::trim)
+                .filter(statusCode -> !statusCode.isEmpty())
+                .map(Integer::valueOf)
+                .toArray(Integer[]::new));
+    }
+
+    private static Set<Integer> toSet(Integer... statusCodes) {
+        return Collections.unmodifiableSet(Arrays.stream(statusCodes).collect(Collectors.toSet()));
+    }
+}
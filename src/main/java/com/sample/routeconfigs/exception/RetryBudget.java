@@ -0,0 +1,137 @@
+package com.sample.routeconfigs.exception;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Application-wide retry budget shared by all Camel routes.
+ * <p>
+ * First attempts (messages consumed from a queue) and retries (redeliveries) are counted over a sliding window of
+ * one-second buckets. A retry is only allowed while
+ * <p>
+ * retries &lt; minRetriesPerSecond * windowSeconds + ratio * firstAttempts
+ * <p>
+ * so that during a downstream brownout the total number of calls stays bounded at roughly (1 + ratio) times the
+ * incoming traffic, instead of multiplying by the redelivery count of every layer. Once the budget is spent, the
+ * exception handlers in {@link ExceptionHandlerRouteBuilder} skip redelivery and send the message to the DLQ.
+ * <p>
+ * Properties:
+ * <p>
+ * - camel.retryBudget.enabled - defaults to true
+ * - camel.retryBudget.ratio - allowed retries per first attempt, defaults to 0.2
+ * - camel.retryBudget.minRetriesPerSecond - retries always allowed regardless of traffic, defaults to 1
+ * - camel.retryBudget.windowSeconds - length of the sliding window, defaults to 10
+ * <p>
+ * Exported metrics: camel.retry.budget.attempts, camel.retry.budget.retries, camel.retry.budget.utilization
+ * (retries divided by the current allowance) and camel.retry.budget.exhausted (denied retries).
+ */
+@Slf4j
+@Component
+public class RetryBudget {
+
+    private final boolean enabled;
+    private final double ratio;
+    private final int minRetriesPerSecond;
+    private final int windowSeconds;
+
+    private final AtomicLongArray bucketSeconds;
+    private final AtomicLongArray attempts;
+    private final AtomicLongArray retries;
+
+    private final Counter exhaustedCounter;
+
+    @Autowired
+    public RetryBudget(@Value("${camel.retryBudget.enabled:true}") boolean enabled,
+                       @Value("${camel.retryBudget.ratio:0.2}") double ratio,
+                       @Value("${camel.retryBudget.minRetriesPerSecond:1}") int minRetriesPerSecond,
+                       @Value("${camel.retryBudget.windowSeconds:10}") int windowSeconds,
+                       MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.ratio = ratio;
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        this.windowSeconds = Math.max(1, windowSeconds);
+
+        this.bucketSeconds = new AtomicLongArray(this.windowSeconds);
+        this.attempts = new AtomicLongArray(this.windowSeconds);
+        this.retries = new AtomicLongArray(this.windowSeconds);
+
+        this.exhaustedCounter = meterRegistry.counter("camel.retry.budget.exhausted");
+        meterRegistry.gauge("camel.retry.budget.attempts", this, RetryBudget::getAttempts);
+        meterRegistry.gauge("camel.retry.budget.retries", this, RetryBudget::getRetries);
+        meterRegistry.gauge("camel.retry.budget.utilization", this, RetryBudget::getUtilization);
+    }
+
+    /**
+     * Records a first attempt, which grows the retry allowance by {@code ratio}.
+     */
+    public void recordAttempt() {
+        attempts.incrementAndGet(currentBucket());
+    }
+
+    /**
+     * Takes one retry from the budget.
+     *
+     * @return true if the retry may proceed, false if the budget is exhausted
+     */
+    public boolean tryAcquireRetry() {
+        if (!enabled) {
+            return true;
+        }
+        if (getRetries() >= getAllowance()) {
+            exhaustedCounter.increment();
+            log.warn("Retry budget exhausted: retries={} attempts={} windowSeconds={}", getRetries(), getAttempts(),
+                    windowSeconds);
+            return false;
+        }
+        retries.incrementAndGet(currentBucket());
+        return true;
+    }
+
+    public double getAttempts() {
+        return sum(attempts);
+    }
+
+    public double getRetries() {
+        return sum(retries);
+    }
+
+    public double getUtilization() {
+        return getRetries() / getAllowance();
+    }
+
+    private double getAllowance() {
+        return (double) minRetriesPerSecond * windowSeconds + ratio * getAttempts();
+    }
+
+    /**
+     * Returns the index of the bucket for the current second, clearing it first if it still holds counts from a
+     * previous window. Concurrent rollovers may lose a handful of counts, which is acceptable for a budget.
+     */
+    private int currentBucket() {
+        long second = System.currentTimeMillis() / 1000;
+        int index = (int) (second % windowSeconds);
+        long bucketSecond = bucketSeconds.get(index);
+        if (bucketSecond != second && bucketSeconds.compareAndSet(index, bucketSecond, second)) {
+            attempts.set(index, 0);
+            retries.set(index, 0);
+        }
+        return index;
+    }
+
+    private long sum(AtomicLongArray counts) {
+        long oldestSecond = System.currentTimeMillis() / 1000 - windowSeconds;
+        long total = 0;
+        for (int i = 0; i < windowSeconds; i++) {
+            if (bucketSeconds.get(i) > oldestSecond) {
+                total += counts.get(i);
+            }
+        }
+        return total;
+    }
+}
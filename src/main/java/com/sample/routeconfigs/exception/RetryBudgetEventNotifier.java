@@ -0,0 +1,57 @@
+package com.sample.routeconfigs.exception;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.camel.Endpoint;
+import org.apache.camel.Exchange;
+import org.apache.camel.component.direct.DirectEndpoint;
+import org.apache.camel.management.event.ExchangeCreatedEvent;
+import org.apache.camel.support.EventNotifierSupport;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EventObject;
+
+/**
+ * Records a first attempt on the {@link RetryBudget} for every exchange created by a route consumer, such as a
+ * message received from SQS.
+ * <p>
+ * Exchanges created for direct endpoints (enrich, producer templates, sub routes) are not counted, since they belong to
+ * a message that has already been counted. The notifier is registered on the CamelContext automatically by Camel
+ * Spring Boot.
+ */
+@Component
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class RetryBudgetEventNotifier extends EventNotifierSupport {
+
+    private final RetryBudget retryBudget;
+
+    @Override
+    public void notify(EventObject event) {
+        Endpoint fromEndpoint = ((ExchangeCreatedEvent) event).getExchange().getFromEndpoint();
+        if (fromEndpoint != null && !(fromEndpoint instanceof DirectEndpoint)) {
+            retryBudget.recordAttempt();
+        }
+    }
+
+    @Override
+    public boolean isEnabled(EventObject event) {
+        return event instanceof ExchangeCreatedEvent;
+    }
+
+    @Override
+    protected void doStart() {
+        setIgnoreCamelContextEvents(true);
+        setIgnoreRouteEvents(true);
+        setIgnoreServiceEvents(true);
+        setIgnoreExchangeCompletedEvent(true);
+        setIgnoreExchangeFailedEvents(true);
+        setIgnoreExchangeRedeliveryEvents(true);
+        setIgnoreExchangeSentEvents(true);
+        setIgnoreExchangeSendingEvents(true);
+    }
+
+    @Override
+    protected void doStop() {
+        // noop
+    }
+}
@@ -0,0 +1,41 @@
+package com.sample.routeconfigs.exception;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Predicate;
+
+/***
+ * This predicate is the retryWhile of an exception handler with redeliveries. It allows a redelivery while the
+ * handler has redeliveries left and a retry can be taken from the {@link RetryBudget}.
+ *
+ * When the budget is exhausted the predicate returns false, so the same handler treats the redeliveries as exhausted:
+ * it still logs, runs its processors and sends the message to its DLQ, only without the remaining redeliveries.
+ *
+ * Camel uses the retryWhile predicate instead of maximumRedeliveries, so the predicate enforces maxRedeliveryCount
+ * itself.
+ */
+public class RetryBudgetPredicate implements Predicate {
+
+    private final RetryBudget retryBudget;
+    private final int maxRedeliveryCount;
+
+    /**
+     * @param retryBudget may be null, in which case every redelivery up to maxRedeliveryCount is allowed
+     * @param maxRedeliveryCount the maximumRedeliveries of the guarded exception handler
+     */
+    public RetryBudgetPredicate(RetryBudget retryBudget, int maxRedeliveryCount) {
+        this.retryBudget = retryBudget;
+        this.maxRedeliveryCount = maxRedeliveryCount;
+    }
+
+    @Override
+    public boolean matches(Exchange exchange) {
+
+        // The counter already includes the redelivery being decided on
+        int redeliveryCounter = exchange.getIn().getHeader(Exchange.REDELIVERY_COUNTER, 0, Integer.class);
+        if (redeliveryCounter > maxRedeliveryCount) {
+            return false;
+        }
+
+        return retryBudget == null || retryBudget.tryAcquireRetry();
+    }
+}
@@ -4,13 +4,15 @@ import com.sample.routeconfigs.common.RouteConstants;
 import com.sample.routeconfigs.common.model.pulse.EventData;
 import com.sample.routeconfigs.common.route.OutgoingRESTCallRouteConfiguration;
 import com.sample.routeconfigs.common.route.RouteUtil;
+import com.sample.routeconfigs.common.route.policy.CircuitBreakerSuspensionRoutePolicy;
 import com.sample.routeconfigs.common.route.processor.PulseHeadersProcessor;
 import com.sample.routeconfigs.exception.ExceptionHandlerRouteBuilder;
+import com.sample.routeconfigs.ingress.route.processor.PulseGETCoalescingProcessor;
 import com.sample.routeconfigs.ingress.route.processor.PulsePayloadDataExtractionProcessor;
 import com.sample.routeconfigs.ingress.route.processor.SNSMessageProcessor;
 
-import com.sample.springbootsampleapp.util.DistributedTraceProcessor;
 import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.model.RouteDefinition;
 import org.apache.commons.lang.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -119,6 +121,9 @@ public class IngressFromPulseRouteBuilder {
     @Autowired(required = false)
     private SNSMessageProcessor snsMessageProcessor;
 
+    @Autowired(required = false)
+    private PulseGETCoalescingProcessor pulseGETCoalescingProcessor;
+
     @Autowired(required = false)
     private OutgoingRESTCallRouteConfiguration restCallRouteConfiguration;
 
@@ -266,6 +271,34 @@ public class IngressFromPulseRouteBuilder {
     @Value("${suppressBusinessKeyValueException:true}")
     private boolean suppressBusinessKeyValueException;
 
+    /**
+     * Suspends the SQS consumer of the ingress route while the Hystrix circuit of the Pulse GET call is open
+     *
+     * Defaults to true
+     */
+    @Value("${sqs.circuitSuspension.enabled:true}")
+    private boolean circuitSuspensionEnabled;
+
+    /**
+     * The interval between single-message probes while the circuit is open, in milliseconds. Should not be shorter
+     * than the Hystrix circuitBreaker.sleepWindowInMilliseconds
+     *
+     * Defaults to 5000
+     */
+    @Value("${sqs.circuitSuspension.probeIntervalMs:5000}")
+    private long circuitSuspensionProbeIntervalMs;
+
+    /**
+     * The time over which the consumer ramps up to full concurrency after the circuit closes, in milliseconds
+     *
+     * Defaults to 30000
+     */
+    @Value("${sqs.circuitSuspension.rampUpMs:30000}")
+    private long circuitSuspensionRampUpMs;
+
+    @Value("${sqs.circuitSuspension.checkIntervalMs:1000}")
+    private long circuitSuspensionCheckIntervalMs;
+
     /**
      * Use this route builder method when on failure you want to send the messages to a DLQ that is preconfigured as the
      * dead letter queue of the given queueName, when there is no need to stash the encoded Pulse data in a header, and when a header
@@ -443,10 +476,10 @@ public class IngressFromPulseRouteBuilder {
 
                 includeRoutes(pulseGETCallRouteBuilder());
 
-                from(fromUri)
+                RouteDefinition route = from(fromUri)
                         .routeId(routeId)
                         .routeDescription("Reads message from queue and gets associated event from Pulse")
-                        .bean(DistributedTraceProcessor.class)
+                        .routePolicy(circuitBreakerSuspensionRoutePolicies())
 
                         // Saves the SNS message id, Pulse event id, and node values to headers
                         .process(snsMessageProcessor)
@@ -458,9 +491,16 @@ public class IngressFromPulseRouteBuilder {
                         // Gets ship confirm from Pulse
                         .setHeader(OutgoingRESTCallRouteConfiguration.URL_PARAMETERS_SUFFIX, simple(urlParametersSuffix))
                         .setHeader(OutgoingRESTCallRouteConfiguration.URL_SUFFIX, header(SNSMessageProcessor.PULSE_EVENT_ID))
-                        .log(routeId + " executing GET call to Pulse for eventId: ${header." + SNSMessageProcessor.PULSE_EVENT_ID + "}")
-                        .enrich(DIRECT_PULSE_GET_CALL_ROUTE)
-                        .convertBodyTo(String.class, UTF_8)
+                        .log(routeId + " executing GET call to Pulse for eventId: ${header." + SNSMessageProcessor.PULSE_EVENT_ID + "}");
+
+                if (pulseGETCoalescingProcessor != null) {
+                    // Concurrent GETs for the same event id share one in-flight call to DIRECT_PULSE_GET_CALL_ROUTE
+                    route.process(pulseGETCoalescingProcessor);
+                } else {
+                    route.enrich(DIRECT_PULSE_GET_CALL_ROUTE);
+                }
+
+                route.convertBodyTo(String.class, UTF_8)
                         .removeHeader(OutgoingRESTCallRouteConfiguration.URL_PARAMETERS_SUFFIX)
                         .removeHeader(OutgoingRESTCallRouteConfiguration.URL_SUFFIX) // header must be removed to avoid its presence for subsequent POST calls
                         .log(routeId + " retrieved payload from Pulse for eventId ${header." + SNSMessageProcessor.PULSE_EVENT_ID + "}")
@@ -481,6 +521,24 @@ public class IngressFromPulseRouteBuilder {
         };
     }
 
+    /**
+     * Creates the route policies that suspend an ingress route's consumer while the Pulse GET circuit is open. A new
+     * policy is created for each route since the policy holds per-route state.
+     *
+     * @return
+     */
+    private CircuitBreakerSuspensionRoutePolicy[] circuitBreakerSuspensionRoutePolicies() {
+        if (!circuitSuspensionEnabled) {
+            return new CircuitBreakerSuspensionRoutePolicy[0];
+        }
+        return new CircuitBreakerSuspensionRoutePolicy[] {
+            new CircuitBreakerSuspensionRoutePolicy(
+                    OutgoingRESTCallRouteConfiguration.hystrixCommandKey(PULSE_GET_CALL_ROUTE_ID),
+                    circuitSuspensionProbeIntervalMs, circuitSuspensionRampUpMs,
+                    Integer.parseInt(numberOfConsumers) * maxNumberOfMessages, circuitSuspensionCheckIntervalMs)
+        };
+    }
+
     /**
      * Adds the route configuration for the Hystrix REST calls to the Camel context.
      *
@@ -2,7 +2,6 @@ package com.sample.routeconfigs.ingress.route.configuration;
 
 import com.sample.routeconfigs.common.EventDataEncoding;
 import com.sample.routeconfigs.common.model.pulse.EventData;
-import samplecamel.processor.DistributedTraceProcessor;
 import org.apache.camel.builder.RouteBuilder;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
@@ -26,7 +25,6 @@ public class IngressFromPulseSubRoutes extends RouteBuilder {
         from(DIRECT_ENCODED_DATA_HANDLING_ROUTE)
             .id(ENCODED_DATA_HANDLING_ROUTE_ID)
             .description("Stashes the encoded data in the " + EventData.ENCODED_DATA + " header if ingress route's input stashEncodedData = true")
-            .bean(DistributedTraceProcessor.class)
             .choice()
                 .when(header(IngressFromPulseRouteBuilder.STASH_ENCODED_DATA_FLAG).isEqualTo("true"))
                     .setHeader(EventData.ENCODED_DATA, simple("${body}"))
@@ -38,7 +36,6 @@ public class IngressFromPulseSubRoutes extends RouteBuilder {
         from(DIRECT_DECODING_ROUTE)
             .id(DECODING_ROUTE_ID)
             .description("Handles the decoding processing according to the EventData.ENCODING value")
-            .bean(DistributedTraceProcessor.class)
             .choice()
                 .when(header(EventData.ENCODING).isEqualTo(EventDataEncoding.GZIP_BASE64.name()))
                     .unmarshal().base64() // decode the payload
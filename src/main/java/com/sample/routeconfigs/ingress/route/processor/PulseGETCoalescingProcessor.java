@@ -0,0 +1,139 @@
+package com.sample.routeconfigs.ingress.route.processor;
+
+import com.sample.routeconfigs.common.route.OutgoingRESTCallRouteConfiguration;
+import com.sample.routeconfigs.ingress.route.configuration.IngressFromPulseRouteBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.Exchange;
+import org.apache.camel.Message;
+import org.apache.camel.Processor;
+import org.apache.camel.ProducerTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces concurrent identical Pulse GET calls into a single in-flight HTTP call.
+ * <p>
+ * Calls are keyed by the {@link OutgoingRESTCallRouteConfiguration#URL_SUFFIX} and
+ * {@link OutgoingRESTCallRouteConfiguration#URL_PARAMETERS_SUFFIX} headers. The first exchange for a key (the leader)
+ * sends a copy of itself to {@link IngressFromPulseRouteBuilder#DIRECT_PULSE_GET_CALL_ROUTE}; exchanges arriving for
+ * the same key while that call is in flight (followers) wait for it and receive the same response body and HTTP
+ * status, or the same exception. The key is released as soon as the call completes, so responses are never cached.
+ * <p>
+ * The response body is converted to a String before it is shared, since a stream body can only be read once.
+ * <p>
+ * Coalescing can be turned off with "pulse.get.coalescing.enabled=false", in which case every exchange makes its own
+ * call. When this component is not in the application context, the ingress routes enrich from the Pulse GET call
+ * route directly, without coalescing. Leader and follower counts are exported as "pulse.get.coalescing" counters tagged by role.
+ */
+@Slf4j
+@Component
+public class PulseGETCoalescingProcessor implements Processor {
+
+    private final Map<String, CompletableFuture<Message>> inFlightCalls = new ConcurrentHashMap<>();
+
+    private final ProducerTemplate producerTemplate;
+    private final Counter leaderCounter;
+    private final Counter followerCounter;
+
+    @Value("${pulse.get.coalescing.enabled:true}")
+    private boolean coalescingEnabled;
+
+    /**
+     * The maximum time a follower waits for the leader's call to complete. Should exceed the Hystrix timeout plus all
+     * redeliveries of the Pulse GET call route.
+     */
+    @Value("${pulse.get.coalescing.followerTimeoutMs:60000}")
+    private long followerTimeoutMs;
+
+    @Autowired
+    public PulseGETCoalescingProcessor(ProducerTemplate producerTemplate, MeterRegistry meterRegistry) {
+        this.producerTemplate = producerTemplate;
+        this.leaderCounter = meterRegistry.counter("pulse.get.coalescing", "role", "leader");
+        this.followerCounter = meterRegistry.counter("pulse.get.coalescing", "role", "follower");
+    }
+
+    @Override
+    public void process(Exchange exchange) throws Exception {
+
+        if (!coalescingEnabled) {
+            applyResponse(exchange, call(exchange));
+            return;
+        }
+
+        String key = coalescingKey(exchange);
+        CompletableFuture<Message> leaderCall = new CompletableFuture<>();
+        CompletableFuture<Message> inFlightCall = inFlightCalls.putIfAbsent(key, leaderCall);
+
+        if (inFlightCall == null) {
+            leaderCounter.increment();
+            try {
+                Message response = call(exchange);
+                leaderCall.complete(response);
+                applyResponse(exchange, response);
+            } catch (Exception e) {
+                leaderCall.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlightCalls.remove(key, leaderCall);
+            }
+        } else {
+            followerCounter.increment();
+            log.debug("Joining in-flight Pulse GET call for key ='{}'", key);
+            applySharedResponse(exchange, awaitLeader(inFlightCall));
+        }
+    }
+
+    private Message call(Exchange exchange) throws Exception {
+        Exchange result = producerTemplate.send(IngressFromPulseRouteBuilder.DIRECT_PULSE_GET_CALL_ROUTE, exchange.copy());
+        if (result.getException() != null) {
+            throw result.getException();
+        }
+        Message response = result.hasOut() ? result.getOut() : result.getIn();
+        response.setBody(response.getBody(String.class));
+        return response;
+    }
+
+    private Message awaitLeader(CompletableFuture<Message> inFlightCall) throws Exception {
+        try {
+            return inFlightCall.get(followerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void applyResponse(Exchange exchange, Message response) {
+        Message in = exchange.getIn();
+        in.setHeaders(new HashMap<>(response.getHeaders()));
+        in.setBody(response.getBody());
+    }
+
+    /**
+     * Followers keep their own headers (trace ids, event ids) and only take the body and HTTP response status.
+     */
+    private void applySharedResponse(Exchange exchange, Message response) {
+        Message in = exchange.getIn();
+        in.setHeader(Exchange.HTTP_RESPONSE_CODE, response.getHeader(Exchange.HTTP_RESPONSE_CODE));
+        in.setHeader(Exchange.HTTP_RESPONSE_TEXT, response.getHeader(Exchange.HTTP_RESPONSE_TEXT));
+        in.setHeader(Exchange.CONTENT_TYPE, response.getHeader(Exchange.CONTENT_TYPE));
+        in.setBody(response.getBody());
+    }
+
+    private String coalescingKey(Exchange exchange) {
+        Message in = exchange.getIn();
+        return in.getHeader(OutgoingRESTCallRouteConfiguration.URL_SUFFIX, "", String.class)
+                + "?" + in.getHeader(OutgoingRESTCallRouteConfiguration.URL_PARAMETERS_SUFFIX, "", String.class);
+    }
+}
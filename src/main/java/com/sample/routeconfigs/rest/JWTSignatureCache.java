@@ -0,0 +1,216 @@
+package com.sample.routeconfigs.rest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the JWT signed headers per domain, so that outgoing calls do not sign a new token each time.
+ * <p>
+ * Reads are a lookup in a ConcurrentHashMap followed by an expiry check, without locking. Only a cache miss, or an
+ * entry that expired because refreshing failed, signs synchronously through {@link RESTSecurityInterceptor}, and only
+ * one caller signs for a domain: the others wait for its signature instead of signing their own. A background thread
+ * signs a replacement for every entry "jwt.cache.refreshBeforeExpirySeconds" before it expires, so that consumers
+ * normally never wait for a signature.
+ * <p>
+ * The expiry of a signature is the exp claim of its token, less "jwt.cache.expirySkewSeconds". When the token has no
+ * readable exp claim, the signature is kept for "jwt.cache.defaultTtlSeconds".
+ * <p>
+ * Exported metrics: jwt.sign (signatures, tagged mode=sync or mode=refresh), jwt.sign.failed, and jwt.cache.age
+ * (age in seconds of the oldest cached signature).
+ */
+@Slf4j
+@Component
+public class JWTSignatureCache implements InitializingBean, DisposableBean {
+
+    private static final String BEARER_SEPARATOR = " ";
+
+    private final RESTSecurityInterceptor restSecurityInterceptor;
+    private final Map<String, Signature> signatures = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Counter syncSignCounter;
+    private final Counter refreshSignCounter;
+    private final Counter failedSignCounter;
+
+    private ScheduledExecutorService scheduler;
+
+    @Value("${jwt.cache.refreshBeforeExpirySeconds:60}")
+    private long refreshBeforeExpirySeconds;
+
+    @Value("${jwt.cache.expirySkewSeconds:5}")
+    private long expirySkewSeconds;
+
+    @Value("${jwt.cache.defaultTtlSeconds:300}")
+    private long defaultTtlSeconds;
+
+    @Value("${jwt.cache.refreshCheckIntervalMs:1000}")
+    private long refreshCheckIntervalMs;
+
+    @Autowired
+    public JWTSignatureCache(RESTSecurityInterceptor restSecurityInterceptor, MeterRegistry meterRegistry) {
+        this.restSecurityInterceptor = restSecurityInterceptor;
+        this.syncSignCounter = meterRegistry.counter("jwt.sign", "mode", "sync");
+        this.refreshSignCounter = meterRegistry.counter("jwt.sign", "mode", "refresh");
+        this.failedSignCounter = meterRegistry.counter("jwt.sign.failed");
+        meterRegistry.gauge("jwt.cache.age", this, JWTSignatureCache::getOldestAgeSeconds);
+    }
+
+    /**
+     * Returns the signed headers for the domain, signing them if there is no valid cached signature.
+     *
+     * @param domain
+     * @return read-only signed headers
+     * @throws IOException if signing failed
+     */
+    public HttpHeaders get(String domain) throws IOException {
+        Signature signature = signatures.get(domain);
+        if (isValid(signature)) {
+            return signature.headers;
+        }
+        try {
+            return signatures.compute(domain, (key, current) -> {
+                // Another caller may have signed while this one was waiting for the entry
+                if (isValid(current)) {
+                    return current;
+                }
+                try {
+                    Signature signed = sign(key);
+                    syncSignCounter.increment();
+                    return signed;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).headers;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "JWTSignatureCache");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refresh, refreshCheckIntervalMs, refreshCheckIntervalMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdown();
+    }
+
+    /**
+     * Replaces the signatures that are due for refresh. A failed refresh keeps the current signature, which is used
+     * until it expires.
+     */
+    void refresh() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, Signature> entry : signatures.entrySet()) {
+            if (now < entry.getValue().refreshAtMillis) {
+                continue;
+            }
+            try {
+                signatures.put(entry.getKey(), sign(entry.getKey()));
+                refreshSignCounter.increment();
+            } catch (IOException | RuntimeException e) {
+                log.warn("Event=JWTSignatureRefreshFailed Domain={}, keeping the current signature until it expires",
+                        entry.getKey(), e);
+            }
+        }
+    }
+
+    private static boolean isValid(Signature signature) {
+        return signature != null && System.currentTimeMillis() < signature.expiresAtMillis;
+    }
+
+    private Signature sign(String domain) throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        try {
+            restSecurityInterceptor.sign(headers, domain);
+        } catch (IOException | RuntimeException e) {
+            failedSignCounter.increment();
+            throw e;
+        }
+
+        long signedAtMillis = System.currentTimeMillis();
+        long expiresAtMillis = readExpiryMillis(headers.get(HttpHeaders.AUTHORIZATION));
+        if (expiresAtMillis <= 0) {
+            expiresAtMillis = signedAtMillis + TimeUnit.SECONDS.toMillis(defaultTtlSeconds);
+        } else {
+            expiresAtMillis -= TimeUnit.SECONDS.toMillis(expirySkewSeconds);
+        }
+        // Tokens shorter-lived than the refresh margin are refreshed half way through their life
+        long refreshAtMillis = Math.max(expiresAtMillis - TimeUnit.SECONDS.toMillis(refreshBeforeExpirySeconds),
+                signedAtMillis + (expiresAtMillis - signedAtMillis) / 2);
+        return new Signature(HttpHeaders.readOnlyHttpHeaders(headers), signedAtMillis, refreshAtMillis,
+                expiresAtMillis);
+    }
+
+    /**
+     * Returns the exp claim of the bearer token in milliseconds, or 0 if it cannot be read.
+     */
+    long readExpiryMillis(List<String> authorization) {
+        if (authorization == null || authorization.isEmpty() || authorization.get(0) == null) {
+            return 0;
+        }
+        String value = authorization.get(0);
+        String token = value.substring(value.lastIndexOf(BEARER_SEPARATOR) + 1);
+        String[] parts = token.split("\\.");
+        if (parts.length < 2) {
+            return 0;
+        }
+        try {
+            JsonNode claims = objectMapper.readTree(Base64.getUrlDecoder().decode(parts[1]));
+            JsonNode exp = claims.get("exp");
+            return exp != null && exp.canConvertToLong() ? TimeUnit.SECONDS.toMillis(exp.asLong()) : 0;
+        } catch (IOException | IllegalArgumentException e) {
+            return 0;
+        }
+    }
+
+    private double getOldestAgeSeconds() {
+        long now = System.currentTimeMillis();
+        long oldest = 0;
+        for (Signature signature : signatures.values()) {
+            oldest = Math.max(oldest, now - signature.signedAtMillis);
+        }
+        return oldest / 1000.0;
+    }
+
+    private static final class Signature {
+
+        private final HttpHeaders headers;
+        private final long signedAtMillis;
+        private final long refreshAtMillis;
+        private final long expiresAtMillis;
+
+        private Signature(HttpHeaders headers, long signedAtMillis, long refreshAtMillis, long expiresAtMillis) {
+            this.headers = headers;
+            this.signedAtMillis = signedAtMillis;
+            this.refreshAtMillis = refreshAtMillis;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
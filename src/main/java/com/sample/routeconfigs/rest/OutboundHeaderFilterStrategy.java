@@ -0,0 +1,59 @@
+package com.sample.routeconfigs.rest;
+
+import com.sample.routeconfigs.common.route.OutgoingRESTCallRouteConfiguration;
+import org.apache.camel.Exchange;
+import org.apache.camel.http.common.HttpHeaderFilterStrategy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import wingtips.TraceHeaders;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Default header filter strategy of the outgoing REST call routes: only allowlisted exchange message headers are sent
+ * as HTTP headers, so that headers such as the stashed encoded Pulse data never go on the wire.
+ * <p>
+ * The allowlist holds the JWT headers, Content-Type, Accept, the application name header and the B3 trace headers,
+ * plus the comma separated header names of "rest.outbound.headers.allowlist". Headers are matched case-insensitively.
+ * Inbound HTTP headers are filtered as by {@link HttpHeaderFilterStrategy}.
+ */
+@Component(OutboundHeaderFilterStrategy.BEAN_NAME)
+public class OutboundHeaderFilterStrategy extends HttpHeaderFilterStrategy {
+
+    public static final String BEAN_NAME = "outboundHeaderFilterStrategy";
+
+    private static final List<String> DEFAULT_ALLOWLIST = Arrays.asList(
+            HttpHeaders.AUTHORIZATION,
+            HTTPJwtHeaders.ALT_AUTHORIZATION,
+            HTTPJwtHeaders.ALT_APP_ID,
+            HTTPJwtHeaders.INSTANCE_ID,
+            HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.ACCEPT,
+            OutgoingRESTCallRouteConfiguration.EVENT_MANAGER_HEADER,
+            TraceHeaders.TRACE_ID,
+            TraceHeaders.SPAN_ID,
+            TraceHeaders.PARENT_SPAN_ID,
+            TraceHeaders.TRACE_SAMPLED);
+
+    private final Set<String> allowlist;
+
+    public OutboundHeaderFilterStrategy(@Value("${rest.outbound.headers.allowlist:}") String additionalHeaders) {
+        this.allowlist = Stream.concat(DEFAULT_ALLOWLIST.stream(), Arrays.stream(additionalHeaders.split(",")))
+                .map(String::trim)
+                .filter(header -> !header.isEmpty())
+                .map(header -> header.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public boolean applyFilterToCamelHeaders(String headerName, Object headerValue, Exchange exchange) {
+        return !allowlist.contains(headerName.toLowerCase(Locale.ROOT))
+                || super.applyFilterToCamelHeaders(headerName, headerValue, exchange);
+    }
+}
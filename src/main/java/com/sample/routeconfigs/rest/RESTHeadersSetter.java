@@ -4,18 +4,21 @@ package com.sample.routeconfigs.rest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.camel.Exchange;
-import org.apache.camel.Message;
 import org.apache.camel.impl.cloud.ServiceCallConstants;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.ConfigurationProperties;
-import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.RequestMethod;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Places security headers on a Camel exchange message in preparation for an HTTP call executed by Camel.
@@ -32,6 +35,12 @@ import java.io.IOException;
  * - Content-Type - hard coded to `application/json; charset=utf-8`
  * - Accept - hard coded to "*&#47;*'
  * - CamelServiceCallServiceName -vipName input argument to the `RESTHeadersSetter.setHeaders` method
+ *
+ * When "jwt.cache.enabled=true" (default) the JWT headers are served by the {@link JWTSignatureCache} instead of being
+ * signed for every call.
+ *
+ * The headers that only depend on the VIP and the HTTP method are built once per VIP and method into an immutable
+ * template, and the JWT headers once per signature, so each call merges two prebuilt maps into the message headers.
  */
 // Accept - hard coded to "*/*"
 @Slf4j
@@ -47,28 +56,87 @@ public class RESTHeadersSetter {
     @Value("${jwt.use.alternate.jwt.header:false}")
     private boolean useAlternativeJWTHeader;
 
-    @Autowired
-    private ApplicationContext context;
+    @Value("${jwt.cache.enabled:true}")
+    private boolean jwtCacheEnabled;
 
+    @Value("${jwt.domain}")
+    private String jwtDomain;
+
+    @Autowired
     private RESTSecurityInterceptor restSecurityInterceptor;
 
+    @Autowired
+    private JWTSignatureCache jwtSignatureCache;
+
+    private final Map<String, Map<String, Object>> templates = new ConcurrentHashMap<>();
+
+    private volatile JWTHeaders cachedJWTHeaders;
+
     public void setHeaders(Exchange exchange, RequestMethod httpMethod, String vipName) throws IOException {
+        Map<String, Object> messageHeaders = exchange.getIn().getHeaders();
+        messageHeaders.putAll(getJWTHeaders());
+        messageHeaders.putAll(getTemplate(httpMethod, vipName));
+    }
+
+    /**
+     * Returns the immutable headers of every call to the VIP with the HTTP method.
+     */
+    private Map<String, Object> getTemplate(RequestMethod httpMethod, String vipName) {
+        return templates.computeIfAbsent(vipName + ":" + httpMethod.name(), key -> {
+            Map<String, Object> template = new LinkedHashMap<>();
+            template.put(Exchange.HTTP_METHOD, httpMethod.name());
+            template.put(HttpHeaders.CONTENT_TYPE, JSON_CONTENT_TYPE);
+            template.put(HttpHeaders.ACCEPT, ACCEPT_VALUE);
+            template.put(ServiceCallConstants.SERVICE_NAME, vipName);
+            return Collections.unmodifiableMap(template);
+        });
+    }
+
+    /**
+     * Returns the JWT message headers of the current signature, building them only when the signature changed.
+     */
+    private Map<String, Object> getJWTHeaders() throws IOException {
+        if (!jwtCacheEnabled) {
+            HttpHeaders signed = new HttpHeaders();
+            restSecurityInterceptor.sign(signed);
+            return toMessageHeaders(signed);
+        }
 
-        restSecurityInterceptor = context.getBean(RESTSecurityInterceptor.class);
+        HttpHeaders signed = jwtSignatureCache.get(jwtDomain);
+        JWTHeaders current = cachedJWTHeaders;
+        if (current == null || current.signed != signed) {
+            current = new JWTHeaders(signed, toMessageHeaders(signed));
+            cachedJWTHeaders = current;
+        }
+        return current.messageHeaders;
+    }
+
+    private Map<String, Object> toMessageHeaders(HttpHeaders signed) {
+        Map<String, Object> messageHeaders = new LinkedHashMap<>();
+        putIfPresent(messageHeaders, useAlternativeJWTHeader ? HTTPJwtHeaders.ALT_AUTHORIZATION : HttpHeaders.AUTHORIZATION,
+                signed.get(HttpHeaders.AUTHORIZATION));
+        putIfPresent(messageHeaders, HTTPJwtHeaders.ALT_APP_ID, signed.get(HTTPJwtHeaders.ALT_APP_ID));
+        putIfPresent(messageHeaders, HTTPJwtHeaders.INSTANCE_ID, signed.get(HTTPJwtHeaders.INSTANCE_ID));
+        return Collections.unmodifiableMap(messageHeaders);
+    }
 
-        Message message = exchange.getIn();
-        HttpHeaders headers = new HttpHeaders();
+    private void putIfPresent(Map<String, Object> messageHeaders, String name, List<String> value) {
+        if (value != null) {
+            messageHeaders.put(name, value);
+        }
+    }
 
-        restSecurityInterceptor.sign(headers);
+    /**
+     * The JWT message headers built from one signature.
+     */
+    private static final class JWTHeaders {
 
-        message.setHeader(useAlternativeJWTHeader ?
-                HTTPJwtHeaders.ALT_AUTHORIZATION : HttpHeaders.AUTHORIZATION, headers.get(HttpHeaders.AUTHORIZATION));
-        message.setHeader(HTTPJwtHeaders.ALT_APP_ID, headers.get(HTTPJwtHeaders.ALT_APP_ID));
-        message.setHeader(HTTPJwtHeaders.INSTANCE_ID, headers.get(HTTPJwtHeaders.INSTANCE_ID));
+        private final HttpHeaders signed;
+        private final Map<String, Object> messageHeaders;
 
-        message.setHeader(Exchange.HTTP_METHOD, httpMethod.name());
-        message.setHeader(HttpHeaders.CONTENT_TYPE, JSON_CONTENT_TYPE);
-        message.setHeader(HttpHeaders.ACCEPT, ACCEPT_VALUE);
-        message.setHeader(ServiceCallConstants.SERVICE_NAME, vipName);
+        private JWTHeaders(HttpHeaders signed, Map<String, Object> messageHeaders) {
+            this.signed = signed;
+            this.messageHeaders = messageHeaders;
+        }
     }
 }
@@ -50,11 +50,22 @@ public class RESTSecurityInterceptor implements ClientHttpRequestInterceptor {
     }
 
     public void sign(Object headers) throws IOException {
+        sign(headers, jwtDomain);
+    }
+
+    /**
+     * Signs the headers for the given JWT domain.
+     *
+     * @param headers
+     * @param domain
+     * @throws IOException
+     */
+    public void sign(Object headers, String domain) throws IOException {
         try {
             log.info("Signing JWT for HTTP");
             if (authenticator.isJwtEnabled()) {
                 ensureJWTAuthenticatorConfig();
-                authenticator.sign(headers, jwtDomain);
+                authenticator.sign(headers, domain);
                 log.info("JWT successfully signed.");
             } else {
                 log.info("JWT disabled for local testing.");
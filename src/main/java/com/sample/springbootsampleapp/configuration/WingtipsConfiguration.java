@@ -0,0 +1,161 @@
+package com.sample.springbootsampleapp.configuration;
+
+import com.sample.routeconfigs.common.route.policy.TraceIdMdcUnitOfWorkFactory;
+import com.sample.routeconfigs.common.route.policy.TracingRoutePolicy;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.CamelContext;
+import org.apache.camel.spring.boot.CamelContextConfiguration;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import wingtips.TraceAndSpanIdGenerator;
+import wingtips.TraceAndSpanIdGenerator.IdGenerationMode;
+import wingtips.Tracer;
+import wingtips.lifecyclelistener.AsyncSpanReporter;
+import wingtips.lifecyclelistener.LoggerSpanExporter;
+import wingtips.sampling.ProbabilisticSamplingStrategy;
+import wingtips.sampling.RateLimitedSamplingStrategy;
+import wingtips.sampling.RootSpanSamplingStrategy;
+import wingtips.sampling.SampleAllTheThingsStrategy;
+import wingtips.sampling.TailBasedSamplingStrategy;
+
+import javax.annotation.PostConstruct;
+
+@Configuration
+@Slf4j
+public class WingtipsConfiguration {
+
+    /**
+     * The root span sampling strategies selectable with "wingtips.sampling.strategy".
+     */
+    public enum SamplingStrategy {
+        ALL, PROBABILISTIC, RATE_LIMITED, TAIL
+    }
+
+    @Value("${wingtips.idGenerationMode:SECURE_RANDOM}")
+    private IdGenerationMode idGenerationMode;
+
+    @Value("${wingtips.asyncReporter.bufferSize:16384}")
+    private int asyncReporterBufferSize;
+    @Value("${wingtips.asyncReporter.maxBatchSize:512}")
+    private int asyncReporterMaxBatchSize;
+
+    @Value("${wingtips.sampling.strategy:ALL}")
+    private SamplingStrategy samplingStrategy;
+    @Value("${wingtips.sampling.probability:0.1}")
+    private double samplingProbability;
+    @Value("${wingtips.sampling.ratePerSecond:100}")
+    private double samplingRatePerSecond;
+    @Value("${wingtips.sampling.burst:100}")
+    private int samplingBurst;
+    @Value("${wingtips.sampling.tail.latencyThresholdMs:1000}")
+    private long tailLatencyThresholdMs;
+    @Value("${wingtips.sampling.tail.maxBufferedTraces:10000}")
+    private int tailMaxBufferedTraces;
+    @Value("${wingtips.sampling.tail.maxTraceAgeMs:60000}")
+    private long tailMaxTraceAgeMs;
+
+
+    @PostConstruct
+    public void configureTracer() {
+        TraceAndSpanIdGenerator.setIdGenerationMode(idGenerationMode);
+        log.info("Wingtips trace and span ids are generated in {} mode", idGenerationMode);
+    }
+
+    /**
+     * Reports the completed spans from a background thread instead of logging them on the thread completing them.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "wingtips.asyncReporter.enabled", havingValue = "true", matchIfMissing = true)
+    public AsyncSpanReporter asyncSpanReporter(MeterRegistry meterRegistry) {
+        AsyncSpanReporter reporter = new AsyncSpanReporter(new LoggerSpanExporter(), asyncReporterBufferSize,
+                asyncReporterMaxBatchSize);
+
+        FunctionCounter.builder("wingtips.spans.reported", reporter, AsyncSpanReporter::getExportedCount)
+                .register(meterRegistry);
+        FunctionCounter.builder("wingtips.spans.dropped", reporter, AsyncSpanReporter::getDroppedCount)
+                .tag("reason", "bufferFull").register(meterRegistry);
+        FunctionCounter.builder("wingtips.spans.dropped", reporter, AsyncSpanReporter::getFailedCount)
+                .tag("reason", "exportFailed").register(meterRegistry);
+        meterRegistry.gauge("wingtips.spans.buffer.remaining", reporter, AsyncSpanReporter::getRemainingCapacity);
+        log.info("Wingtips spans are reported asynchronously, bufferSize={} maxBatchSize={}", asyncReporterBufferSize,
+                asyncReporterMaxBatchSize);
+        return reporter;
+    }
+
+    /**
+     * Sets the root span sampling strategy of the Tracer per "wingtips.sampling.strategy", and registers the span
+     * reporter (through the tail-based strategy when it is selected).
+     */
+    @Bean
+    public RootSpanSamplingStrategy rootSpanSamplingStrategy(ObjectProvider<AsyncSpanReporter> asyncSpanReporter,
+                                                             MeterRegistry meterRegistry) {
+        AsyncSpanReporter reporter = asyncSpanReporter.getIfAvailable();
+        RootSpanSamplingStrategy strategy;
+        switch (samplingStrategy) {
+            case PROBABILISTIC:
+                strategy = new ProbabilisticSamplingStrategy(samplingProbability);
+                break;
+            case RATE_LIMITED:
+                strategy = new RateLimitedSamplingStrategy(samplingRatePerSecond, samplingBurst);
+                break;
+            case TAIL:
+                if (reporter == null) {
+                    throw new IllegalStateException(
+                            "wingtips.sampling.strategy=TAIL requires wingtips.asyncReporter.enabled=true");
+                }
+                TailBasedSamplingStrategy tail = new TailBasedSamplingStrategy(reporter, tailLatencyThresholdMs,
+                        tailMaxBufferedTraces, tailMaxTraceAgeMs);
+                FunctionCounter.builder("wingtips.sampling.tail.traces", tail, TailBasedSamplingStrategy::getKeptCount)
+                        .tag("decision", "kept").register(meterRegistry);
+                FunctionCounter.builder("wingtips.sampling.tail.traces", tail,
+                        TailBasedSamplingStrategy::getDiscardedCount).tag("decision", "discarded").register(meterRegistry);
+                FunctionCounter.builder("wingtips.sampling.tail.overflow", tail,
+                        TailBasedSamplingStrategy::getOverflowCount).register(meterRegistry);
+                meterRegistry.gauge("wingtips.sampling.tail.buffered", tail,
+                        TailBasedSamplingStrategy::getBufferedTraceCount);
+                strategy = tail;
+                break;
+            default:
+                strategy = new SampleAllTheThingsStrategy();
+        }
+
+        Tracer tracer = Tracer.getInstance();
+        tracer.setRootSpanSamplingStrategy(strategy);
+        if (reporter != null) {
+            tracer.addSpanLifecycleListener(strategy instanceof TailBasedSamplingStrategy
+                    ? (TailBasedSamplingStrategy) strategy : reporter);
+            tracer.setValidSpanLoggingEnabled(false);
+        }
+        log.info("Wingtips root spans are sampled with the {} strategy", samplingStrategy);
+        return strategy;
+    }
+
+    /**
+     * Adds a tracing route policy to every route of the CamelContext, before the routes are started. Each route gets
+     * its own policy instance, since a policy is stopped with its route. The trace id of the route span is put in the
+     * MDC before each processor of the routes runs.
+     */
+    @Bean
+    public CamelContextConfiguration tracingCamelContextConfiguration(
+            RootSpanSamplingStrategy rootSpanSamplingStrategy) {
+        return new CamelContextConfiguration() {
+            @Override
+            public void beforeApplicationStart(CamelContext camelContext) {
+                camelContext.addRoutePolicyFactory(
+                        (context, routeId, route) -> new TracingRoutePolicy(rootSpanSamplingStrategy));
+                camelContext.setUnitOfWorkFactory(new TraceIdMdcUnitOfWorkFactory());
+            }
+
+            @Override
+            public void afterApplicationStart(CamelContext camelContext) {
+                // noop
+            }
+        };
+    }
+
+}
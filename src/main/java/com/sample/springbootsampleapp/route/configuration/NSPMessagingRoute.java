@@ -1,20 +1,56 @@
 package com.sample.springbootsampleapp.route.configuration;
 
+import com.sample.routeconfigs.common.RouteConstants;
+import com.sample.routeconfigs.common.route.OutgoingRESTCallRouteConfiguration;
+import com.sample.routeconfigs.common.route.processor.PulseHeadersProcessor;
+import com.sample.routeconfigs.common.route.processor.SqsBatchAcknowledger;
+import com.sample.routeconfigs.egress.route.processor.PulsePOSTPayloadProcessor;
+import com.sample.routeconfigs.egress.route.processor.XMLEventMetadataSetter;
 import com.sample.springbootsampleapp.util.ApplicationConstants;
-import com.sample.springbootsampleapp.util.DistributedTraceProcessor;
 import com.sample.springbootsampleapp.util.ExceptionLoggingProcessor;
 import com.sample.routeconfigs.exception.ExceptionHandlerRouteBuilder;
+import com.sample.springbootsampleapp.util.NspPayloadTranscoder;
+import com.sample.springbootsampleapp.util.NspPipelineMetrics;
+import com.sample.springbootsampleapp.util.PayloadLogger;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.camel.LoggingLevel;
+import org.apache.camel.model.dataformat.JsonLibrary;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.bind.annotation.RequestMethod;
 
-import static com.sample.routeconfigs.common.RouteConstants.UTF_8;
-
+/**
+ * Delivers the documents of the NSP queue to NSP.
+ * <p>
+ * - Messages are received in batches of up to sqs.max.no.messages with long polling (nsp.sqs.waitTimeSeconds)
+ * - Each message is handed to a bounded pool of nsp.post.parallelism threads, so the messages of a batch are
+ * transcoded and posted in parallel. When nsp.post.maxQueueSize messages are waiting, the consumer thread posts
+ * itself, which slows down polling instead of buffering without limit
+ * - The payload is transcoded by {@link NspPayloadTranscoder} in a single streaming pass
+ * - Posts reuse pooled keep-alive connections instead of closing the connection after every call
+ * - Messages are deleted in batches by {@link SqsBatchAcknowledger} once posted; failed messages are not deleted
+ * and are redriven by SQS after their visibility timeout
+ * <p>
+ * Delivery is at least once, and a document can be posted more than once: the delete is queued after the post and
+ * sent in the background, so a failed DeleteMessageBatch is only counted (sqs.ack.failed) and the message, already
+ * posted, is redriven and posted again. The same happens when the service stops between the post and the delete.
+ * <p>
+ * The NSP endpoint (nsp.vipName, nsp.urlSuffix) and the event context (nsp.eventContext.name,
+ * nsp.eventContext.type) have no defaults and must be configured per environment. The request is signed and built
+ * as a Pulse event, so the endpoint must accept the Pulse event payload.
+ * <p>
+ * Posts go through the Hystrix thread pool of the outgoing REST call route, so nsp.post.parallelism defaults to
+ * camel.hystrix.threadpool.coreSize; a larger value only gets Hystrix rejections.
+ * <p>
+ * End-to-end timings are exported by {@link NspPipelineMetrics}.
+ */
 @Slf4j
 @Configuration
 public class NSPMessagingRoute extends ExceptionHandlerRouteBuilder {
 
+    private static final String NSP_EVENT_METADATA_CALL_FORMAT = "setMetadata(${exchange}, \"%s\", \"%s\")";
+
     @Value("${sqs.afssapshipconfirm.nsp.queue.name}")
     private String nspQueue;
 
@@ -30,30 +66,99 @@ public class NSPMessagingRoute extends ExceptionHandlerRouteBuilder {
     @Value("${sqs.max.no.messages}")
     private int maxNumberOfMessage;
 
+    @Value("${nsp.sqs.waitTimeSeconds:20}")
+    private int waitTimeSeconds;
+
+    @Value("${nsp.post.parallelism:${camel.hystrix.threadpool.coreSize:10}}")
+    private int postParallelism;
+
+    @Value("${nsp.post.maxQueueSize:100}")
+    private int postMaxQueueSize;
+
+    @Value("${nsp.eventContext.name}")
+    private String eventContextName;
+
+    @Value("${nsp.eventContext.type}")
+    private String eventContextType;
+
+    @Value("${nsp.vipName}")
+    private String nspVipName;
+
+    @Value("${nsp.urlSuffix}")
+    private String nspUrlSuffix;
+
+    @Autowired
+    private OutgoingRESTCallRouteConfiguration restCallRouteConfiguration;
+
+    @Autowired
+    private PulseHeadersProcessor pulseHeadersProcessor;
+
+    @Autowired
+    private PulsePOSTPayloadProcessor pulsePOSTPayloadProcessor;
+
+    @Autowired
+    private NspPayloadTranscoder nspPayloadTranscoder;
+
+    @Autowired
+    private SqsBatchAcknowledger sqsBatchAcknowledger;
+
+    @Autowired
+    private NspPipelineMetrics nspPipelineMetrics;
+
+    @Autowired
+    private PayloadLogger payloadLogger;
+
     @Override
     public void configure() throws Exception {
 
-        onException(Exception.class).maximumRedeliveries(maxRedeliveryCount).redeliveryDelay(redeliveryDelayMs)
-                .redeliveryDelay(redeliveryDelayMs).retryAttemptedLogLevel(LoggingLevel.INFO)
+        // Fixed delay between redeliveries, scheduled without blocking the consumer thread
+        initialize(maxRedeliveryCount, redeliveryDelayMs, 1);
+        onExceptionWithNonBlockingRedelivery(Exception.class)
                 .log(LoggingLevel.ERROR,
                         "ErrorType=GeneralException ErrorMsg=Exception occurred in springbootsampleapp while processing the request for id = ${property."
-                                + ApplicationConstants.MESSAGE_ID + "}, moving message to DLQ")
-                .handled(false)
-                .useOriginalMessage()
-                .bean(ExceptionLoggingProcessor.class);
+                                + ApplicationConstants.MESSAGE_ID + "}, leaving message on the queue for redrive")
+                .bean(ExceptionLoggingProcessor.class)
+                .process(nspPipelineMetrics::recordFailed);
 
         String fromUri = "wingtips.aws-sqs://" + nspQueue + "?amazonSQSClient=#amazonSQSClient"
                 + "&concurrentConsumers=" + numberOfConsumers + "&maxMessagesPerPoll=" + maxNumberOfMessage
-                + "&messageAttributeNames=All" + "&deleteAfterRead=true";
+                + "&waitTimeSeconds=" + waitTimeSeconds
+                + "&messageAttributeNames=All" + "&attributeNames=SentTimestamp" + "&deleteAfterRead=false";
+
+        // Keeps connections open between posts, with enough of them for every posting thread
+        String pooledConnectionParameters = "connectionClose=false"
+                + "&connectionsPerRoute=" + postParallelism + "&maxTotalConnections=" + postParallelism;
+
+        includeRoutes(restCallRouteConfiguration.outgoingRESTRouteBuilder(nspVipName, nspUrlSuffix,
+                ApplicationConstants.NSP_POST_CALL_ROUTER, ApplicationConstants.NSP_POST_CALL_ROUTE_ID));
 
         from(fromUri).routeId(ApplicationConstants.NSP_ROUTE_ID)
                 .routeDescription(ApplicationConstants.NSP_ROUTE_DESCRIPTION)
-                .bean(DistributedTraceProcessor.class)
                 .log(LoggingLevel.INFO, "Starting the Event=" + ApplicationConstants.NSP_ROUTE_ID + "  for springbootsampleapp repo")
-                .log(LoggingLevel.INFO, "Event=NspRoute Status=Started Message=SQS Message received = ${body}")
-                .setHeader(ApplicationConstants.MESSAGE_ID, xpath("/shipment/messageID", String.class))
-                .convertBodyTo(String.class, UTF_8)
+                .process(payloadLogger.sampled("Event=NspRoute Status=Started Message=SQS Message received"))
+
+                // The rest of the route runs on the posting pool, the consumer thread moves on to the next message
+                .threads(postParallelism, postParallelism, "NspPost")
+                .maxQueueSize(postMaxQueueSize)
+                .callerRunsWhenRejected(true)
+
+                // Reads the messageID and encodes the document as GZIP_BASE64 event data
+                .process(nspPayloadTranscoder)
+                .bean(XMLEventMetadataSetter.class,
+                        String.format(NSP_EVENT_METADATA_CALL_FORMAT, eventContextName, eventContextType))
+
+                // Signs the request and builds the Pulse payload
+                .setHeader(RouteConstants.PULSE_HTTP_REQUEST_METHOD, constant(RequestMethod.POST))
+                .process(pulseHeadersProcessor)
+                .process(pulsePOSTPayloadProcessor)
+                .marshal().json(JsonLibrary.Jackson)
+
+                .setHeader(OutgoingRESTCallRouteConfiguration.URL_PARAMETERS_SUFFIX, constant(pooledConnectionParameters))
+                .to(ApplicationConstants.NSP_POST_CALL_ROUTER)
+                .removeHeader(OutgoingRESTCallRouteConfiguration.URL_PARAMETERS_SUFFIX)
 
+                .process(sqsBatchAcknowledger.processorFor(nspQueue))
+                .process(nspPipelineMetrics::recordPosted)
 
                 .log(LoggingLevel.INFO, "Event=NspRoute Status=Completed id = ${property." + ApplicationConstants.MESSAGE_ID + "}")
                 .log(LoggingLevel.INFO, "Complete the Event=" + ApplicationConstants.NSP_ROUTE_ID + "  for springbootsampleapp repo")
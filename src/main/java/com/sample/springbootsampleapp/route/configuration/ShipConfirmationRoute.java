@@ -2,20 +2,32 @@ package com.sample.springbootsampleapp.route.configuration;
 
 import com.sample.springbootsampleapp.model.Shipment;
 import com.sample.springbootsampleapp.util.ApplicationConstants;
+import com.sample.routeconfigs.common.RouteConstants;
+import com.sample.routeconfigs.exception.ExceptionHandlerRouteBuilder;
 import com.sample.springbootsampleapp.util.ExceptionLoggingProcessor;
-import com.sample.springbootsampleapp.util.DistributedTraceProcessor;
+import com.sample.springbootsampleapp.util.JaxbRegistry;
+import com.sample.springbootsampleapp.util.PayloadLogger;
+import com.sample.springbootsampleapp.util.SchemaValidationProcessor;
+import com.sample.springbootsampleapp.util.ShipmentLineSplitter;
+import com.sample.springbootsampleapp.util.ShipmentStaxCodec;
+import com.sample.springbootsampleapp.util.StaxUnmarshalProcessor;
+import com.sample.springbootsampleapp.util.TrackingUrlProcessor;
+import com.sample.springbootsampleapp.util.TrackingUrlTemplateEngine;
+import com.sample.springbootsampleapp.util.XmlSchemaRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.camel.LoggingLevel;
-import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.model.OnExceptionDefinition;
+import org.apache.camel.model.RouteDefinition;
+import org.apache.camel.processor.validation.SchemaValidationException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import javax.xml.bind.JAXBContext;
-import org.apache.camel.converter.jaxb.JaxbDataFormat;
-import static com.sample.routeconfigs.common.RouteConstants.UTF_8;
+
+import java.util.LinkedHashMap;
 
 @Slf4j
 @Component
-public class ShipConfirmationRoute extends RouteBuilder {
+public class ShipConfirmationRoute extends ExceptionHandlerRouteBuilder {
 
     @Value("${camel.maxRedeliveryCount:5}")
     private int maxRedeliveryCount;
@@ -23,35 +35,96 @@ public class ShipConfirmationRoute extends RouteBuilder {
     @Value("${camel.redeliveryDelayMs:2000}")
     private long redeliveryDelayMs;
 
+    @Value("${xml.staxCodec.enabled:true}")
+    private boolean staxCodecEnabled;
+
+    @Value("${xml.staxCodec.compact:true}")
+    private boolean staxCodecCompact;
+
+    @Value("${xml.schemaValidation.shipConfirmation.enabled:false}")
+    private boolean schemaValidationEnabled;
+
+    @Value("${shipConfirm.streaming.enabled:false}")
+    private boolean streamingEnabled;
+
+    @Value("${shipConfirm.streaming.chunkSize:100}")
+    private int streamingChunkSize;
+
+    @Value("${sqs.afssapshipconfirm.dlq.queue.name}")
+    private String dlqName;
+
+    @Autowired
+    private JaxbRegistry jaxbRegistry;
+
+    @Autowired
+    private XmlSchemaRegistry xmlSchemaRegistry;
+
+    @Autowired
+    private PayloadLogger payloadLogger;
+
+    @Autowired
+    private TrackingUrlTemplateEngine trackingUrlTemplateEngine;
+
     @Override
     public void configure() throws Exception {
 
-        // XML Data Format
-        JaxbDataFormat xmlDataFormat = new JaxbDataFormat();
-        JAXBContext con = JAXBContext.newInstance(Shipment.class);
-        xmlDataFormat.setContext(con);
+        ShipmentStaxCodec shipmentCodec = staxCodecCompact ? ShipmentStaxCodec.COMPACT : ShipmentStaxCodec.INSTANCE;
+
+        // Unmarshals the shipment and captures its messageID in a single StAX pass
+        StaxUnmarshalProcessor shipmentUnmarshaller = staxCodecEnabled
+                ? new StaxUnmarshalProcessor(shipmentCodec)
+                : new StaxUnmarshalProcessor(jaxbRegistry, Shipment.class);
+
+        // Renders the carrier tracking URL of every container into the trackingUrls property
+        TrackingUrlProcessor trackingUrlProcessor = new TrackingUrlProcessor(trackingUrlTemplateEngine);
+
+        // Documents failing schema validation would fail again on every delivery, so the message is acknowledged and
+        // moved to the DLQ at once rather than left for the queue to redeliver up to its maxReceiveCount
+        OnExceptionDefinition onSchemaValidationException = onException(SchemaValidationException.class)
+                .maximumRedeliveries(0)
+                .handled(true)
+                .useOriginalMessage()
+                .log(LoggingLevel.ERROR,
+                        "ErrorType=SchemaValidationException ErrorMsg=Invalid document received in springbootsampleapp, moving message to DLQ without redelivery")
+                .bean(ExceptionLoggingProcessor.class);
+        configureDlq(onSchemaValidationException, RouteConstants.SQS_SCHEMA + dlqName + RouteConstants.SQS_CLIENT_SUFFIX);
 
-        onException(Exception.class).maximumRedeliveries(maxRedeliveryCount).redeliveryDelay(redeliveryDelayMs)
-                .redeliveryDelay(redeliveryDelayMs).retryAttemptedLogLevel(LoggingLevel.INFO)
+        // Fixed delay between redeliveries, scheduled without blocking the consumer thread
+        initialize(maxRedeliveryCount, redeliveryDelayMs, 1);
+        onExceptionWithNonBlockingRedelivery(Exception.class)
                 .log(LoggingLevel.ERROR,
                         "ErrorType=GeneralException ErrorMsg=Exception occurred in springbootsampleapp while processing the request for id = ${property."
                                 + ApplicationConstants.MESSAGE_ID + "}, moving message to DLQ")
-                .handled(false)
-                .useOriginalMessage()
                 .bean(ExceptionLoggingProcessor.class);
 
 
 
-        from(ApplicationConstants.SHIP_CONFIRM_ROUTER)
+        RouteDefinition route = from(ApplicationConstants.SHIP_CONFIRM_ROUTER)
                 .routeId(ApplicationConstants.SHIP_CONFIRM_ROUTE_ID)
                 .routeDescription(ApplicationConstants.SHIP_CONFIRM_ROUTE_DESCRIPTION)
-                .bean(DistributedTraceProcessor.class)
                 .log(LoggingLevel.INFO, "Starting the Event=" + ApplicationConstants.SHIP_CONFIRM_ROUTE_ID + "  for springbootsampleapp repo")
-                .log(LoggingLevel.INFO, "Event=ShipConfirmRoute Status=Started Message=SQS Message received for ShipConfirmation Events = ${body}")
-                .setProperty(ApplicationConstants.MESSAGE_ID, xpath("/shipment/messageID", String.class))
-                .convertBodyTo(String.class, UTF_8)
-                .unmarshal(xmlDataFormat)
+                .process(payloadLogger.sampled("Event=ShipConfirmRoute Status=Started Message=SQS Message received for ShipConfirmation Events"));
+
+        if (schemaValidationEnabled) {
+            // Rejects documents the model cannot bind before any binding work is done
+            route.process(new SchemaValidationProcessor(xmlSchemaRegistry, Shipment.class));
+        }
+
+        if (streamingEnabled) {
+            // Binds one chunk of lines at a time, the header fields are shared through the shipmentHeader property
+            // and the tracking URLs of all chunks are collected in one map
+            route.process(exchange -> exchange.setProperty(ApplicationConstants.TRACKING_URLS, new LinkedHashMap<String, String>()))
+                    .split(new ShipmentLineSplitter(shipmentCodec, streamingChunkSize)).streaming().stopOnException()
+                    .process(trackingUrlProcessor)
+                    .log(LoggingLevel.DEBUG, "Event=ShipConfirmRoute Status=ChunkProcessed id = ${property."
+                            + ApplicationConstants.MESSAGE_ID + "} ChunkIndex=${property.CamelSplitIndex}")
+                    .end();
+        } else {
+            route.process(shipmentUnmarshaller)
+                    .process(trackingUrlProcessor);
+        }
 
+        route
                 .log(LoggingLevel.INFO, "Event=ShipConfirmRoute Status=Completed id = ${property." + ApplicationConstants.MESSAGE_ID + "}")
                 .log(LoggingLevel.INFO, "Complete the Event=" + ApplicationConstants.SHIP_CONFIRM_ROUTE_ID + "  for springbootsampleapp repo")
 
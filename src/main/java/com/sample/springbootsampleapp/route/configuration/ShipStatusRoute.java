@@ -2,20 +2,27 @@ package com.sample.springbootsampleapp.route.configuration;
 
 import com.sample.springbootsampleapp.model.FulfillmentStatus;
 import com.sample.springbootsampleapp.util.ApplicationConstants;
+import com.sample.routeconfigs.common.RouteConstants;
+import com.sample.routeconfigs.exception.ExceptionHandlerRouteBuilder;
 import com.sample.springbootsampleapp.util.ExceptionLoggingProcessor;
-import com.sample.springbootsampleapp.util.DistributedTraceProcessor;
+import com.sample.springbootsampleapp.util.FulfillmentStatusStaxCodec;
+import com.sample.springbootsampleapp.util.JaxbRegistry;
+import com.sample.springbootsampleapp.util.PayloadLogger;
+import com.sample.springbootsampleapp.util.SchemaValidationProcessor;
+import com.sample.springbootsampleapp.util.StaxUnmarshalProcessor;
+import com.sample.springbootsampleapp.util.XmlSchemaRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.camel.LoggingLevel;
-import org.apache.camel.builder.RouteBuilder;
-import org.apache.camel.converter.jaxb.JaxbDataFormat;
+import org.apache.camel.model.OnExceptionDefinition;
+import org.apache.camel.model.RouteDefinition;
+import org.apache.camel.processor.validation.SchemaValidationException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import javax.xml.bind.JAXBContext;
-import static com.sample.routeconfigs.common.RouteConstants.UTF_8;
 
 @Slf4j
 @Component
-public class ShipStatusRoute extends RouteBuilder {
+public class ShipStatusRoute extends ExceptionHandlerRouteBuilder {
 
     @Value("${camel.maxRedeliveryCount:5}")
     private int maxRedeliveryCount;
@@ -23,33 +30,67 @@ public class ShipStatusRoute extends RouteBuilder {
     @Value("${camel.redeliveryDelayMs:2000}")
     private long redeliveryDelayMs;
 
+    @Value("${xml.staxCodec.enabled:true}")
+    private boolean staxCodecEnabled;
+
+    @Value("${xml.staxCodec.compact:true}")
+    private boolean staxCodecCompact;
+
+    @Value("${xml.schemaValidation.shipStatus.enabled:false}")
+    private boolean schemaValidationEnabled;
+
+    @Value("${sqs.afssapshipconfirm.cancel.dlq.name}")
+    private String dlqName;
+
+    @Autowired
+    private JaxbRegistry jaxbRegistry;
+
+    @Autowired
+    private XmlSchemaRegistry xmlSchemaRegistry;
+
+    @Autowired
+    private PayloadLogger payloadLogger;
+
     @Override
     public void configure() throws Exception {
-        // XML Data Format
-        JaxbDataFormat xmlDataFormat = new JaxbDataFormat();
-        JAXBContext con = JAXBContext.newInstance(FulfillmentStatus.class);
-        xmlDataFormat.setContext(con);
+        // Unmarshals the fulfillment status and captures its messageID in a single StAX pass
+        StaxUnmarshalProcessor fulfillmentStatusUnmarshaller = staxCodecEnabled
+                ? new StaxUnmarshalProcessor(staxCodecCompact ? FulfillmentStatusStaxCodec.COMPACT : FulfillmentStatusStaxCodec.INSTANCE)
+                : new StaxUnmarshalProcessor(jaxbRegistry, FulfillmentStatus.class);
 
-        onException(Exception.class).maximumRedeliveries(maxRedeliveryCount).redeliveryDelay(redeliveryDelayMs)
-                .redeliveryDelay(redeliveryDelayMs).retryAttemptedLogLevel(LoggingLevel.INFO)
+        // Documents failing schema validation would fail again on every delivery, so the message is acknowledged and
+        // moved to the DLQ at once rather than left for the queue to redeliver up to its maxReceiveCount
+        OnExceptionDefinition onSchemaValidationException = onException(SchemaValidationException.class)
+                .maximumRedeliveries(0)
+                .handled(true)
+                .useOriginalMessage()
+                .log(LoggingLevel.ERROR,
+                        "ErrorType=SchemaValidationException ErrorMsg=Invalid document received in springbootsampleapp, moving message to DLQ without redelivery")
+                .bean(ExceptionLoggingProcessor.class);
+        configureDlq(onSchemaValidationException, RouteConstants.SQS_SCHEMA + dlqName + RouteConstants.SQS_CLIENT_SUFFIX);
+
+        // Fixed delay between redeliveries, scheduled without blocking the consumer thread
+        initialize(maxRedeliveryCount, redeliveryDelayMs, 1);
+        onExceptionWithNonBlockingRedelivery(Exception.class)
                 .log(LoggingLevel.ERROR,
                         "ErrorType=GeneralException ErrorMsg=Exception occurred in springbootsampleapp while processing the request for id = ${property."
                                 + ApplicationConstants.MESSAGE_ID + "}, moving message to DLQ")
-                .handled(false)
-                .useOriginalMessage()
                 .bean(ExceptionLoggingProcessor.class);
 
 
 
-        from(ApplicationConstants.SHIP_CANCEL_ROUTER)
+        RouteDefinition route = from(ApplicationConstants.SHIP_CANCEL_ROUTER)
                 .routeId(ApplicationConstants.SHIP_CANCEL_ROUTE_ID)
                 .routeDescription(ApplicationConstants.SHIP_CANCEL_ROUTE_DESCRIPTION)
-                .bean(DistributedTraceProcessor.class)
                 .log(LoggingLevel.INFO, "Starting the Event=" + ApplicationConstants.SHIP_CANCEL_ROUTE_ID + "  for springbootsampleapp repo")
-                .log(LoggingLevel.INFO, "Event=ShipStatus Status=Started Message=SQS Message received for ShipStatus Events = ${body}")
-                .setProperty(ApplicationConstants.MESSAGE_ID, xpath("/fulfillmentStatus/messageID", String.class))
-                .convertBodyTo(String.class, UTF_8)
-                .unmarshal(xmlDataFormat)
+                .process(payloadLogger.sampled("Event=ShipStatus Status=Started Message=SQS Message received for ShipStatus Events"));
+
+        if (schemaValidationEnabled) {
+            // Rejects documents the model cannot bind before any binding work is done
+            route.process(new SchemaValidationProcessor(xmlSchemaRegistry, FulfillmentStatus.class));
+        }
+
+        route.process(fulfillmentStatusUnmarshaller)
 
                 .log(LoggingLevel.INFO, "Event=ShipStatus Status=Completed id = ${property." + ApplicationConstants.MESSAGE_ID + "}")
                 .log(LoggingLevel.INFO, "Complete the Event=" + ApplicationConstants.SHIP_CANCEL_ROUTE_ID + "  for springbootsampleapp repo")
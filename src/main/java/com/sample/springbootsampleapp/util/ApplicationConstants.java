@@ -14,5 +14,9 @@ public class ApplicationConstants {
     public static final String NSP_ROUTER = "direct:" + NSP_ROUTE_ID;
     public static final String NSP_ROUTE_DESCRIPTION = "Router to post messages to NSP";
 
+    public static final String NSP_POST_CALL_ROUTE_ID = "NspPOSTCallRoute";
+    public static final String NSP_POST_CALL_ROUTER = "direct:" + NSP_POST_CALL_ROUTE_ID;
+
     public static final String MESSAGE_ID = "messageID";
+    public static final String TRACKING_URLS = "trackingUrls";
 }
@@ -0,0 +1,40 @@
+package com.sample.springbootsampleapp.util;
+
+/**
+ * Returns a shared instance for repeated short code values (units of measure, statuses, carrier codes, small
+ * quantities), so that a document with thousands of lines does not retain thousands of equal Strings.
+ * <p>
+ * This is a direct-mapped cache rather than String.intern(): a slot holds the last value seen for its hash and a
+ * colliding value simply replaces it, so the cache never grows and values that stop appearing are collected. Slots are
+ * read and written without locking; a lost update only costs a missed share, as Strings are immutable.
+ */
+public final class CodeCanonicalizer {
+
+    private static final int MAX_CODE_LENGTH = 32;
+
+    private final String[] slots;
+    private final int mask;
+
+    /**
+     * @param capacity number of slots, rounded up to a power of two
+     */
+    public CodeCanonicalizer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.slots = new String[size];
+        this.mask = size - 1;
+    }
+
+    public String canonicalize(String value) {
+        if (value == null || value.length() > MAX_CODE_LENGTH) {
+            return value;
+        }
+        int hash = value.hashCode();
+        int index = (hash ^ (hash >>> 16)) & mask;
+        String cached = slots[index];
+        if (value.equals(cached)) {
+            return cached;
+        }
+        slots[index] = value;
+        return value;
+    }
+}
@@ -0,0 +1,156 @@
+package com.sample.springbootsampleapp.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.StreamCache;
+import org.apache.camel.component.file.GenericFile;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deduplicates error logging during incidents.
+ * <p>
+ * Errors are grouped by exception type, route id and HTTP status code. Within each reporting interval only the first
+ * "error.reporting.samplesPerInterval" errors of a group are logged in full; the rest are only counted. At the end of
+ * every interval one aggregated line per group with suppressed errors is logged, and the counts are reset.
+ * <p>
+ * Message bodies included in sampled errors are truncated to "error.reporting.maxBodyLength" characters. Only that
+ * prefix of a String or byte[] body is decoded; streams and files are not read, and other bodies are rendered with
+ * toString() before being truncated.
+ */
+@Slf4j
+@Component
+public class ErrorReporter implements InitializingBean, DisposableBean {
+
+    /**
+     * The count of an entry being removed by report(); record() counts the error in a new entry instead.
+     */
+    private static final long REMOVED = -1;
+
+    private final Map<String, AtomicLong> errorCounts = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+
+    @Value("${error.reporting.intervalSeconds:60}")
+    private long intervalSeconds;
+
+    @Value("${error.reporting.samplesPerInterval:5}")
+    private long samplesPerInterval;
+
+    @Value("${error.reporting.maxBodyLength:512}")
+    private int maxBodyLength;
+
+    /**
+     * Counts an error in its group.
+     *
+     * @return true if this error is part of the sample and should be logged in full
+     */
+    public boolean record(String exceptionType, String routeId, Integer statusCode) {
+        String key = "ExceptionType=" + exceptionType + " RouteId=" + routeId + " StatusCode=" + statusCode;
+        while (true) {
+            AtomicLong count = errorCounts.computeIfAbsent(key, k -> new AtomicLong());
+            long total = count.updateAndGet(current -> current == REMOVED ? REMOVED : current + 1);
+            if (total != REMOVED) {
+                return total <= samplesPerInterval;
+            }
+            errorCounts.remove(key, count);
+        }
+    }
+
+    /**
+     * Returns the body as a String no longer than maxBodyLength, or null for a null body.
+     */
+    public String truncate(Object body) {
+        if (body == null) {
+            return null;
+        }
+        if (body instanceof byte[]) {
+            return truncate((byte[]) body);
+        }
+        if (body instanceof InputStream || body instanceof Reader || body instanceof StreamCache
+                || body instanceof File || body instanceof GenericFile) {
+            // Reading the body here would consume it or load the whole file
+            return "[Body is instance of " + body.getClass().getName() + "]";
+        }
+        CharSequence text = body instanceof CharSequence ? (CharSequence) body : body.toString();
+        if (text.length() <= maxBodyLength) {
+            return text.toString();
+        }
+        return text.subSequence(0, maxBodyLength) + "...(" + (text.length() - maxBodyLength) + " more characters)";
+    }
+
+    private String truncate(byte[] body) {
+        ByteBuffer bytes = ByteBuffer.wrap(body);
+        CharBuffer text = CharBuffer.allocate(maxBodyLength);
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        decoder.decode(bytes, text, true);
+        text.flip();
+        if (!bytes.hasRemaining()) {
+            return text.toString();
+        }
+        return text + "...(" + bytes.remaining() + " more bytes)";
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ErrorReporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::report, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdown();
+        report();
+    }
+
+    private void report() {
+        drainCounts().forEach((key, total) -> {
+            if (total > samplesPerInterval) {
+                log.error("Event=AggregatedErrors {} Count={} Suppressed={} IntervalSeconds={}",
+                        key, total, total - samplesPerInterval, intervalSeconds);
+            }
+        });
+    }
+
+    /**
+     * Resets the count of every group and returns the counts of the groups with errors. Groups without errors since
+     * the last reset are removed.
+     */
+    private Map<String, Long> drainCounts() {
+        Map<String, Long> totals = new HashMap<>();
+        errorCounts.forEach((key, count) -> {
+            long total = count.getAndUpdate(current -> current == REMOVED ? REMOVED : 0);
+            if (total > 0) {
+                totals.put(key, total);
+            }
+            // An idle entry is removed only if no error was counted in it since it was reset
+            if (total == 0 && count.compareAndSet(0, REMOVED)) {
+                errorCounts.remove(key, count);
+            }
+        });
+        return totals;
+    }
+}
@@ -5,6 +5,7 @@ import org.apache.camel.Exchange;
 import org.apache.camel.Processor;
 import org.apache.camel.http.common.HttpOperationFailedException;
 import org.apache.commons.lang.exception.ExceptionUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 /**
@@ -14,6 +15,10 @@ import org.springframework.stereotype.Component;
  * Logs messages of all exception types
  * <p>
  * Where cause is not null, logs message of root cause
+ * <p>
+ * Logging is rate limited by the {@link ErrorReporter}: only a sample of the errors of each exception type, route and
+ * status code is logged in full, the others are counted and reported in aggregate. Message and response bodies are
+ * truncated.
  */
 @Slf4j
 @Component("ExceptionLoggingProcessor")
@@ -22,28 +27,47 @@ public class ExceptionLoggingProcessor implements Processor {
     private static final String EXCEPTION_CAUGHT_MESSAGE = "Camel exception caught: {}";
     private static final String RESPONSE_BODY_MESSAGE = " Response body: {}";
     private static final String CAUSE_EXCEPTION_MESSAGE = " Cause: {}";
+    private static final String MESSAGE_BODY_MESSAGE = " Message body: {}";
+
+    @Autowired
+    private ErrorReporter errorReporter;
 
     @Override
     public void process(Exchange exchange) {
         Exception camelExceptionCaught = (Exception) exchange.getProperty(Exchange.EXCEPTION_CAUGHT);
         Throwable rootCause = ExceptionUtils.getRootCause(camelExceptionCaught);
-        String body = exchange.getIn().getBody().toString();
-        HttpOperationFailedException httpOperationFailedException;
+        HttpOperationFailedException httpOperationFailedException = null;
 
         if (camelExceptionCaught instanceof HttpOperationFailedException) {
             httpOperationFailedException = (HttpOperationFailedException) camelExceptionCaught;
-            log.error(EXCEPTION_CAUGHT_MESSAGE + RESPONSE_BODY_MESSAGE,
-                    httpOperationFailedException, httpOperationFailedException.getResponseBody());
         } else if (rootCause instanceof HttpOperationFailedException) {
             httpOperationFailedException = (HttpOperationFailedException) rootCause;
-            log.error(EXCEPTION_CAUGHT_MESSAGE + CAUSE_EXCEPTION_MESSAGE + RESPONSE_BODY_MESSAGE,
-                    camelExceptionCaught, httpOperationFailedException, httpOperationFailedException.getResponseBody());
+        }
+
+        boolean sampled = errorReporter.record(
+                camelExceptionCaught == null ? null : camelExceptionCaught.getClass().getName(),
+                exchange.getFromRouteId(),
+                httpOperationFailedException == null ? null : httpOperationFailedException.getStatusCode());
+        if (!sampled) {
+            return;
+        }
+
+        String body = errorReporter.truncate(exchange.getIn().getBody());
+
+        if (camelExceptionCaught instanceof HttpOperationFailedException) {
+            log.error(EXCEPTION_CAUGHT_MESSAGE + RESPONSE_BODY_MESSAGE + MESSAGE_BODY_MESSAGE,
+                    httpOperationFailedException, errorReporter.truncate(httpOperationFailedException.getResponseBody()),
+                    body);
+        } else if (httpOperationFailedException != null) {
+            log.error(EXCEPTION_CAUGHT_MESSAGE + CAUSE_EXCEPTION_MESSAGE + RESPONSE_BODY_MESSAGE + MESSAGE_BODY_MESSAGE,
+                    camelExceptionCaught, httpOperationFailedException,
+                    errorReporter.truncate(httpOperationFailedException.getResponseBody()), body);
         } else if (rootCause != null) {
-            log.error(EXCEPTION_CAUGHT_MESSAGE + CAUSE_EXCEPTION_MESSAGE,
-                    camelExceptionCaught, rootCause.toString());
+            log.error(EXCEPTION_CAUGHT_MESSAGE + CAUSE_EXCEPTION_MESSAGE + MESSAGE_BODY_MESSAGE,
+                    camelExceptionCaught, rootCause.toString(), body);
         } else {
-            log.error(EXCEPTION_CAUGHT_MESSAGE,
-                    camelExceptionCaught.toString());
+            log.error(EXCEPTION_CAUGHT_MESSAGE + MESSAGE_BODY_MESSAGE,
+                    String.valueOf(camelExceptionCaught), body);
         }
     }
 }
@@ -0,0 +1,89 @@
+package com.sample.springbootsampleapp.util;
+
+import com.sample.springbootsampleapp.model.FulfillmentStatus;
+import com.sample.springbootsampleapp.model.FulfillmentStatusTarget;
+import org.apache.camel.Converter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Camel type converter from {@link FulfillmentStatus} to {@link FulfillmentStatusTarget}, so that routes can use
+ * .convertBodyTo(FulfillmentStatusTarget.class). It is registered in META-INF/services/org/apache/camel/TypeConverter.
+ * <p>
+ * The mapping is written out field by field, without reflection. Strings are immutable and are shared with the source
+ * instead of copied. Target lists are created with the exact size of the source; absent source lists stay null, as
+ * JAXB leaves them.
+ * <p>
+ * Each lines element and each of its lines maps to one target element, in order. For a line:
+ * <p>
+ * - orderLineKey is the orderLineIdentifier of the source line
+ * - universalProductCode is the one of the first container of the line, or 0 when the line has no container
+ * - productCode and sizeCode have no source and are left null
+ */
+@Converter
+public final class FulfillmentStatusConverter {
+
+    private FulfillmentStatusConverter() {
+    }
+
+    @Converter
+    public static FulfillmentStatusTarget toFulfillmentStatusTarget(FulfillmentStatus source) {
+        FulfillmentStatusTarget target = new FulfillmentStatusTarget();
+        target.setFulfillmentRequestNumber(source.getFulfillmentRequestNumber());
+        target.setTransactionReference(source.getTransactionReference());
+        target.setCreationDate(source.getCreationDate());
+        target.setShipFromLocation(source.getShipFromLocation());
+        target.setSellerOrganizationCode(source.getSellerOrganizationCode());
+        target.setCustomerOrderNumber(source.getCustomerOrderNumber());
+        target.setOrderType(source.getOrderType());
+        target.setTransactionDate(source.getTransactionDate());
+        target.setMessageID(source.getMessageID());
+
+        List<FulfillmentStatus.Lines> sourceLines = source.getLines();
+        if (sourceLines != null) {
+            List<FulfillmentStatusTarget.Lines> targetLines = new ArrayList<>(sourceLines.size());
+            for (int i = 0; i < sourceLines.size(); i++) {
+                targetLines.add(toTargetLines(sourceLines.get(i)));
+            }
+            target.setLines(targetLines);
+        }
+        return target;
+    }
+
+    private static FulfillmentStatusTarget.Lines toTargetLines(FulfillmentStatus.Lines source) {
+        FulfillmentStatusTarget.Lines target = new FulfillmentStatusTarget.Lines();
+        List<FulfillmentStatus.Lines.Line> sourceLine = source.getLine();
+        if (sourceLine != null) {
+            List<FulfillmentStatusTarget.Lines.Line> targetLine = new ArrayList<>(sourceLine.size());
+            for (int i = 0; i < sourceLine.size(); i++) {
+                targetLine.add(toTargetLine(sourceLine.get(i)));
+            }
+            target.setLine(targetLine);
+        }
+        return target;
+    }
+
+    private static FulfillmentStatusTarget.Lines.Line toTargetLine(FulfillmentStatus.Lines.Line source) {
+        FulfillmentStatusTarget.Lines.Line target = new FulfillmentStatusTarget.Lines.Line();
+        target.setLineNumber(source.getLineNumber());
+        target.setOrderLineKey(source.getOrderLineIdentifier());
+        target.setUniversalProductCode(firstUniversalProductCode(source.getContainers()));
+        target.setOrderLineStatus(source.getOrderLineStatus());
+        target.setRejectedQuantity(source.getRejectedQuantity());
+        target.setConfirmedQuantity(source.getConfirmedQuantity());
+        return target;
+    }
+
+    private static int firstUniversalProductCode(List<FulfillmentStatus.Lines.Line.Containers> containers) {
+        if (containers == null) {
+            return 0;
+        }
+        for (FulfillmentStatus.Lines.Line.Containers group : containers) {
+            if (group.getContainer() != null && !group.getContainer().isEmpty()) {
+                return group.getContainer().get(0).getUniversalProductCode();
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,365 @@
+package com.sample.springbootsampleapp.util;
+
+import com.sample.springbootsampleapp.model.FulfillmentStatus;
+import com.sample.springbootsampleapp.model.FulfillmentStatus.ContainerDetails;
+import com.sample.springbootsampleapp.model.FulfillmentStatus.ContainerDetails.ContainerDetail;
+import com.sample.springbootsampleapp.model.FulfillmentStatus.ContainerDetails.ContainerDetail.Dimensions;
+import com.sample.springbootsampleapp.model.FulfillmentStatus.Lines;
+import com.sample.springbootsampleapp.model.FulfillmentStatus.Lines.Line;
+import com.sample.springbootsampleapp.model.FulfillmentStatus.Lines.Line.Containers;
+import com.sample.springbootsampleapp.model.FulfillmentStatus.Lines.Line.Containers.Container;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.util.ArrayList;
+
+/**
+ * {@link StaxCodec} for {@link FulfillmentStatus}. Must be kept in line with the JAXB annotations of the model, which
+ * has no propOrder, so elements are written in field declaration order.
+ */
+public class FulfillmentStatusStaxCodec extends StaxCodec<FulfillmentStatus> {
+
+    public static final FulfillmentStatusStaxCodec INSTANCE = new FulfillmentStatusStaxCodec(false);
+    public static final FulfillmentStatusStaxCodec COMPACT = new FulfillmentStatusStaxCodec(true);
+
+    public FulfillmentStatusStaxCodec(boolean compact) {
+        super(FulfillmentStatus.class, "fulfillmentStatus", compact);
+    }
+
+    @Override
+    protected FulfillmentStatus readRoot(XMLStreamReader reader) throws XMLStreamException {
+        FulfillmentStatus fulfillmentStatus = new FulfillmentStatus();
+        while (nextChild(reader)) {
+            switch (reader.getLocalName()) {
+                case "shipFromLocation":
+                    fulfillmentStatus.setShipFromLocation(readCode(reader));
+                    break;
+                case "sellerOrganizationCode":
+                    fulfillmentStatus.setSellerOrganizationCode(readCode(reader));
+                    break;
+                case "transactionReference":
+                    fulfillmentStatus.setTransactionReference(readText(reader));
+                    break;
+                case "fulfillmentRequestNumber":
+                    fulfillmentStatus.setFulfillmentRequestNumber(readText(reader));
+                    break;
+                case "externalOrderNumber":
+                    fulfillmentStatus.setExternalOrderNumber(readText(reader));
+                    break;
+                case "orderType":
+                    fulfillmentStatus.setOrderType(readCode(reader));
+                    break;
+                case "customerOrderNumber":
+                    fulfillmentStatus.setCustomerOrderNumber(readText(reader));
+                    break;
+                case "creationDate":
+                    fulfillmentStatus.setCreationDate(readText(reader));
+                    break;
+                case "userId":
+                    fulfillmentStatus.setUserId(readCode(reader));
+                    break;
+                case "externalDeliveryNumber":
+                    fulfillmentStatus.setExternalDeliveryNumber(readText(reader));
+                    break;
+                case "messageID":
+                    fulfillmentStatus.setMessageID(readText(reader));
+                    break;
+                case "transactionDate":
+                    fulfillmentStatus.setTransactionDate(readText(reader));
+                    break;
+                case "isCompleteFRUpdate":
+                    fulfillmentStatus.setCompleteFRUpdate(readBoolean(reader));
+                    break;
+                case "fulfillmentStatus":
+                    fulfillmentStatus.setFulfillmentStatus(readCode(reader));
+                    break;
+                case "lines":
+                    if (fulfillmentStatus.getLines() == null) {
+                        fulfillmentStatus.setLines(new ArrayList<>());
+                    }
+                    fulfillmentStatus.getLines().add(readLines(reader));
+                    break;
+                case "containerDetails":
+                    if (fulfillmentStatus.getContainerDetails() == null) {
+                        fulfillmentStatus.setContainerDetails(new ArrayList<>());
+                    }
+                    fulfillmentStatus.getContainerDetails().add(readContainerDetails(reader));
+                    break;
+                case "workOrderNumber":
+                    fulfillmentStatus.setWorkOrderNumber(readText(reader));
+                    break;
+                default:
+                    skip(reader);
+                    break;
+            }
+        }
+        trim(fulfillmentStatus.getLines());
+        trim(fulfillmentStatus.getContainerDetails());
+        return fulfillmentStatus;
+    }
+
+    @Override
+    protected void writeRoot(FulfillmentStatus fulfillmentStatus, XMLStreamWriter writer) throws XMLStreamException {
+        writeText(writer, "shipFromLocation", fulfillmentStatus.getShipFromLocation());
+        writeText(writer, "sellerOrganizationCode", fulfillmentStatus.getSellerOrganizationCode());
+        writeText(writer, "transactionReference", fulfillmentStatus.getTransactionReference());
+        writeText(writer, "fulfillmentRequestNumber", fulfillmentStatus.getFulfillmentRequestNumber());
+        writeText(writer, "externalOrderNumber", fulfillmentStatus.getExternalOrderNumber());
+        writeText(writer, "orderType", fulfillmentStatus.getOrderType());
+        writeText(writer, "customerOrderNumber", fulfillmentStatus.getCustomerOrderNumber());
+        writeText(writer, "creationDate", fulfillmentStatus.getCreationDate());
+        writeText(writer, "userId", fulfillmentStatus.getUserId());
+        writeText(writer, "externalDeliveryNumber", fulfillmentStatus.getExternalDeliveryNumber());
+        writeText(writer, "messageID", fulfillmentStatus.getMessageID());
+        writeText(writer, "transactionDate", fulfillmentStatus.getTransactionDate());
+        writeText(writer, "isCompleteFRUpdate", fulfillmentStatus.isCompleteFRUpdate());
+        writeText(writer, "fulfillmentStatus", fulfillmentStatus.getFulfillmentStatus());
+        if (fulfillmentStatus.getLines() != null) {
+            for (Lines lines : fulfillmentStatus.getLines()) {
+                writer.writeStartElement("lines");
+                writeLines(lines, writer);
+                writer.writeEndElement();
+            }
+        }
+        if (fulfillmentStatus.getContainerDetails() != null) {
+            for (ContainerDetails containerDetails : fulfillmentStatus.getContainerDetails()) {
+                writer.writeStartElement("containerDetails");
+                writeContainerDetails(containerDetails, writer);
+                writer.writeEndElement();
+            }
+        }
+        writeText(writer, "workOrderNumber", fulfillmentStatus.getWorkOrderNumber());
+    }
+
+    private Lines readLines(XMLStreamReader reader) throws XMLStreamException {
+        Lines lines = new Lines();
+        while (nextChild(reader)) {
+            if ("line".equals(reader.getLocalName())) {
+                if (lines.getLine() == null) {
+                    lines.setLine(new ArrayList<>());
+                }
+                lines.getLine().add(readLine(reader));
+            } else {
+                skip(reader);
+            }
+        }
+        trim(lines.getLine());
+        return lines;
+    }
+
+    private void writeLines(Lines lines, XMLStreamWriter writer) throws XMLStreamException {
+        if (lines.getLine() == null) {
+            return;
+        }
+        for (Line line : lines.getLine()) {
+            writer.writeStartElement("line");
+            writeLine(line, writer);
+            writer.writeEndElement();
+        }
+    }
+
+    private Line readLine(XMLStreamReader reader) throws XMLStreamException {
+        Line line = new Line();
+        while (nextChild(reader)) {
+            switch (reader.getLocalName()) {
+                case "orderLineIdentifier":
+                    line.setOrderLineIdentifier(readText(reader));
+                    break;
+                case "lineNumber":
+                    line.setLineNumber(readCode(reader));
+                    break;
+                case "transactionDate":
+                    line.setTransactionDate(readCode(reader));
+                    break;
+                case "confirmedQuantity":
+                    line.setConfirmedQuantity(readCode(reader));
+                    break;
+                case "rejectedQuantity":
+                    line.setRejectedQuantity(readCode(reader));
+                    break;
+                case "reasonText":
+                    line.setReasonText(readText(reader));
+                    break;
+                case "externalDeliveryLineNumber":
+                    line.setExternalDeliveryLineNumber(readText(reader));
+                    break;
+                case "orderLineStatus":
+                    line.setOrderLineStatus(readCode(reader));
+                    break;
+                case "storageType":
+                    line.setStorageType(readCode(reader));
+                    break;
+                case "containers":
+                    if (line.getContainers() == null) {
+                        line.setContainers(new ArrayList<>());
+                    }
+                    line.getContainers().add(readContainers(reader));
+                    break;
+                default:
+                    skip(reader);
+                    break;
+            }
+        }
+        trim(line.getContainers());
+        return line;
+    }
+
+    private void writeLine(Line line, XMLStreamWriter writer) throws XMLStreamException {
+        writeText(writer, "orderLineIdentifier", line.getOrderLineIdentifier());
+        writeText(writer, "lineNumber", line.getLineNumber());
+        writeText(writer, "transactionDate", line.getTransactionDate());
+        writeText(writer, "confirmedQuantity", line.getConfirmedQuantity());
+        writeText(writer, "rejectedQuantity", line.getRejectedQuantity());
+        writeText(writer, "reasonText", line.getReasonText());
+        writeText(writer, "externalDeliveryLineNumber", line.getExternalDeliveryLineNumber());
+        writeText(writer, "orderLineStatus", line.getOrderLineStatus());
+        writeText(writer, "storageType", line.getStorageType());
+        if (line.getContainers() != null) {
+            for (Containers containers : line.getContainers()) {
+                writer.writeStartElement("containers");
+                writeContainers(containers, writer);
+                writer.writeEndElement();
+            }
+        }
+    }
+
+    private Containers readContainers(XMLStreamReader reader) throws XMLStreamException {
+        Containers containers = new Containers();
+        while (nextChild(reader)) {
+            if ("container".equals(reader.getLocalName())) {
+                if (containers.getContainer() == null) {
+                    containers.setContainer(new ArrayList<>());
+                }
+                containers.getContainer().add(readContainer(reader));
+            } else {
+                skip(reader);
+            }
+        }
+        trim(containers.getContainer());
+        return containers;
+    }
+
+    private void writeContainers(Containers containers, XMLStreamWriter writer) throws XMLStreamException {
+        if (containers.getContainer() == null) {
+            return;
+        }
+        for (Container container : containers.getContainer()) {
+            writer.writeStartElement("container");
+            writeText(writer, "number", container.getNumber());
+            writeText(writer, "quantity", container.getQuantity());
+            writeText(writer, "trackingNumber", container.getTrackingNumber());
+            writeText(writer, "universalProductCode", container.getUniversalProductCode());
+            writer.writeEndElement();
+        }
+    }
+
+    private Container readContainer(XMLStreamReader reader) throws XMLStreamException {
+        Container container = new Container();
+        while (nextChild(reader)) {
+            switch (reader.getLocalName()) {
+                case "number":
+                    container.setNumber(readText(reader));
+                    break;
+                case "quantity":
+                    container.setQuantity(readCode(reader));
+                    break;
+                case "trackingNumber":
+                    container.setTrackingNumber(readText(reader));
+                    break;
+                case "universalProductCode":
+                    container.setUniversalProductCode(readInt(reader));
+                    break;
+                default:
+                    skip(reader);
+                    break;
+            }
+        }
+        return container;
+    }
+
+    private ContainerDetails readContainerDetails(XMLStreamReader reader) throws XMLStreamException {
+        ContainerDetails containerDetails = new ContainerDetails();
+        while (nextChild(reader)) {
+            if ("containerDetail".equals(reader.getLocalName())) {
+                containerDetails.getContainerDetail().add(readContainerDetail(reader));
+            } else {
+                skip(reader);
+            }
+        }
+        trim(containerDetails.getContainerDetail());
+        return containerDetails;
+    }
+
+    private void writeContainerDetails(ContainerDetails containerDetails, XMLStreamWriter writer)
+            throws XMLStreamException {
+        for (ContainerDetail containerDetail : containerDetails.getContainerDetail()) {
+            writer.writeStartElement("containerDetail");
+            if (containerDetail.getDimensions() != null) {
+                writer.writeStartElement("dimensions");
+                writeDimensions(containerDetail.getDimensions(), writer);
+                writer.writeEndElement();
+            }
+            writer.writeEndElement();
+        }
+    }
+
+    private ContainerDetail readContainerDetail(XMLStreamReader reader) throws XMLStreamException {
+        ContainerDetail containerDetail = new ContainerDetail();
+        while (nextChild(reader)) {
+            if ("dimensions".equals(reader.getLocalName())) {
+                containerDetail.setDimensions(readDimensions(reader));
+            } else {
+                skip(reader);
+            }
+        }
+        return containerDetail;
+    }
+
+    private Dimensions readDimensions(XMLStreamReader reader) throws XMLStreamException {
+        Dimensions dimensions = new Dimensions();
+        while (nextChild(reader)) {
+            switch (reader.getLocalName()) {
+                case "grossWeight":
+                    dimensions.setGrossWeight(readDouble(reader));
+                    break;
+                case "height":
+                    dimensions.setHeight(readDouble(reader));
+                    break;
+                case "length":
+                    dimensions.setLength(readDouble(reader));
+                    break;
+                case "linearUnitOfMeasure":
+                    dimensions.setLinearUnitOfMeasure(readCode(reader));
+                    break;
+                case "netWeight":
+                    dimensions.setNetWeight(readDouble(reader));
+                    break;
+                case "number":
+                    dimensions.setNumber(readText(reader));
+                    break;
+                case "weightUnitOfMeasure":
+                    dimensions.setWeightUnitOfMeasure(readCode(reader));
+                    break;
+                case "width":
+                    dimensions.setWidth(readDouble(reader));
+                    break;
+                default:
+                    skip(reader);
+                    break;
+            }
+        }
+        return dimensions;
+    }
+
+    private void writeDimensions(Dimensions dimensions, XMLStreamWriter writer) throws XMLStreamException {
+        writeText(writer, "grossWeight", dimensions.getGrossWeight());
+        writeText(writer, "height", dimensions.getHeight());
+        writeText(writer, "length", dimensions.getLength());
+        writeText(writer, "linearUnitOfMeasure", dimensions.getLinearUnitOfMeasure());
+        writeText(writer, "netWeight", dimensions.getNetWeight());
+        writeText(writer, "number", dimensions.getNumber());
+        writeText(writer, "weightUnitOfMeasure", dimensions.getWeightUnitOfMeasure());
+        writeText(writer, "width", dimensions.getWidth());
+    }
+}
@@ -0,0 +1,113 @@
+package com.sample.springbootsampleapp.util;
+
+import com.sample.springbootsampleapp.model.FulfillmentStatus;
+import com.sample.springbootsampleapp.model.FulfillmentStatusTarget;
+import com.sample.springbootsampleapp.model.Shipment;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.transform.stream.StreamSource;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Shared JAXB infrastructure for the XML models.
+ * <p>
+ * One JAXBContext per model class is created at startup, instead of one per route configure() call, and pre-warmed by
+ * marshalling and unmarshalling a synthetic document so that the first messages do not pay for JAXB's lazy
+ * initialization. Context creation and warm-up times are logged.
+ * <p>
+ * Unmarshallers and marshallers are not thread-safe and are comparatively expensive to create, so they are pooled per
+ * model class. Always return a borrowed instance with the matching release method, for example:
+ * <p>
+ * Unmarshaller unmarshaller = jaxbRegistry.acquireUnmarshaller(Shipment.class);
+ * try {
+ *     ...
+ * } finally {
+ *     jaxbRegistry.releaseUnmarshaller(Shipment.class, unmarshaller);
+ * }
+ * <p>
+ * At most "jaxb.pool.maxIdle" idle instances are kept per model class; under higher concurrency extra instances are
+ * created and discarded on release.
+ */
+@Slf4j
+@Component
+public class JaxbRegistry implements InitializingBean {
+
+    private static final Class<?>[] MODEL_CLASSES = {Shipment.class, FulfillmentStatus.class, FulfillmentStatusTarget.class};
+
+    private final Map<Class<?>, JAXBContext> contexts = new HashMap<>();
+    private final Map<Class<?>, BlockingQueue<Unmarshaller>> unmarshallerPools = new HashMap<>();
+    private final Map<Class<?>, BlockingQueue<Marshaller>> marshallerPools = new HashMap<>();
+
+    @Value("${jaxb.pool.maxIdle:16}")
+    private int maxIdle;
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        for (Class<?> modelClass : MODEL_CLASSES) {
+            long start = System.nanoTime();
+            contexts.put(modelClass, JAXBContext.newInstance(modelClass));
+            unmarshallerPools.put(modelClass, new ArrayBlockingQueue<>(maxIdle));
+            marshallerPools.put(modelClass, new ArrayBlockingQueue<>(maxIdle));
+            long created = System.nanoTime();
+            warmUp(modelClass);
+            long warmed = System.nanoTime();
+            log.info("Event=JaxbRegistry Model={} ContextCreationMs={} WarmUpMs={}", modelClass.getSimpleName(),
+                    (created - start) / 1_000_000, (warmed - created) / 1_000_000);
+        }
+    }
+
+    public JAXBContext getContext(Class<?> modelClass) {
+        JAXBContext context = contexts.get(modelClass);
+        if (context == null) {
+            throw new IllegalArgumentException("No JAXBContext registered for " + modelClass.getName());
+        }
+        return context;
+    }
+
+    public Unmarshaller acquireUnmarshaller(Class<?> modelClass) throws JAXBException {
+        Unmarshaller unmarshaller = unmarshallerPools.get(modelClass).poll();
+        return unmarshaller != null ? unmarshaller : getContext(modelClass).createUnmarshaller();
+    }
+
+    public void releaseUnmarshaller(Class<?> modelClass, Unmarshaller unmarshaller) {
+        unmarshallerPools.get(modelClass).offer(unmarshaller);
+    }
+
+    public Marshaller acquireMarshaller(Class<?> modelClass) throws JAXBException {
+        Marshaller marshaller = marshallerPools.get(modelClass).poll();
+        return marshaller != null ? marshaller : getContext(modelClass).createMarshaller();
+    }
+
+    public void releaseMarshaller(Class<?> modelClass, Marshaller marshaller) {
+        marshallerPools.get(modelClass).offer(marshaller);
+    }
+
+    /**
+     * Marshals an empty instance of the model and unmarshals the result, which initializes JAXB's accessors and fills
+     * the pools with one marshaller and one unmarshaller.
+     */
+    private void warmUp(Class<?> modelClass) throws Exception {
+        Marshaller marshaller = acquireMarshaller(modelClass);
+        Unmarshaller unmarshaller = acquireUnmarshaller(modelClass);
+        try {
+            StringWriter document = new StringWriter();
+            marshaller.marshal(modelClass.getDeclaredConstructor().newInstance(), document);
+            unmarshaller.unmarshal(new StreamSource(new StringReader(document.toString())), modelClass);
+        } finally {
+            releaseMarshaller(modelClass, marshaller);
+            releaseUnmarshaller(modelClass, unmarshaller);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.sample.springbootsampleapp.util;
+
+import com.sample.routeconfigs.common.model.pulse.EventContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.Message;
+import org.apache.camel.Processor;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Turns a shipment document consumed from the NSP queue into the GZIP_BASE64 event data posted to NSP.
+ * <p>
+ * The messageID is read with a StAX cursor that stops at the messageID element, instead of building a DOM for an
+ * xpath, and set as the {@link ApplicationConstants#MESSAGE_ID} header and property and as the Pulse business key.
+ * <p>
+ * The document is then written through a GZIP stream into a Base64 encoding stream in a single pass, so that neither
+ * the UTF-8 bytes of the document nor the compressed bytes are materialized on their own, as they are with
+ * marshal().gzip().marshal().base64().
+ */
+@Component
+public class NspPayloadTranscoder implements Processor {
+
+    private static final String MESSAGE_ID_ELEMENT = "messageID";
+    private static final int BUFFER_SIZE = 8192;
+
+    @Override
+    public void process(Exchange exchange) throws Exception {
+        Message in = exchange.getIn();
+        String document = in.getMandatoryBody(String.class);
+
+        String messageId = extractMessageId(document);
+        in.setHeader(ApplicationConstants.MESSAGE_ID, messageId);
+        exchange.setProperty(ApplicationConstants.MESSAGE_ID, messageId);
+        in.setHeader(EventContext.BUSINESS_KEY_NAME, ApplicationConstants.MESSAGE_ID);
+        in.setHeader(EventContext.BUSINESS_KEY_VALUE, messageId);
+
+        in.setBody(encode(document));
+    }
+
+    /**
+     * Returns the text of the first messageID child of the root element, or null if there is none.
+     */
+    static String extractMessageId(String document) throws XMLStreamException {
+        XMLStreamReader reader = StaxCodec.XML_INPUT_FACTORY.createXMLStreamReader(new StringReader(document));
+        try {
+            if (reader.nextTag() != XMLStreamConstants.START_ELEMENT) {
+                return null;
+            }
+            while (StaxCodec.nextChild(reader)) {
+                if (MESSAGE_ID_ELEMENT.equals(reader.getLocalName())) {
+                    return reader.getElementText().trim();
+                }
+                StaxCodec.skip(reader);
+            }
+            return null;
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Returns the document gzipped and Base64 encoded.
+     */
+    static String encode(String document) throws IOException {
+        // Shipment XML compresses well, so this is usually large enough to avoid growing the buffer
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream(Math.max(256, document.length() / 4));
+        try (Writer writer = new OutputStreamWriter(
+                new GZIPOutputStream(Base64.getEncoder().wrap(encoded), BUFFER_SIZE), StandardCharsets.UTF_8)) {
+            writer.write(document);
+        }
+        return new String(encoded.toByteArray(), StandardCharsets.US_ASCII);
+    }
+}
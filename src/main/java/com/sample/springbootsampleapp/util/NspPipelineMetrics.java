@@ -0,0 +1,68 @@
+package com.sample.springbootsampleapp.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.camel.Exchange;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end metrics of the NSP delivery pipeline.
+ * <p>
+ * - nsp.pipeline.processing - from the consumption of the SQS message to the end of the NSP post
+ * - nsp.pipeline.endToEnd - from the SentTimestamp of the SQS message to the end of the NSP post, which includes the
+ * time spent waiting in the queue
+ * <p>
+ * Both timers are tagged with outcome=posted or outcome=failed, so their counts are also the message counts.
+ * The SentTimestamp is only known when the consumer requests the SentTimestamp attribute.
+ */
+@Component
+public class NspPipelineMetrics {
+
+    private static final String SQS_ATTRIBUTES = "CamelAwsSqsAttributes";
+    private static final String SENT_TIMESTAMP = "SentTimestamp";
+
+    private final Timer postedProcessingTimer;
+    private final Timer failedProcessingTimer;
+    private final Timer postedEndToEndTimer;
+    private final Timer failedEndToEndTimer;
+
+    @Autowired
+    public NspPipelineMetrics(MeterRegistry meterRegistry) {
+        this.postedProcessingTimer = meterRegistry.timer("nsp.pipeline.processing", "outcome", "posted");
+        this.failedProcessingTimer = meterRegistry.timer("nsp.pipeline.processing", "outcome", "failed");
+        this.postedEndToEndTimer = meterRegistry.timer("nsp.pipeline.endToEnd", "outcome", "posted");
+        this.failedEndToEndTimer = meterRegistry.timer("nsp.pipeline.endToEnd", "outcome", "failed");
+    }
+
+    public void recordPosted(Exchange exchange) {
+        record(exchange, postedProcessingTimer, postedEndToEndTimer);
+    }
+
+    public void recordFailed(Exchange exchange) {
+        record(exchange, failedProcessingTimer, failedEndToEndTimer);
+    }
+
+    private void record(Exchange exchange, Timer processingTimer, Timer endToEndTimer) {
+        long now = System.currentTimeMillis();
+
+        Date created = exchange.getProperty(Exchange.CREATED_TIMESTAMP, Date.class);
+        if (created != null) {
+            processingTimer.record(now - created.getTime(), TimeUnit.MILLISECONDS);
+        }
+
+        Map<?, ?> attributes = exchange.getIn().getHeader(SQS_ATTRIBUTES, Map.class);
+        Object sentTimestamp = attributes != null ? attributes.get(SENT_TIMESTAMP) : null;
+        if (sentTimestamp != null) {
+            try {
+                endToEndTimer.record(now - Long.parseLong(sentTimestamp.toString()), TimeUnit.MILLISECONDS);
+            } catch (NumberFormatException e) {
+                // Not an SQS timestamp, nothing to record
+            }
+        }
+    }
+}
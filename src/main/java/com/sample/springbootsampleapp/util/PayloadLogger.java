@@ -0,0 +1,53 @@
+package com.sample.springbootsampleapp.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.Processor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logs message payloads for a sample of the exchanges, instead of logging ${body} for every one of them.
+ * <p>
+ * One exchange in "payload.logging.sampleRate" has its payload logged by {@link #sampled(String)} (1 logs every
+ * exchange, 0 none). Whether an exchange is part of the sample is decided before the body is read, so the payload is
+ * neither converted to a String nor copied for the other exchanges. Payloads are truncated to
+ * "payload.logging.maxLength" characters.
+ * <p>
+ * The payload of failed exchanges is logged, rate limited, by the {@link ExceptionLoggingProcessor} of the exception
+ * handlers.
+ */
+@Slf4j
+@Component("PayloadLogger")
+public class PayloadLogger {
+
+    @Value("${payload.logging.sampleRate:100}")
+    private int sampleRate;
+
+    @Value("${payload.logging.maxLength:1024}")
+    private int maxLength;
+
+    /**
+     * Returns a processor logging the payload of sampled exchanges at INFO, as "message = payload".
+     *
+     * @param message
+     * @return
+     */
+    public Processor sampled(String message) {
+        return exchange -> {
+            if (sampleRate <= 0 || !log.isInfoEnabled()
+                    || (sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0)) {
+                return;
+            }
+            log.info("{} = {}", message, truncate(exchange.getIn().getBody(String.class)));
+        };
+    }
+
+    private String truncate(String payload) {
+        if (payload == null || payload.length() <= maxLength) {
+            return payload;
+        }
+        return payload.substring(0, maxLength) + "...(" + (payload.length() - maxLength) + " more characters)";
+    }
+}
@@ -0,0 +1,61 @@
+package com.sample.springbootsampleapp.util;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.processor.validation.SchemaValidationException;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.transform.sax.SAXSource;
+import javax.xml.validation.Validator;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Collections;
+
+/**
+ * Validates the XML body of the exchange against the compiled schema of the given model class, so that documents the
+ * model cannot bind are rejected before any binding or downstream work is done.
+ * <p>
+ * The body is validated in a single streaming SAX pass; no DOM is built. It is parsed by a pooled reader of the
+ * {@link XmlSchemaRegistry}, which rejects documents with a DOCTYPE. A StAXSource is not used, as the JDK validator
+ * bridges it to SAX through an identity transformation, which costs more than parsing the text directly.
+ * <p>
+ * Validation stops at the first error, which is thrown as a {@link SchemaValidationException}. The body is left as a
+ * String, ready to be unmarshalled.
+ */
+public class SchemaValidationProcessor implements Processor {
+
+    private final XmlSchemaRegistry xmlSchemaRegistry;
+    private final Class<?> modelClass;
+
+    public SchemaValidationProcessor(XmlSchemaRegistry xmlSchemaRegistry, Class<?> modelClass) {
+        this.xmlSchemaRegistry = xmlSchemaRegistry;
+        this.modelClass = modelClass;
+    }
+
+    @Override
+    public void process(Exchange exchange) throws Exception {
+        String body = exchange.getIn().getMandatoryBody(String.class);
+        exchange.getIn().setBody(body);
+
+        Validator validator = xmlSchemaRegistry.acquireValidator(modelClass);
+        XMLReader reader = xmlSchemaRegistry.acquireReader();
+        try {
+            validator.validate(new SAXSource(reader, new InputSource(new StringReader(body))));
+        } catch (SAXParseException e) {
+            throw validationException(exchange, e);
+        } catch (SAXException | IOException e) {
+            throw validationException(exchange, new SAXParseException(e.getMessage(), null, null, -1, -1, e));
+        } finally {
+            xmlSchemaRegistry.releaseReader(reader);
+            xmlSchemaRegistry.releaseValidator(modelClass, validator);
+        }
+    }
+
+    private SchemaValidationException validationException(Exchange exchange, SAXParseException error) {
+        return new SchemaValidationException(exchange, xmlSchemaRegistry.getSchema(modelClass),
+                Collections.emptyList(), Collections.singletonList(error), Collections.emptyList());
+    }
+}
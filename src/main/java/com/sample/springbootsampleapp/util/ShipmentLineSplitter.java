@@ -0,0 +1,161 @@
+package com.sample.springbootsampleapp.util;
+
+import com.sample.springbootsampleapp.model.Shipment;
+import org.apache.camel.Exchange;
+import org.apache.camel.support.ExpressionAdapter;
+import org.apache.camel.util.ObjectHelper;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.Closeable;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Split expression iterating the lines of a shipment document with a StAX cursor, for use with a streaming splitter:
+ * <p>
+ * .split(new ShipmentLineSplitter(ShipmentStaxCodec.COMPACT, 100)).streaming()
+ * <p>
+ * Each split exchange gets a List of at most chunkSize {@link Shipment.Lines.Line} as body, so only one chunk of lines
+ * is bound at a time, whatever the size of the shipment.
+ * <p>
+ * The elements before lines are read when the expression is evaluated, into a Shipment without lines which is set in
+ * the {@link #SHIPMENT_HEADER} exchange property and shared by all split exchanges. The messageID is set in the
+ * {@link ApplicationConstants#MESSAGE_ID} property. Elements after lines, such as containerDetails, are read into the
+ * same Shipment once the last line has been read, so they are only available after the split.
+ */
+public class ShipmentLineSplitter extends ExpressionAdapter {
+
+    public static final String SHIPMENT_HEADER = "shipmentHeader";
+
+    private static final String LINES_ELEMENT = "lines";
+    private static final String LINE_ELEMENT = "line";
+    private static final String MESSAGE_ID_ELEMENT = "messageID";
+
+    private final ShipmentStaxCodec codec;
+    private final int chunkSize;
+
+    public ShipmentLineSplitter(ShipmentStaxCodec codec, int chunkSize) {
+        this.codec = codec;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    @Override
+    public Object evaluate(Exchange exchange) {
+        try {
+            Object body = exchange.getIn().getBody();
+            XMLStreamReader reader = body instanceof String
+                    ? StaxCodec.XML_INPUT_FACTORY.createXMLStreamReader(new StringReader((String) body))
+                    : StaxCodec.XML_INPUT_FACTORY.createXMLStreamReader(exchange.getIn().getMandatoryBody(InputStream.class));
+
+            LineIterator lineIterator = new LineIterator(reader);
+            lineIterator.readHeader(exchange);
+            return lineIterator;
+        } catch (Exception e) {
+            throw ObjectHelper.wrapRuntimeCamelException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ShipmentLineSplitter[chunkSize=" + chunkSize + "]";
+    }
+
+    private final class LineIterator implements Iterator<List<Shipment.Lines.Line>>, Closeable {
+
+        private final XMLStreamReader reader;
+        private final Shipment header = new Shipment();
+        private boolean inLines;
+        private List<Shipment.Lines.Line> chunk;
+
+        private LineIterator(XMLStreamReader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * Reads the root children up to the lines element.
+         */
+        private void readHeader(Exchange exchange) throws XMLStreamException {
+            if (reader.nextTag() != XMLStreamConstants.START_ELEMENT
+                    || !codec.getRootElement().equals(reader.getLocalName())) {
+                throw new XMLStreamException("Expected root element <" + codec.getRootElement() + ">",
+                        reader.getLocation());
+            }
+            exchange.removeProperty(ApplicationConstants.MESSAGE_ID);
+            while (StaxCodec.nextChild(reader)) {
+                if (LINES_ELEMENT.equals(reader.getLocalName())) {
+                    inLines = true;
+                    break;
+                } else if (MESSAGE_ID_ELEMENT.equals(reader.getLocalName())) {
+                    // Set right away, so that the error handler can log it if the rest of the document fails
+                    exchange.setProperty(ApplicationConstants.MESSAGE_ID, reader.getElementText().trim());
+                } else {
+                    codec.readRootChild(header, reader);
+                }
+            }
+            exchange.setProperty(SHIPMENT_HEADER, header);
+            if (!inLines) {
+                close();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (chunk == null && inLines) {
+                try {
+                    chunk = readChunk();
+                } catch (XMLStreamException e) {
+                    close();
+                    throw ObjectHelper.wrapRuntimeCamelException(e);
+                }
+            }
+            return chunk != null && !chunk.isEmpty();
+        }
+
+        @Override
+        public List<Shipment.Lines.Line> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            List<Shipment.Lines.Line> next = chunk;
+            chunk = null;
+            return next;
+        }
+
+        private List<Shipment.Lines.Line> readChunk() throws XMLStreamException {
+            List<Shipment.Lines.Line> lines = new ArrayList<>(chunkSize);
+            while (lines.size() < chunkSize) {
+                if (!StaxCodec.nextChild(reader)) {
+                    // End of the lines element; the rest of the document belongs to the header
+                    inLines = false;
+                    while (StaxCodec.nextChild(reader)) {
+                        codec.readRootChild(header, reader);
+                    }
+                    close();
+                    break;
+                }
+                if (LINE_ELEMENT.equals(reader.getLocalName())) {
+                    lines.add(codec.readLine(reader));
+                } else {
+                    StaxCodec.skip(reader);
+                }
+            }
+            return lines;
+        }
+
+        @Override
+        public void close() {
+            inLines = false;
+            try {
+                reader.close();
+            } catch (XMLStreamException e) {
+                // Nothing left to read
+            }
+        }
+    }
+}
@@ -0,0 +1,562 @@
+package com.sample.springbootsampleapp.util;
+
+import com.sample.springbootsampleapp.model.Shipment;
+import com.sample.springbootsampleapp.model.Shipment.ContainerDetails;
+import com.sample.springbootsampleapp.model.Shipment.ContainerDetails.ContainerDetail;
+import com.sample.springbootsampleapp.model.Shipment.ContainerDetails.ContainerDetail.Dimensions;
+import com.sample.springbootsampleapp.model.Shipment.Lines;
+import com.sample.springbootsampleapp.model.Shipment.Lines.Line;
+import com.sample.springbootsampleapp.model.Shipment.Lines.Line.Containers;
+import com.sample.springbootsampleapp.model.Shipment.Lines.Line.Containers.Container;
+import com.sample.springbootsampleapp.model.Shipment.Lines.Line.Containers.Container.ExternalDeliveryDetails;
+import com.sample.springbootsampleapp.model.Shipment.Lines.Line.Containers.Container.ExternalDeliveryDetails.ExternalDeliveryDetail;
+import com.sample.springbootsampleapp.model.Shipment.Lines.Line.SerialNumbers;
+import com.sample.springbootsampleapp.model.Shipment.ShipTo;
+import com.sample.springbootsampleapp.model.Shipment.ShipTo.Address;
+import com.sample.springbootsampleapp.model.Shipment.ShipTo.ContactInformation;
+import com.sample.springbootsampleapp.model.Shipment.ShipTo.Recipient;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.util.ArrayList;
+
+/**
+ * {@link StaxCodec} for {@link Shipment}. Must be kept in line with the JAXB annotations of the model.
+ */
+public class ShipmentStaxCodec extends StaxCodec<Shipment> {
+
+    public static final ShipmentStaxCodec INSTANCE = new ShipmentStaxCodec(false);
+    public static final ShipmentStaxCodec COMPACT = new ShipmentStaxCodec(true);
+
+    public ShipmentStaxCodec(boolean compact) {
+        super(Shipment.class, "shipment", compact);
+    }
+
+    @Override
+    protected Shipment readRoot(XMLStreamReader reader) throws XMLStreamException {
+        Shipment shipment = new Shipment();
+        while (nextChild(reader)) {
+            readRootChild(shipment, reader);
+        }
+        return shipment;
+    }
+
+    /**
+     * Reads the child of the root element the reader is on into the shipment.
+     */
+    void readRootChild(Shipment shipment, XMLStreamReader reader) throws XMLStreamException {
+        switch (reader.getLocalName()) {
+            case "actualShipmentDate":
+                shipment.setActualShipmentDate(readText(reader));
+                break;
+            case "billOfLading":
+                shipment.setBillOfLading(readText(reader));
+                break;
+            case "orderClassification":
+                shipment.setOrderClassification(readCode(reader));
+                break;
+            case "fulfillmentRequestNumber":
+                shipment.setFulfillmentRequestNumber(readText(reader));
+                break;
+            case "sellerOrganizationCode":
+                shipment.setSellerOrganizationCode(readCode(reader));
+                break;
+            case "shipFromLocation":
+                shipment.setShipFromLocation(readCode(reader));
+                break;
+            case "shippingMethod":
+                shipment.setShippingMethod(readCode(reader));
+                break;
+            case "standardizedActualShippingMethod":
+                shipment.setStandardizedActualShippingMethod(readCode(reader));
+                break;
+            case "shortShipFlag":
+                shipment.setShortShipFlag(readBoolean(reader));
+                break;
+            case "splitShipFlag":
+                shipment.setSplitShipFlag(readCode(reader));
+                break;
+            case "standardCarrierAlphaCode":
+                shipment.setStandardCarrierAlphaCode(readCode(reader));
+                break;
+            case "workOrderNumber":
+                shipment.setWorkOrderNumber(readText(reader));
+                break;
+            case "countryOfOrigin":
+                shipment.setCountryOfOrigin(readCode(reader));
+                break;
+            case "shipTo":
+                shipment.setShipTo(readShipTo(reader));
+                break;
+            case "lines":
+                shipment.setLines(readLines(reader));
+                break;
+            case "containerDetails":
+                shipment.setContainerDetails(readContainerDetails(reader));
+                break;
+            default:
+                skip(reader);
+                break;
+        }
+    }
+
+    @Override
+    protected void writeRoot(Shipment shipment, XMLStreamWriter writer) throws XMLStreamException {
+        writeText(writer, "actualShipmentDate", shipment.getActualShipmentDate());
+        writeText(writer, "billOfLading", shipment.getBillOfLading());
+        writeText(writer, "orderClassification", shipment.getOrderClassification());
+        writeText(writer, "fulfillmentRequestNumber", shipment.getFulfillmentRequestNumber());
+        writeText(writer, "sellerOrganizationCode", shipment.getSellerOrganizationCode());
+        writeText(writer, "shipFromLocation", shipment.getShipFromLocation());
+        writeText(writer, "shippingMethod", shipment.getShippingMethod());
+        writeText(writer, "standardizedActualShippingMethod", shipment.getStandardizedActualShippingMethod());
+        writeText(writer, "shortShipFlag", shipment.getShortShipFlag());
+        writeText(writer, "splitShipFlag", shipment.getSplitShipFlag());
+        writeText(writer, "standardCarrierAlphaCode", shipment.getStandardCarrierAlphaCode());
+        writeText(writer, "workOrderNumber", shipment.getWorkOrderNumber());
+        writeText(writer, "countryOfOrigin", shipment.getCountryOfOrigin());
+        if (shipment.getShipTo() != null) {
+            writer.writeStartElement("shipTo");
+            writeShipTo(shipment.getShipTo(), writer);
+            writer.writeEndElement();
+        }
+        if (shipment.getLines() != null) {
+            writer.writeStartElement("lines");
+            writeLines(shipment.getLines(), writer);
+            writer.writeEndElement();
+        }
+        if (shipment.getContainerDetails() != null) {
+            writer.writeStartElement("containerDetails");
+            writeContainerDetails(shipment.getContainerDetails(), writer);
+            writer.writeEndElement();
+        }
+    }
+
+    private ShipTo readShipTo(XMLStreamReader reader) throws XMLStreamException {
+        ShipTo shipTo = new ShipTo();
+        while (nextChild(reader)) {
+            switch (reader.getLocalName()) {
+                case "address":
+                    shipTo.setAddress(readAddress(reader));
+                    break;
+                case "contactInformation":
+                    shipTo.setContactInformation(readContactInformation(reader));
+                    break;
+                case "recipient":
+                    shipTo.setRecipient(readRecipient(reader));
+                    break;
+                default:
+                    skip(reader);
+                    break;
+            }
+        }
+        return shipTo;
+    }
+
+    private void writeShipTo(ShipTo shipTo, XMLStreamWriter writer) throws XMLStreamException {
+        if (shipTo.getAddress() != null) {
+            writer.writeStartElement("address");
+            writeAddress(shipTo.getAddress(), writer);
+            writer.writeEndElement();
+        }
+        if (shipTo.getContactInformation() != null) {
+            writer.writeStartElement("contactInformation");
+            writeContactInformation(shipTo.getContactInformation(), writer);
+            writer.writeEndElement();
+        }
+        if (shipTo.getRecipient() != null) {
+            writer.writeStartElement("recipient");
+            writeRecipient(shipTo.getRecipient(), writer);
+            writer.writeEndElement();
+        }
+    }
+
+    private Address readAddress(XMLStreamReader reader) throws XMLStreamException {
+        Address address = new Address();
+        while (nextChild(reader)) {
+            switch (reader.getLocalName()) {
+                case "address1":
+                    address.setAddress1(readText(reader));
+                    break;
+                case "address2":
+                    address.setAddress2(readText(reader));
+                    break;
+                case "address3":
+                    address.setAddress3(readText(reader));
+                    break;
+                case "address4":
+                    address.setAddress4(readText(reader));
+                    break;
+                case "address5":
+                    address.setAddress5(readText(reader));
+                    break;
+                case "shipToAddressId":
+                    address.setShipToAddressId(readInt(reader));
+                    break;
+                case "city":
+                    address.setCity(readText(reader));
+                    break;
+                case "shipToCountry":
+                    address.setShipToCountry(readCode(reader));
+                    break;
+                case "pickUpLocation":
+                    address.setPickUpLocation(readText(reader));
+                    break;
+                case "pickUpLocationType":
+                    address.setPickUpLocationType(readCode(reader));
+                    break;
+                case "state":
+                    address.setState(readCode(reader));
+                    break;
+                case "zipCode":
+                    address.setZipCode(readShort(reader));
+                    break;
+                default:
+                    skip(reader);
+                    break;
+            }
+        }
+        return address;
+    }
+
+    private void writeAddress(Address address, XMLStreamWriter writer) throws XMLStreamException {
+        writeText(writer, "address1", address.getAddress1());
+        writeText(writer, "address2", address.getAddress2());
+        writeText(writer, "address3", address.getAddress3());
+        writeText(writer, "address4", address.getAddress4());
+        writeText(writer, "address5", address.getAddress5());
+        writeText(writer, "shipToAddressId", address.getAddressId());
+        writeText(writer, "city", address.getCity());
+        writeText(writer, "shipToCountry", address.getShipToCountry());
+        writeText(writer, "pickUpLocation", address.getPickUpLocation());
+        writeText(writer, "pickUpLocationType", address.getPickUpLocationType());
+        writeText(writer, "state", address.getState());
+        writeText(writer, "zipCode", address.getZipCode());
+    }
+
+    private ContactInformation readContactInformation(XMLStreamReader reader) throws XMLStreamException {
+        ContactInformation contactInformation = new ContactInformation();
+        while (nextChild(reader)) {
+            switch (reader.getLocalName()) {
+                case "dayPhone":
+                    contactInformation.setDayPhone(readLong(reader));
+                    break;
+                case "email":
+                    contactInformation.setEmail(readText(reader));
+                    break;
+                case "eveningPhoneNumber":
+                    contactInformation.setEveningPhoneNumber(readLong(reader));
+                    break;
+                case "shipToCountry":
+                    contactInformation.setShipToCountry(readByte(reader));
+                    break;
+                default:
+                    skip(reader);
+                    break;
+            }
+        }
+        return contactInformation;
+    }
+
+    private void writeContactInformation(ContactInformation contactInformation, XMLStreamWriter writer)
+            throws XMLStreamException {
+        writeText(writer, "dayPhone", contactInformation.getDayPhone());
+        writeText(writer, "email", contactInformation.getEmail());
+        writeText(writer, "eveningPhoneNumber", contactInformation.getEveningPhoneNumber());
+        writeText(writer, "shipToCountry", contactInformation.getShipToCountry());
+    }
+
+    private Recipient readRecipient(XMLStreamReader reader) throws XMLStreamException {
+        Recipient recipient = new Recipient();
+        while (nextChild(reader)) {
+            switch (reader.getLocalName()) {
+                case "firstName":
+                    recipient.setFirstName(readText(reader));
+                    break;
+                case "lastName":
+                    recipient.setLastName(readText(reader));
+                    break;
+                case "middleName":
+                    recipient.setMiddleName(readText(reader));
+                    break;
+                default:
+                    skip(reader);
+                    break;
+            }
+        }
+        return recipient;
+    }
+
+    private void writeRecipient(Recipient recipient, XMLStreamWriter writer) throws XMLStreamException {
+        writeText(writer, "firstName", recipient.getFirstName());
+        writeText(writer, "lastName", recipient.getLastName());
+        writeText(writer, "middleName", recipient.getMiddleName());
+    }
+
+    private Lines readLines(XMLStreamReader reader) throws XMLStreamException {
+        Lines lines = new Lines();
+        while (nextChild(reader)) {
+            if ("line".equals(reader.getLocalName())) {
+                if (lines.getLine() == null) {
+                    lines.setLine(new ArrayList<>());
+                }
+                lines.getLine().add(readLine(reader));
+            } else {
+                skip(reader);
+            }
+        }
+        trim(lines.getLine());
+        return lines;
+    }
+
+    private void writeLines(Lines lines, XMLStreamWriter writer) throws XMLStreamException {
+        if (lines.getLine() == null) {
+            return;
+        }
+        for (Line line : lines.getLine()) {
+            writer.writeStartElement("line");
+            writeLine(line, writer);
+            writer.writeEndElement();
+        }
+    }
+
+    Line readLine(XMLStreamReader reader) throws XMLStreamException {
+        Line line = new Line();
+        while (nextChild(reader)) {
+            switch (reader.getLocalName()) {
+                case "containers":
+                    line.setContainers(readContainers(reader));
+                    break;
+                case "orderLineIdentifier":
+                    line.setOrderLineIdentifier(readBigInteger(reader));
+                    break;
+                case "lineNumber":
+                    line.setLineNumber(readCode(reader));
+                    break;
+                case "serialNumbers":
+                    line.setSerialNumbers(readSerialNumbers(reader));
+                    break;
+                default:
+                    skip(reader);
+                    break;
+            }
+        }
+        return line;
+    }
+
+    private void writeLine(Line line, XMLStreamWriter writer) throws XMLStreamException {
+        if (line.getContainers() != null) {
+            writer.writeStartElement("containers");
+            writeContainers(line.getContainers(), writer);
+            writer.writeEndElement();
+        }
+        writeText(writer, "orderLineIdentifier", line.getOrderLineIdentifier());
+        writeText(writer, "lineNumber", line.getLineNumber());
+        if (line.getSerialNumbers() != null) {
+            writer.writeStartElement("serialNumbers");
+            for (String serialNumber : line.getSerialNumbers().getSerialNumber()) {
+                writeText(writer, "serialNumber", serialNumber);
+            }
+            writer.writeEndElement();
+        }
+    }
+
+    private SerialNumbers readSerialNumbers(XMLStreamReader reader) throws XMLStreamException {
+        SerialNumbers serialNumbers = new SerialNumbers();
+        while (nextChild(reader)) {
+            if ("serialNumber".equals(reader.getLocalName())) {
+                serialNumbers.getSerialNumber().add(readText(reader));
+            } else {
+                skip(reader);
+            }
+        }
+        trim(serialNumbers.getSerialNumber());
+        return serialNumbers;
+    }
+
+    private Containers readContainers(XMLStreamReader reader) throws XMLStreamException {
+        Containers containers = new Containers();
+        while (nextChild(reader)) {
+            if ("container".equals(reader.getLocalName())) {
+                containers.getContainer().add(readContainer(reader));
+            } else {
+                skip(reader);
+            }
+        }
+        trim(containers.getContainer());
+        return containers;
+    }
+
+    private void writeContainers(Containers containers, XMLStreamWriter writer) throws XMLStreamException {
+        for (Container container : containers.getContainer()) {
+            writer.writeStartElement("container");
+            writeContainer(container, writer);
+            writer.writeEndElement();
+        }
+    }
+
+    private Container readContainer(XMLStreamReader reader) throws XMLStreamException {
+        Container container = new Container();
+        while (nextChild(reader)) {
+            switch (reader.getLocalName()) {
+                case "number":
+                    container.setNumber(readText(reader));
+                    break;
+                case "externalDeliveryDetails":
+                    container.setExternalDeliveryDetails(readExternalDeliveryDetails(reader));
+                    break;
+                case "quantity":
+                    container.setQuantity(readCode(reader));
+                    break;
+                case "trackingNumber":
+                    container.setTrackingNumber(readText(reader));
+                    break;
+                case "universalProductCode":
+                    container.setUniversalProductCode(readInt(reader));
+                    break;
+                default:
+                    skip(reader);
+                    break;
+            }
+        }
+        return container;
+    }
+
+    private void writeContainer(Container container, XMLStreamWriter writer) throws XMLStreamException {
+        writeText(writer, "number", container.getNumber());
+        if (container.getExternalDeliveryDetails() != null) {
+            writer.writeStartElement("externalDeliveryDetails");
+            for (ExternalDeliveryDetail detail : container.getExternalDeliveryDetails().getExternalDeliveryDetail()) {
+                writer.writeStartElement("externalDeliveryDetail");
+                writeText(writer, "externalDeliveryNumber", detail.getExternalDeliveryNumber());
+                writeText(writer, "externalDeliveryLineNumber", detail.getExternalDeliveryLineNumber());
+                writeText(writer, "quantity", detail.getQuantity());
+                writer.writeEndElement();
+            }
+            writer.writeEndElement();
+        }
+        writeText(writer, "quantity", container.getQuantity());
+        writeText(writer, "trackingNumber", container.getTrackingNumber());
+        writeText(writer, "universalProductCode", container.getUniversalProductCode());
+    }
+
+    private ExternalDeliveryDetails readExternalDeliveryDetails(XMLStreamReader reader) throws XMLStreamException {
+        ExternalDeliveryDetails externalDeliveryDetails = new ExternalDeliveryDetails();
+        while (nextChild(reader)) {
+            if ("externalDeliveryDetail".equals(reader.getLocalName())) {
+                externalDeliveryDetails.getExternalDeliveryDetail().add(readExternalDeliveryDetail(reader));
+            } else {
+                skip(reader);
+            }
+        }
+        trim(externalDeliveryDetails.getExternalDeliveryDetail());
+        return externalDeliveryDetails;
+    }
+
+    private ExternalDeliveryDetail readExternalDeliveryDetail(XMLStreamReader reader) throws XMLStreamException {
+        ExternalDeliveryDetail detail = new ExternalDeliveryDetail();
+        while (nextChild(reader)) {
+            switch (reader.getLocalName()) {
+                case "externalDeliveryNumber":
+                    detail.setExternalDeliveryNumber(readText(reader));
+                    break;
+                case "externalDeliveryLineNumber":
+                    detail.setExternalDeliveryLineNumber(readText(reader));
+                    break;
+                case "quantity":
+                    detail.setQuantity(readCode(reader));
+                    break;
+                default:
+                    skip(reader);
+                    break;
+            }
+        }
+        return detail;
+    }
+
+    private ContainerDetails readContainerDetails(XMLStreamReader reader) throws XMLStreamException {
+        ContainerDetails containerDetails = new ContainerDetails();
+        while (nextChild(reader)) {
+            if ("containerDetail".equals(reader.getLocalName())) {
+                containerDetails.getContainerDetail().add(readContainerDetail(reader));
+            } else {
+                skip(reader);
+            }
+        }
+        trim(containerDetails.getContainerDetail());
+        return containerDetails;
+    }
+
+    private void writeContainerDetails(ContainerDetails containerDetails, XMLStreamWriter writer)
+            throws XMLStreamException {
+        for (ContainerDetail containerDetail : containerDetails.getContainerDetail()) {
+            writer.writeStartElement("containerDetail");
+            if (containerDetail.getDimensions() != null) {
+                writer.writeStartElement("dimensions");
+                writeDimensions(containerDetail.getDimensions(), writer);
+                writer.writeEndElement();
+            }
+            writer.writeEndElement();
+        }
+    }
+
+    private ContainerDetail readContainerDetail(XMLStreamReader reader) throws XMLStreamException {
+        ContainerDetail containerDetail = new ContainerDetail();
+        while (nextChild(reader)) {
+            if ("dimensions".equals(reader.getLocalName())) {
+                containerDetail.setDimensions(readDimensions(reader));
+            } else {
+                skip(reader);
+            }
+        }
+        return containerDetail;
+    }
+
+    private Dimensions readDimensions(XMLStreamReader reader) throws XMLStreamException {
+        Dimensions dimensions = new Dimensions();
+        while (nextChild(reader)) {
+            switch (reader.getLocalName()) {
+                case "grossWeight":
+                    dimensions.setGrossWeight(readDouble(reader));
+                    break;
+                case "height":
+                    dimensions.setHeight(readDouble(reader));
+                    break;
+                case "length":
+                    dimensions.setLength(readDouble(reader));
+                    break;
+                case "linearUnitOfMeasure":
+                    dimensions.setLinearUnitOfMeasure(readCode(reader));
+                    break;
+                case "netWeight":
+                    dimensions.setNetWeight(readDouble(reader));
+                    break;
+                case "number":
+                    dimensions.setNumber(readText(reader));
+                    break;
+                case "weightUnitOfMeasure":
+                    dimensions.setWeightUnitOfMeasure(readCode(reader));
+                    break;
+                case "width":
+                    dimensions.setWidth(readDouble(reader));
+                    break;
+                default:
+                    skip(reader);
+                    break;
+            }
+        }
+        return dimensions;
+    }
+
+    private void writeDimensions(Dimensions dimensions, XMLStreamWriter writer) throws XMLStreamException {
+        writeText(writer, "grossWeight", dimensions.getGrossWeight());
+        writeText(writer, "height", dimensions.getHeight());
+        writeText(writer, "length", dimensions.getLength());
+        writeText(writer, "linearUnitOfMeasure", dimensions.getLinearUnitOfMeasure());
+        writeText(writer, "netWeight", dimensions.getNetWeight());
+        writeText(writer, "number", dimensions.getNumber());
+        writeText(writer, "weightUnitOfMeasure", dimensions.getWeightUnitOfMeasure());
+        writeText(writer, "width", dimensions.getWidth());
+    }
+}
@@ -0,0 +1,291 @@
+package com.sample.springbootsampleapp.util;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes one XML model class with plain StAX calls, without the reflection JAXB performs per element.
+ * <p>
+ * Implementations follow the JAXB mapping of the model: element names are the field names, elements are written in
+ * propOrder (or declaration order where no propOrder is given), null values are omitted, primitives are always
+ * written and unknown elements are skipped on read. Numbers and booleans are printed and parsed like the JAXB
+ * reference implementation does, including its leniency: a value that does not parse leaves the field at its
+ * default instead of failing the document.
+ * <p>
+ * In compact mode, a codec returns models that take less heap: repeated code values are shared through a
+ * {@link CodeCanonicalizer} and lists are trimmed to their size once read.
+ * <p>
+ * Codecs are thread-safe.
+ *
+ * @param <T> the model class
+ */
+public abstract class StaxCodec<T> {
+
+    /**
+     * Shared factories; DTDs and external entities are disabled.
+     */
+    static final XMLInputFactory XML_INPUT_FACTORY = createXMLInputFactory();
+    static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+    private static final CodeCanonicalizer CODE_CANONICALIZER = new CodeCanonicalizer(4096);
+
+    private final Class<T> type;
+    private final String rootElement;
+    private final boolean compact;
+
+    protected StaxCodec(Class<T> type, String rootElement, boolean compact) {
+        this.type = type;
+        this.rootElement = rootElement;
+        this.compact = compact;
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public String getRootElement() {
+        return rootElement;
+    }
+
+    public boolean isCompact() {
+        return compact;
+    }
+
+    /**
+     * Reads the root element, starting either at the beginning of the document or on the root start tag.
+     *
+     * @param reader
+     * @return
+     * @throws XMLStreamException
+     */
+    public T read(XMLStreamReader reader) throws XMLStreamException {
+        if (reader.getEventType() != XMLStreamConstants.START_ELEMENT) {
+            reader.nextTag();
+        }
+        if (!rootElement.equals(reader.getLocalName())) {
+            throw new XMLStreamException("Expected root element <" + rootElement + "> but found <"
+                    + reader.getLocalName() + ">", reader.getLocation());
+        }
+        return readRoot(reader);
+    }
+
+    /**
+     * Writes the value as a complete document.
+     *
+     * @param value
+     * @param writer
+     * @throws XMLStreamException
+     */
+    public void write(T value, XMLStreamWriter writer) throws XMLStreamException {
+        write(value, writer, "UTF-8");
+    }
+
+    /**
+     * Writes the value as a complete document, declaring the given encoding, which must be the encoding the writer
+     * was created with.
+     *
+     * @param value
+     * @param writer
+     * @param encoding
+     * @throws XMLStreamException
+     */
+    public void write(T value, XMLStreamWriter writer, String encoding) throws XMLStreamException {
+        writer.writeStartDocument(encoding, "1.0");
+        writer.writeStartElement(rootElement);
+        writeRoot(value, writer);
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.flush();
+    }
+
+    /**
+     * Reads the children of the root element; the reader is on the root start tag and must be left on its end tag.
+     */
+    protected abstract T readRoot(XMLStreamReader reader) throws XMLStreamException;
+
+    /**
+     * Writes the children of the root element.
+     */
+    protected abstract void writeRoot(T value, XMLStreamWriter writer) throws XMLStreamException;
+
+    private static XMLInputFactory createXMLInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    /**
+     * Moves to the next child of the current element. Returns false, with the reader on the end tag of the current
+     * element, when there is none.
+     */
+    protected static boolean nextChild(XMLStreamReader reader) throws XMLStreamException {
+        return reader.nextTag() == XMLStreamConstants.START_ELEMENT;
+    }
+
+    /**
+     * Skips the current element, including all of its descendants.
+     */
+    protected static void skip(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    protected static String readText(XMLStreamReader reader) throws XMLStreamException {
+        return reader.getElementText();
+    }
+
+    /**
+     * Reads a value which is likely to repeat within and across documents, such as a unit of measure, status or
+     * quantity. In compact mode the returned String is shared.
+     */
+    protected String readCode(XMLStreamReader reader) throws XMLStreamException {
+        String text = reader.getElementText();
+        return compact ? CODE_CANONICALIZER.canonicalize(text) : text;
+    }
+
+    /**
+     * Trims a list that has been read completely, in compact mode.
+     */
+    protected void trim(List<?> list) {
+        if (compact && list instanceof ArrayList) {
+            ((ArrayList<?>) list).trimToSize();
+        }
+    }
+
+    /**
+     * Reads an int like JAXB's DatatypeConverterImpl._parseInt: whitespace is ignored, the sign may appear anywhere
+     * and values beyond the int range wrap around instead of failing. A value which is not a number reads as 0, the
+     * default JAXB leaves in the field after reporting the error.
+     */
+    protected static int readInt(XMLStreamReader reader) throws XMLStreamException {
+        return parseInt(reader.getElementText());
+    }
+
+    protected static long readLong(XMLStreamReader reader) throws XMLStreamException {
+        String text = withoutPlus(reader.getElementText().trim());
+        try {
+            return text.isEmpty() ? 0L : Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    /**
+     * Reads a short like JAXB does, by narrowing the int value: 97005 reads as -28531 rather than failing.
+     */
+    protected static short readShort(XMLStreamReader reader) throws XMLStreamException {
+        return (short) parseInt(reader.getElementText());
+    }
+
+    /**
+     * Reads a byte like JAXB does, by narrowing the int value.
+     */
+    protected static byte readByte(XMLStreamReader reader) throws XMLStreamException {
+        return (byte) parseInt(reader.getElementText());
+    }
+
+    protected static double readDouble(XMLStreamReader reader) throws XMLStreamException {
+        String text = reader.getElementText().trim();
+        switch (text) {
+            case "":
+                return 0d;
+            case "NaN":
+                return Double.NaN;
+            case "INF":
+                return Double.POSITIVE_INFINITY;
+            case "-INF":
+                return Double.NEGATIVE_INFINITY;
+            default:
+                try {
+                    return Double.parseDouble(text);
+                } catch (NumberFormatException e) {
+                    return 0d;
+                }
+        }
+    }
+
+    protected static boolean readBoolean(XMLStreamReader reader) throws XMLStreamException {
+        String text = reader.getElementText().trim();
+        return "true".equals(text) || "1".equals(text);
+    }
+
+    protected static BigInteger readBigInteger(XMLStreamReader reader) throws XMLStreamException {
+        String text = withoutPlus(reader.getElementText().trim());
+        try {
+            return text.isEmpty() ? null : new BigInteger(text);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static int parseInt(String text) {
+        int sign = 1;
+        int value = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (ch >= '0' && ch <= '9') {
+                value = value * 10 + (ch - '0');
+            } else if (ch == '-') {
+                sign = -1;
+            } else if (ch != '+' && ch != ' ' && ch != '\t' && ch != '\n' && ch != '\r') {
+                return 0;
+            }
+        }
+        return value * sign;
+    }
+
+    private static String withoutPlus(String text) {
+        return text.startsWith("+") ? text.substring(1) : text;
+    }
+
+    protected static void writeText(XMLStreamWriter writer, String name, String value) throws XMLStreamException {
+        if (value != null) {
+            writer.writeStartElement(name);
+            writer.writeCharacters(value);
+            writer.writeEndElement();
+        }
+    }
+
+    protected static void writeText(XMLStreamWriter writer, String name, Object value) throws XMLStreamException {
+        if (value != null) {
+            writeText(writer, name, value.toString());
+        }
+    }
+
+    protected static void writeText(XMLStreamWriter writer, String name, long value) throws XMLStreamException {
+        writeText(writer, name, String.valueOf(value));
+    }
+
+    protected static void writeText(XMLStreamWriter writer, String name, boolean value) throws XMLStreamException {
+        writeText(writer, name, String.valueOf(value));
+    }
+
+    protected static void writeText(XMLStreamWriter writer, String name, double value) throws XMLStreamException {
+        String text;
+        if (Double.isNaN(value)) {
+            text = "NaN";
+        } else if (value == Double.POSITIVE_INFINITY) {
+            text = "INF";
+        } else if (value == Double.NEGATIVE_INFINITY) {
+            text = "-INF";
+        } else {
+            text = String.valueOf(value);
+        }
+        writeText(writer, name, text);
+    }
+}
@@ -0,0 +1,54 @@
+package com.sample.springbootsampleapp.util;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.spi.DataFormat;
+import org.apache.camel.spi.DataFormatName;
+
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Camel DataFormat backed by a {@link StaxCodec}, usable in place of a JaxbDataFormat for the same model:
+ * <p>
+ * .unmarshal(new StaxDataFormat&lt;&gt;(ShipmentStaxCodec.INSTANCE))
+ * <p>
+ * The encoding written on marshal is taken from the Exchange.CHARSET_NAME property and defaults to UTF-8.
+ *
+ * @param <T> the model class
+ */
+public class StaxDataFormat<T> implements DataFormat, DataFormatName {
+
+    private final StaxCodec<T> codec;
+
+    public StaxDataFormat(StaxCodec<T> codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public String getDataFormatName() {
+        return "stax-" + codec.getRootElement();
+    }
+
+    @Override
+    public void marshal(Exchange exchange, Object graph, OutputStream stream) throws Exception {
+        String encoding = exchange.getProperty(Exchange.CHARSET_NAME, "UTF-8", String.class);
+        XMLStreamWriter writer = StaxCodec.XML_OUTPUT_FACTORY.createXMLStreamWriter(stream, encoding);
+        try {
+            codec.write(codec.getType().cast(graph), writer, encoding);
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Override
+    public Object unmarshal(Exchange exchange, InputStream stream) throws Exception {
+        XMLStreamReader reader = StaxCodec.XML_INPUT_FACTORY.createXMLStreamReader(stream);
+        try {
+            return codec.read(reader);
+        } finally {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.sample.springbootsampleapp.util;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+
+import javax.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.util.StreamReaderDelegate;
+import java.io.InputStream;
+import java.io.StringReader;
+
+/**
+ * Unmarshals the XML body of the exchange into the given model type and, in the same pass, sets the text of the
+ * messageID child of the root element in the {@link ApplicationConstants#MESSAGE_ID} exchange property.
+ * <p>
+ * The body is read once through a StAX stream reader; no DOM is built. This replaces the sequence
+ * <p>
+ * .setProperty(MESSAGE_ID, xpath("/shipment/messageID", String.class))
+ * .convertBodyTo(String.class, UTF_8)
+ * .unmarshal(xmlDataFormat)
+ * <p>
+ * which parsed the payload twice. The reader captures messageID whether or not the model binds it, and sets the
+ * property as soon as the element has been read, so that it is available to the error handler when the rest of the
+ * document fails to unmarshal.
+ * <p>
+ * The model is read either by a {@link StaxCodec} or by JAXB, with unmarshallers borrowed from the shared
+ * {@link JaxbRegistry}.
+ */
+public class StaxUnmarshalProcessor implements Processor {
+
+    private static final String MESSAGE_ID_ELEMENT = "messageID";
+
+    private final JaxbRegistry jaxbRegistry;
+    private final Class<?> type;
+    private final StaxCodec<?> codec;
+
+    public StaxUnmarshalProcessor(JaxbRegistry jaxbRegistry, Class<?> type) {
+        this.jaxbRegistry = jaxbRegistry;
+        this.type = type;
+        this.codec = null;
+    }
+
+    public StaxUnmarshalProcessor(StaxCodec<?> codec) {
+        this.jaxbRegistry = null;
+        this.type = codec.getType();
+        this.codec = codec;
+    }
+
+    @Override
+    public void process(Exchange exchange) throws Exception {
+        Object body = exchange.getIn().getBody();
+        XMLStreamReader xmlStreamReader = body instanceof String
+                ? StaxCodec.XML_INPUT_FACTORY.createXMLStreamReader(new StringReader((String) body))
+                : StaxCodec.XML_INPUT_FACTORY.createXMLStreamReader(exchange.getIn().getMandatoryBody(InputStream.class));
+
+        exchange.removeProperty(ApplicationConstants.MESSAGE_ID);
+        MessageIdCapturingReader reader = new MessageIdCapturingReader(xmlStreamReader, exchange);
+        if (codec != null) {
+            try {
+                exchange.getIn().setBody(codec.read(reader));
+            } finally {
+                reader.close();
+            }
+            return;
+        }
+
+        Unmarshaller unmarshaller = jaxbRegistry.acquireUnmarshaller(type);
+        try {
+            exchange.getIn().setBody(unmarshaller.unmarshal(reader, type).getValue());
+        } finally {
+            jaxbRegistry.releaseUnmarshaller(type, unmarshaller);
+            reader.close();
+        }
+    }
+
+    /**
+     * Passes every event through to JAXB and sets the text of the messageID element at depth 2 in the exchange
+     * property once its end tag has been read.
+     */
+    private static final class MessageIdCapturingReader extends StreamReaderDelegate {
+
+        private final Exchange exchange;
+        private int depth;
+        private boolean capturing;
+        private StringBuilder messageId;
+
+        private MessageIdCapturingReader(XMLStreamReader reader, Exchange exchange) {
+            super(reader);
+            this.exchange = exchange;
+        }
+
+        @Override
+        public int next() throws XMLStreamException {
+            int event = super.next();
+            track(event);
+            return event;
+        }
+
+        @Override
+        public int nextTag() throws XMLStreamException {
+            int event = next();
+            while ((event == XMLStreamConstants.CHARACTERS && isWhiteSpace())
+                    || event == XMLStreamConstants.SPACE
+                    || event == XMLStreamConstants.COMMENT
+                    || event == XMLStreamConstants.PROCESSING_INSTRUCTION) {
+                event = next();
+            }
+            return event;
+        }
+
+        @Override
+        public String getElementText() throws XMLStreamException {
+            String text = super.getElementText();
+            if (capturing) {
+                messageId.append(text);
+                captured();
+            }
+            depth--;
+            return text;
+        }
+
+        private void track(int event) {
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT:
+                    depth++;
+                    if (depth == 2 && messageId == null && MESSAGE_ID_ELEMENT.equals(getLocalName())) {
+                        messageId = new StringBuilder();
+                        capturing = true;
+                    }
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                    if (capturing) {
+                        messageId.append(getText());
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    if (depth == 2 && capturing) {
+                        captured();
+                    }
+                    depth--;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void captured() {
+            capturing = false;
+            exchange.setProperty(ApplicationConstants.MESSAGE_ID, messageId.toString().trim());
+        }
+    }
+}
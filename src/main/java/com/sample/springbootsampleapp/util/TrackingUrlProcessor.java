@@ -0,0 +1,50 @@
+package com.sample.springbootsampleapp.util;
+
+import com.sample.springbootsampleapp.model.Shipment;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders the carrier tracking URL of every container of the shipment into the
+ * {@link ApplicationConstants#TRACKING_URLS} exchange property, a Map of tracking URL by tracking number, with the
+ * {@link TrackingUrlTemplateEngine}. Shipments carry no locale, so the default locale of the engine is used.
+ * <p>
+ * The body is either an unmarshalled {@link Shipment}, or a chunk of lines of the streaming
+ * {@link ShipmentLineSplitter}, in which case the carrier is read from the
+ * {@link ShipmentLineSplitter#SHIPMENT_HEADER} property. The URLs are added to the Map already in the property, if
+ * any; when it is set before the split, the split exchanges share it and it holds the URLs of the whole shipment
+ * after the split.
+ */
+public class TrackingUrlProcessor implements Processor {
+
+    private final TrackingUrlTemplateEngine trackingUrlTemplateEngine;
+
+    public TrackingUrlProcessor(TrackingUrlTemplateEngine trackingUrlTemplateEngine) {
+        this.trackingUrlTemplateEngine = trackingUrlTemplateEngine;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void process(Exchange exchange) {
+        Map<String, String> trackingUrls = exchange.getProperty(ApplicationConstants.TRACKING_URLS, Map.class);
+        if (trackingUrls == null) {
+            trackingUrls = new LinkedHashMap<>();
+            exchange.setProperty(ApplicationConstants.TRACKING_URLS, trackingUrls);
+        }
+
+        Object body = exchange.getIn().getBody();
+        if (body instanceof Shipment) {
+            Shipment shipment = (Shipment) body;
+            trackingUrlTemplateEngine.renderAll(shipment.getStandardCarrierAlphaCode(),
+                    shipment.getLines() == null ? null : shipment.getLines().getLine(), null, trackingUrls);
+        } else if (body instanceof List) {
+            Shipment header = exchange.getProperty(ShipmentLineSplitter.SHIPMENT_HEADER, Shipment.class);
+            trackingUrlTemplateEngine.renderAll(header == null ? null : header.getStandardCarrierAlphaCode(),
+                    (List<Shipment.Lines.Line>) body, null, trackingUrls);
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.sample.springbootsampleapp.util;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.S3Object;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sample.springbootsampleapp.model.Shipment;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders carrier tracking URLs from the carrier URL mapping stored in S3, for example
+ * <p>
+ * "FEDX": "http://www.fedex.com/fedextrack/?locale=locale_value&amp;tracknumbers=tracking_number_value"
+ * <p>
+ * Each template is compiled once into its literal segments and placeholders, so that rendering a URL is a single
+ * append per segment into a StringBuilder sized exactly for the result, without scanning or replacing in the
+ * template. The locale and tracking number are percent-encoded (RFC 3986, UTF-8) before they are inserted, so that
+ * a value with a reserved character such as '&amp;' or '/' cannot change the URL.
+ * <p>
+ * The mapping is read from "com.sample.s3.fr.trackingurl.path"/carrierurl-mapping.json in the
+ * "com.sample.s3.fr.bucket" bucket. Every "trackingUrl.reloadIntervalSeconds" the ETag of the object is checked, and
+ * the object is only read and compiled again when it has changed. The compiled templates are replaced as a whole, so
+ * a render never sees a mix of two versions. When the mapping cannot be loaded, the previous version stays in use.
+ * <p>
+ * ShipConfirmationRoute renders the URLs of every shipment with a {@link TrackingUrlProcessor}.
+ */
+@Slf4j
+@Component
+public class TrackingUrlTemplateEngine implements InitializingBean, DisposableBean {
+
+    public static final String MAPPING_FILE_NAME = "carrierurl-mapping.json";
+    public static final String LOCALE_PLACEHOLDER = "locale_value";
+    public static final String TRACKING_NUMBER_PLACEHOLDER = "tracking_number_value";
+
+    private static final TypeReference<Map<String, String>> MAPPING_TYPE = new TypeReference<Map<String, String>>() { };
+
+    private final AmazonS3 amazonS3;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private volatile Templates templates = new Templates(null, Collections.emptyMap());
+
+    private ScheduledExecutorService scheduler;
+
+    @Value("${com.sample.s3.fr.bucket}")
+    private String bucket;
+
+    @Value("${com.sample.s3.fr.trackingurl.path}")
+    private String mappingPath;
+
+    @Value("${trackingUrl.reloadIntervalSeconds:60}")
+    private long reloadIntervalSeconds;
+
+    @Value("${trackingUrl.defaultLocale:en_US}")
+    private String defaultLocale;
+
+    @Autowired
+    public TrackingUrlTemplateEngine(AmazonS3 amazonS3) {
+        this.amazonS3 = amazonS3;
+    }
+
+    /**
+     * Returns the tracking URL of the carrier for the tracking number, or null if the carrier has no template.
+     */
+    public String render(String carrierCode, String locale, String trackingNumber) {
+        Template template = carrierCode == null ? null : templates.get(carrierCode);
+        return template == null ? null : template.render(locale, trackingNumber);
+    }
+
+    /**
+     * Returns the tracking URL of every container of the shipment with a tracking number, by tracking number, using
+     * the carrier of the shipment. The map is empty if the carrier has no template.
+     */
+    public Map<String, String> renderAll(Shipment shipment, String locale) {
+        Map<String, String> trackingUrls = new LinkedHashMap<>();
+        renderAll(shipment.getStandardCarrierAlphaCode(),
+                shipment.getLines() == null ? null : shipment.getLines().getLine(), locale, trackingUrls);
+        return trackingUrls;
+    }
+
+    /**
+     * Adds the tracking URL of every container of the lines with a tracking number to trackingUrls, by tracking
+     * number, unless the map already has one for it. Nothing is added if the carrier has no template.
+     */
+    public void renderAll(String carrierCode, List<Shipment.Lines.Line> lines, String locale,
+                          Map<String, String> trackingUrls) {
+        Template template = carrierCode == null ? null : templates.get(carrierCode);
+        if (template == null || lines == null) {
+            return;
+        }
+        String effectiveLocale = locale != null ? locale : defaultLocale;
+
+        for (Shipment.Lines.Line line : lines) {
+            if (line.getContainers() == null || line.getContainers().getContainer() == null) {
+                continue;
+            }
+            for (Shipment.Lines.Line.Containers.Container container : line.getContainers().getContainer()) {
+                String trackingNumber = container.getTrackingNumber();
+                if (trackingNumber != null && !trackingUrls.containsKey(trackingNumber)) {
+                    trackingUrls.put(trackingNumber, template.render(effectiveLocale, trackingNumber));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        reload();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "TrackingUrlTemplateEngine");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::reload, reloadIntervalSeconds, reloadIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdown();
+    }
+
+    /**
+     * Loads and compiles the mapping if its ETag differs from the one in use.
+     */
+    void reload() {
+        String key = mappingPath + "/" + MAPPING_FILE_NAME;
+        try {
+            ObjectMetadata metadata = amazonS3.getObjectMetadata(bucket, key);
+            String eTag = metadata != null ? metadata.getETag() : null;
+            if (eTag != null && eTag.equals(templates.eTag)) {
+                return;
+            }
+
+            S3Object mapping = amazonS3.getObject(bucket, key);
+            try (InputStream inputStream = mapping.getObjectContent()) {
+                templates = compile(eTag, objectMapper.readValue(inputStream, MAPPING_TYPE));
+            }
+            log.info("Event=TrackingUrlTemplatesLoaded Bucket={} Key={} ETag={} Carriers={}", bucket, key, eTag,
+                    templates.byCarrier.keySet());
+        } catch (IOException | RuntimeException e) {
+            log.error("Event=TrackingUrlTemplatesLoadFailed Bucket={} Key={}, keeping the templates in use", bucket, key,
+                    e);
+        }
+    }
+
+    static Templates compile(String eTag, Map<String, String> mapping) {
+        Map<String, Template> byCarrier = new HashMap<>(mapping.size() * 2);
+        for (Map.Entry<String, String> entry : mapping.entrySet()) {
+            if (entry.getValue() != null) {
+                byCarrier.put(entry.getKey(), Template.compile(entry.getValue()));
+            }
+        }
+        return new Templates(eTag, Collections.unmodifiableMap(byCarrier));
+    }
+
+    /**
+     * One version of the compiled mapping, with the ETag it was read with.
+     */
+    static final class Templates {
+
+        private final String eTag;
+        private final Map<String, Template> byCarrier;
+
+        private Templates(String eTag, Map<String, Template> byCarrier) {
+            this.eTag = eTag;
+            this.byCarrier = byCarrier;
+        }
+
+        Template get(String carrierCode) {
+            return byCarrier.get(carrierCode);
+        }
+    }
+
+    /**
+     * A template split into literals and placeholders: literals[0] placeholder[0] literals[1] ... literals[n].
+     */
+    static final class Template {
+
+        private final String[] literals;
+        private final boolean[] trackingNumberPlaceholders;
+        private final int literalLength;
+        private final int localeCount;
+        private final int trackingNumberCount;
+
+        private Template(String[] literals, boolean[] trackingNumberPlaceholders) {
+            this.literals = literals;
+            this.trackingNumberPlaceholders = trackingNumberPlaceholders;
+
+            int length = 0;
+            for (String literal : literals) {
+                length += literal.length();
+            }
+            int trackingNumbers = 0;
+            for (boolean trackingNumberPlaceholder : trackingNumberPlaceholders) {
+                if (trackingNumberPlaceholder) {
+                    trackingNumbers++;
+                }
+            }
+            this.literalLength = length;
+            this.trackingNumberCount = trackingNumbers;
+            this.localeCount = trackingNumberPlaceholders.length - trackingNumbers;
+        }
+
+        static Template compile(String template) {
+            List<String> literals = new ArrayList<>();
+            List<Boolean> placeholders = new ArrayList<>();
+            int start = 0;
+            while (true) {
+                int locale = template.indexOf(LOCALE_PLACEHOLDER, start);
+                int trackingNumber = template.indexOf(TRACKING_NUMBER_PLACEHOLDER, start);
+                if (locale < 0 && trackingNumber < 0) {
+                    break;
+                }
+                boolean isTrackingNumber = locale < 0 || (trackingNumber >= 0 && trackingNumber < locale);
+                int index = isTrackingNumber ? trackingNumber : locale;
+                literals.add(template.substring(start, index));
+                placeholders.add(isTrackingNumber);
+                start = index + (isTrackingNumber ? TRACKING_NUMBER_PLACEHOLDER : LOCALE_PLACEHOLDER).length();
+            }
+            literals.add(template.substring(start));
+
+            boolean[] trackingNumberPlaceholders = new boolean[placeholders.size()];
+            for (int i = 0; i < trackingNumberPlaceholders.length; i++) {
+                trackingNumberPlaceholders[i] = placeholders.get(i);
+            }
+            return new Template(literals.toArray(new String[0]), trackingNumberPlaceholders);
+        }
+
+        String render(String locale, String trackingNumber) {
+            String localeValue = UriUtils.encode(Objects.toString(locale, ""), StandardCharsets.UTF_8);
+            String trackingNumberValue = UriUtils.encode(Objects.toString(trackingNumber, ""), StandardCharsets.UTF_8);
+
+            StringBuilder url = new StringBuilder(literalLength + localeCount * localeValue.length()
+                    + trackingNumberCount * trackingNumberValue.length());
+            url.append(literals[0]);
+            for (int i = 0; i < trackingNumberPlaceholders.length; i++) {
+                url.append(trackingNumberPlaceholders[i] ? trackingNumberValue : localeValue).append(literals[i + 1]);
+            }
+            return url.toString();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.sample.springbootsampleapp.util;
+
+import com.sample.springbootsampleapp.model.FulfillmentStatus;
+import com.sample.springbootsampleapp.model.Shipment;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXNotRecognizedException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.Validator;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Compiled XML schemas of the inbound models, see src/main/resources/xsd.
+ * <p>
+ * Each schema is compiled once at startup; the compiled Schema is thread-safe and shared. Validators are not
+ * thread-safe, so they are pooled per model class like the JAXB unmarshallers of {@link JaxbRegistry}:
+ * <p>
+ * Validator validator = xmlSchemaRegistry.acquireValidator(Shipment.class);
+ * try {
+ *     ...
+ * } finally {
+ *     xmlSchemaRegistry.releaseValidator(Shipment.class, validator);
+ * }
+ * <p>
+ * The document is parsed by a pooled {@link XMLReader}, passed to the validator as a SAXSource, which rejects
+ * documents with a DOCTYPE: the DOCTYPE ban is a parser feature that validators do not all recognize (Apache Xerces
+ * does not). Validators are also asked not to resolve external DTDs or schemas, where they support it.
+ */
+@Slf4j
+@Component
+public class XmlSchemaRegistry implements InitializingBean {
+
+    private static final String DISALLOW_DOCTYPE_DECL = "http://apache.org/xml/features/disallow-doctype-decl";
+    private static final Map<Class<?>, String> SCHEMA_LOCATIONS = new HashMap<>();
+
+    static {
+        SCHEMA_LOCATIONS.put(Shipment.class, "/xsd/shipment.xsd");
+        SCHEMA_LOCATIONS.put(FulfillmentStatus.class, "/xsd/fulfillmentStatus.xsd");
+    }
+
+    private final Map<Class<?>, Schema> schemas = new HashMap<>();
+    private final Map<Class<?>, BlockingQueue<Validator>> validatorPools = new HashMap<>();
+    private final SAXParserFactory parserFactory = SAXParserFactory.newInstance();
+    private BlockingQueue<XMLReader> readerPool;
+
+    @Value("${xml.schemaValidation.pool.maxIdle:16}")
+    private int maxIdle;
+
+    @Override
+    public void afterPropertiesSet() throws SAXException, ParserConfigurationException {
+        parserFactory.setNamespaceAware(true);
+        parserFactory.setFeature(DISALLOW_DOCTYPE_DECL, true);
+        readerPool = new ArrayBlockingQueue<>(maxIdle);
+        SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+        for (Map.Entry<Class<?>, String> schemaLocation : SCHEMA_LOCATIONS.entrySet()) {
+            long start = System.nanoTime();
+            URL resource = XmlSchemaRegistry.class.getResource(schemaLocation.getValue());
+            if (resource == null) {
+                throw new IllegalStateException("Schema not found on classpath: " + schemaLocation.getValue());
+            }
+            schemas.put(schemaLocation.getKey(), schemaFactory.newSchema(new StreamSource(resource.toExternalForm())));
+            validatorPools.put(schemaLocation.getKey(), new ArrayBlockingQueue<>(maxIdle));
+            log.info("Event=XmlSchemaRegistry Model={} Schema={} CompilationMs={}",
+                    schemaLocation.getKey().getSimpleName(), schemaLocation.getValue(),
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    public Schema getSchema(Class<?> modelClass) {
+        Schema schema = schemas.get(modelClass);
+        if (schema == null) {
+            throw new IllegalArgumentException("No schema registered for " + modelClass.getName());
+        }
+        return schema;
+    }
+
+    public Validator acquireValidator(Class<?> modelClass) throws SAXException {
+        Validator validator = validatorPools.get(modelClass).poll();
+        return validator != null ? validator : createValidator(modelClass);
+    }
+
+    public void releaseValidator(Class<?> modelClass, Validator validator) {
+        validatorPools.get(modelClass).offer(validator);
+    }
+
+    /**
+     * @return A namespace aware XMLReader rejecting documents with a DOCTYPE, to validate a SAXSource with
+     */
+    public XMLReader acquireReader() throws SAXException {
+        XMLReader reader = readerPool.poll();
+        return reader != null ? reader : createReader();
+    }
+
+    public void releaseReader(XMLReader reader) {
+        readerPool.offer(reader);
+    }
+
+    private XMLReader createReader() throws SAXException {
+        try {
+            // SAXParserFactory is not thread-safe
+            synchronized (parserFactory) {
+                return parserFactory.newSAXParser().getXMLReader();
+            }
+        } catch (ParserConfigurationException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    private Validator createValidator(Class<?> modelClass) throws SAXException {
+        Validator validator = getSchema(modelClass).newValidator();
+        setPropertyIfRecognized(validator, XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        setPropertyIfRecognized(validator, XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+        return validator;
+    }
+
+    private static void setPropertyIfRecognized(Validator validator, String name, Object value) throws SAXException {
+        try {
+            validator.setProperty(name, value);
+        } catch (SAXNotRecognizedException e) {
+            // Validators predating JAXP 1.5 do not know the property; the readers still reject every DTD
+            log.debug("Event=XmlSchemaRegistry Validator={} UnrecognizedProperty={}", validator.getClass().getName(), name);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.slf4j.LoggerFactory;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * ID generation class for use with trace IDs, span IDs, and parent span IDs for the {@link Span} class. Call the static {@link #generateId()} method whenever you
@@ -15,6 +16,8 @@ import java.util.Random;
  * (see <a href="http://static.googleusercontent.com/media/research.google.com/en/us/pubs/archive/36356.pdf">http://static.googleusercontent.com/media/research.google.com/en/us/pubs/archive/36356.pdf</a>)
  * and unsigned hex encoding to conform to the ZipKin distributed tracing B3 implementation
  * (see <a href="http://zipkin.io/pages/instrumenting.html">http://zipkin.io/pages/instrumenting.html</a>).
+ * <p>
+ * How the random longs are drawn is selected with {@link #setIdGenerationMode(IdGenerationMode)}, see {@link IdGenerationMode}.
  *
  * @author Nic Munroe
  */
@@ -30,6 +33,32 @@ public class TraceAndSpanIdGenerator {
      */
     private static final Random random = getRandomInstance("SHA1PRNG");
 
+    /**
+     * The per-thread generators used in {@link IdGenerationMode#THREAD_LOCAL} mode. Each one is seeded from {@link #random} when a thread first
+     * generates an ID, after which the thread never touches shared state to generate IDs.
+     */
+    private static final ThreadLocal<SplittableRandom> threadLocalRandom =
+        ThreadLocal.withInitial(() -> new SplittableRandom(generateSecureRandomLong()));
+
+    private static volatile IdGenerationMode idGenerationMode = IdGenerationMode.SECURE_RANDOM;
+
+    /**
+     * The ways {@link #generate64BitRandomLong()} can draw random longs.
+     */
+    public enum IdGenerationMode {
+        /**
+         * Every ID is drawn from one shared {@link SecureRandom}, which synchronizes internally so that threads generating IDs contend on it.
+         * This is the default.
+         */
+        SECURE_RANDOM,
+        /**
+         * Every thread draws IDs from its own {@link SplittableRandom}, seeded from the shared {@link SecureRandom}. IDs cover the full 64 bits and
+         * are generated without contention, but they are only as unpredictable as a non-cryptographic generator: use this mode when IDs are not
+         * relied upon as secrets.
+         */
+        THREAD_LOCAL
+    }
+
     /**
      * Intentionally private constructor to force all access via static methods.
      */
@@ -56,6 +85,28 @@ public class TraceAndSpanIdGenerator {
      *          {@link Random#nextLong()}).
      */
     public static long generate64BitRandomLong() {
+        if (idGenerationMode == IdGenerationMode.THREAD_LOCAL) {
+            return threadLocalRandom.get().nextLong();
+        }
+        return generateSecureRandomLong();
+    }
+
+    /**
+     * @return The mode {@link #generate64BitRandomLong()} currently draws random longs with.
+     */
+    public static IdGenerationMode getIdGenerationMode() {
+        return idGenerationMode;
+    }
+
+    /**
+     * Sets the mode {@link #generate64BitRandomLong()} draws random longs with. Passing null resets it to the default
+     * {@link IdGenerationMode#SECURE_RANDOM}.
+     */
+    public static void setIdGenerationMode(IdGenerationMode mode) {
+        idGenerationMode = (mode == null) ? IdGenerationMode.SECURE_RANDOM : mode;
+    }
+
+    private static long generateSecureRandomLong() {
         byte[] random8Bytes = new byte[8];
         random.nextBytes(random8Bytes);
 
@@ -188,22 +239,40 @@ public class TraceAndSpanIdGenerator {
 
         /** Inspired by {@code okio.Buffer.writeLong} */
         static void writeHexLong(char[] data, int pos, long v) {
-            writeHexByte(data, pos + 0,  (byte) ((v >>> 56L) & 0xff));
-            writeHexByte(data, pos + 2,  (byte) ((v >>> 48L) & 0xff));
-            writeHexByte(data, pos + 4,  (byte) ((v >>> 40L) & 0xff));
-            writeHexByte(data, pos + 6,  (byte) ((v >>> 32L) & 0xff));
-            writeHexByte(data, pos + 8,  (byte) ((v >>> 24L) & 0xff));
-            writeHexByte(data, pos + 10, (byte) ((v >>> 16L) & 0xff));
-            writeHexByte(data, pos + 12, (byte) ((v >>> 8L) & 0xff));
-            writeHexByte(data, pos + 14, (byte)  (v & 0xff));
+            writeHexByte(data, pos + 0,  (int) (v >>> 56L));
+            writeHexByte(data, pos + 2,  (int) (v >>> 48L));
+            writeHexByte(data, pos + 4,  (int) (v >>> 40L));
+            writeHexByte(data, pos + 6,  (int) (v >>> 32L));
+            writeHexByte(data, pos + 8,  (int) (v >>> 24L));
+            writeHexByte(data, pos + 10, (int) (v >>> 16L));
+            writeHexByte(data, pos + 12, (int) (v >>> 8L));
+            writeHexByte(data, pos + 14, (int) v);
         }
 
         static final char[] HEX_DIGITS =
             {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
 
+        /**
+         * The two lower-hex characters of every byte value, the high one at index 2 * b and the low one at 2 * b + 1, so that a byte is encoded with
+         * a single table lookup per character and no shifting or masking of the nibbles.
+         */
+        static final char[] HEX_BYTES = new char[512];
+
+        static {
+            for (int b = 0; b < 256; b++) {
+                HEX_BYTES[2 * b] = HEX_DIGITS[b >> 4];
+                HEX_BYTES[2 * b + 1] = HEX_DIGITS[b & 0xf];
+            }
+        }
+
         static void writeHexByte(char[] data, int pos, byte b) {
-            data[pos + 0] = HEX_DIGITS[(b >> 4) & 0xf];
-            data[pos + 1] = HEX_DIGITS[b & 0xf];
+            writeHexByte(data, pos, (int) b);
+        }
+
+        private static void writeHexByte(char[] data, int pos, int b) {
+            int index = (b & 0xff) << 1;
+            data[pos + 0] = HEX_BYTES[index];
+            data[pos + 1] = HEX_BYTES[index + 1];
         }
     }
 }
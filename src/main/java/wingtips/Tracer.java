@@ -7,6 +7,7 @@ import org.slf4j.MDC;
 import wingtips.lifecyclelistener.SpanLifecycleListener;
 import wingtips.sampling.RootSpanSamplingStrategy;
 import wingtips.sampling.SampleAllTheThingsStrategy;
+import wingtips.util.LazySpanMdc;
 import wingtips.util.TracerManagedSpanStatus;
 import wingtips.util.TracingState;
 
@@ -143,25 +144,31 @@ public class Tracer {
         KEY_VALUE
     }
 
-    private static final String VALID_WINGTIPS_SPAN_LOGGER_NAME = "VALID_WINGTIPS_SPANS";
-    private static final String INVALID_WINGTIPS_SPAN_LOGGER_NAME = "INVALID_WINGTIPS_SPANS";
+    public static final String VALID_WINGTIPS_SPAN_LOGGER_NAME = "VALID_WINGTIPS_SPANS";
+    public static final String INVALID_WINGTIPS_SPAN_LOGGER_NAME = "INVALID_WINGTIPS_SPANS";
 
     private static final Logger classLogger = LoggerFactory.getLogger(Tracer.class);
     private static final Logger validSpanLogger = LoggerFactory.getLogger(VALID_WINGTIPS_SPAN_LOGGER_NAME);
     private static final Logger invalidSpanLogger = LoggerFactory.getLogger(INVALID_WINGTIPS_SPAN_LOGGER_NAME);
 
     /**
-     * ThreadLocal that keeps track of the stack of {@link Span} objects associated with the thread. This is treated as a LIFO stack.
+     * ThreadLocal that keeps track of the stack of {@link Span} objects associated with the thread. This is treated as a LIFO stack. The stacks are array-backed
+     * {@link ArrayDeque}s, and a thread keeps reusing its stack from one request to the next unless it is handed out by {@link #unregisterFromThread()}.
      */
     private static final ThreadLocal<Deque<Span>> currentSpanStackThreadLocal = new ThreadLocal<>();
 
+    /**
+     * Initial capacity of the span stacks - enough for a request span and a few levels of sub-spans without growing the array.
+     */
+    private static final int INITIAL_SPAN_STACK_CAPACITY = 8;
+
     /**
      * The singleton instance for this class.
      */
     private static final Tracer INSTANCE = new Tracer();
 
     /**
-     * MDC key for storing the current {@link Span} as a JSON string.
+     * MDC key for storing the current {@link Span} as a JSON string, or as a lazily-rendered JSON snapshot when the MDC supports it (see {@link LazySpanMdc}).
      */
     public static final String SPAN_JSON_MDC_KEY = "spanJson";
     /**
@@ -185,6 +192,12 @@ public class Tracer {
      */
     private SpanLoggingRepresentation spanLoggingRepresentation = SpanLoggingRepresentation.JSON;
 
+    /**
+     * Whether completed valid spans are logged to {@value #VALID_WINGTIPS_SPAN_LOGGER_NAME} by this class. Turn this off when a {@link SpanLifecycleListener} reports them
+     * instead (e.g. {@link wingtips.lifecyclelistener.AsyncSpanReporter}).
+     */
+    private volatile boolean validSpanLoggingEnabled = true;
+
     private Tracer() { /* Intentionally private to enforce singleton pattern. */ }
 
     /**
@@ -502,7 +515,11 @@ public class Tracer {
 
         }
 
-        currentSpanStackThreadLocal.set(new LinkedList<Span>());
+        if (existingStack == null) {
+            currentSpanStackThreadLocal.set(new ArrayDeque<Span>(INITIAL_SPAN_STACK_CAPACITY));
+        } else {
+            existingStack.clear();
+        }
         pushSpanOntoCurrentSpanStack(firstEntry);
     }
 
@@ -527,18 +544,19 @@ public class Tracer {
     protected void pushSpanOntoCurrentSpanStack(Span pushMe) {
         Deque<Span> currentStack = currentSpanStackThreadLocal.get();
         if (currentStack == null) {
-            currentStack = new LinkedList<>();
+            currentStack = new ArrayDeque<>(INITIAL_SPAN_STACK_CAPACITY);
             currentSpanStackThreadLocal.set(currentStack);
         }
 
         currentStack.push(pushMe);
         configureMDC(pushMe);
-        classLogger.debug("** starting sample for span {}", serializeSpanToDesiredStringRepresentation(pushMe));
+        if (classLogger.isDebugEnabled())
+            classLogger.debug("** starting sample for span {}", serializeSpanToDesiredStringRepresentation(pushMe));
     }
 
     /**
      * Completes the current span by calling {@link #completeAndLogSpan(Span, boolean)} on it, empties the MDC by calling{@link #unconfigureMDC()}, and clears out the
-     * {@link #currentSpanStackThreadLocal} stack.
+     * {@link #currentSpanStackThreadLocal} stack (which is left empty on the thread for reuse by its next request).
      * <p/>
      * This should be called by the overall request when the request is done. At the point this method is called there should just be one span left on the
      * {@link #currentSpanStackThreadLocal} stack - the overall request span. If there is more than 1 then that indicates a bug with the usage of this class where
@@ -581,7 +599,7 @@ public class Tracer {
             }
         }
 
-        currentSpanStackThreadLocal.remove();
+        // The stack is empty at this point, so it stays on the thread to be reused by the next request.
         unconfigureMDC();
     }
 
@@ -771,11 +789,13 @@ public class Tracer {
         else
             span.complete();
 
-        // Log the span if it was sampleable.
-        if (span.isSampleable()) {
-            String infoTag = containsIncorrectTimingInfo ? "[INCORRECT_TIMING] " : "";
+        // Log the span if it was sampleable (and the span logger would actually output it). Valid spans are not logged here when they are reported by a listener.
+        if (span.isSampleable() && (containsIncorrectTimingInfo || validSpanLoggingEnabled)) {
             Logger loggerToUse = containsIncorrectTimingInfo ? invalidSpanLogger : validSpanLogger;
-            loggerToUse.info("{}[DISTRIBUTED_TRACING] {}", infoTag, serializeSpanToDesiredStringRepresentation(span));
+            if (loggerToUse.isInfoEnabled()) {
+                String infoTag = containsIncorrectTimingInfo ? "[INCORRECT_TIMING] " : "";
+                loggerToUse.info("{}[DISTRIBUTED_TRACING] {}", infoTag, serializeSpanToDesiredStringRepresentation(span));
+            }
         }
 
         // Notify listeners.
@@ -783,11 +803,13 @@ public class Tracer {
     }
 
     /**
-     * Sets the span variables on the MDC context.
+     * Sets the span variables on the MDC context. When the MDC supports it (see {@link LazySpanMdc}) the span JSON is put as a lazily-rendered snapshot, so it
+     * is only serialized if a log line actually reads {@value #SPAN_JSON_MDC_KEY}. In that case {@code MDC.get(SPAN_JSON_MDC_KEY)} is not supported.
      */
     protected static void configureMDC(Span span) {
         MDC.put(TRACE_ID_MDC_KEY, span.getTraceId());
-        MDC.put(SPAN_JSON_MDC_KEY, span.toJSON());
+        if (!LazySpanMdc.putSpanJson(SPAN_JSON_MDC_KEY, span))
+            MDC.put(SPAN_JSON_MDC_KEY, span.toJSON());
     }
 
     /**
@@ -869,6 +891,22 @@ public class Tracer {
         this.spanLoggingRepresentation = spanLoggingRepresentation;
     }
 
+    /**
+     * @return Whether completed valid spans are logged by this class - see {@link #setValidSpanLoggingEnabled(boolean)}.
+     */
+    public boolean isValidSpanLoggingEnabled() {
+        return validSpanLoggingEnabled;
+    }
+
+    /**
+     * Sets whether completed valid spans are logged to {@value #VALID_WINGTIPS_SPAN_LOGGER_NAME} by this class on the thread completing them (the default). Disable this
+     * when a {@link SpanLifecycleListener} reports completed spans instead, so they are not output twice. Spans with incorrect timing info are always logged to
+     * {@value #INVALID_WINGTIPS_SPAN_LOGGER_NAME}.
+     */
+    public void setValidSpanLoggingEnabled(boolean validSpanLoggingEnabled) {
+        this.validSpanLoggingEnabled = validSpanLoggingEnabled;
+    }
+
 
     /**
      * Notifies all listeners that the given span was started using {@link SpanLifecycleListener#spanStarted(Span)}
@@ -926,7 +964,7 @@ public class Tracer {
         if (currentStack == null)
             return null;
 
-        return new LinkedList<>(currentStack);
+        return copyOf(currentStack);
     }
 
     /**
@@ -995,6 +1033,19 @@ public class Tracer {
         return true;
     }
 
+    /**
+     * @return An array-backed copy of the given stack, in the same order. Null entries are skipped since {@link ArrayDeque} cannot hold them (and a null span on the
+     * stack is meaningless anyway).
+     */
+    protected static Deque<Span> copyOf(Deque<Span> stack) {
+        Deque<Span> copy = new ArrayDeque<>(Math.max(stack.size(), INITIAL_SPAN_STACK_CAPACITY));
+        for (Span span : stack) {
+            if (span != null)
+                copy.addLast(span);
+        }
+        return copy;
+    }
+
     /**
      * "Registers" a *COPY* of the given span stack with this thread (sets up the ThreadLocal span stack with a copy of the given argument) and sets up the MDC appropriately
      * based on what you pass in. This is used in asynchronous projects/frameworks where multiple in-progress requests might be handled by the same thread
@@ -1046,7 +1097,7 @@ public class Tracer {
             }
 
             // At this point any errors have been handled and we can register the new stack. Make sure we register a copy so that changes to the original don't affect our stack.
-            registerMe = (registerMe == null) ? null : new LinkedList<>(registerMe);
+            registerMe = (registerMe == null) ? null : copyOf(registerMe);
             currentSpanStackThreadLocal.set(registerMe);
         }
 
@@ -11,6 +11,7 @@ import wingtips.util.StringUtils;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Contains general-purpose static helper methods for working with Wingtips in an AWS SDK environment. There are
@@ -160,41 +161,77 @@ public class WingtipsAwsGeneralUtil {
      * @return A {@link Span} with trace ID, span ID, and sampleable values set based on the given trace context
      * string, or null if the given string is not a valid trace context.
      */
-    @SuppressWarnings("RedundantConditionalExpression")
     public static wingtips.Span fromTraceContextMessageAttributeValue(String traceContext) {
         if (StringUtils.isBlank(traceContext)) {
             return null;
         }
 
-        String[] parts = traceContext.split(":");
-        if (parts.length != 4) {
+        // Single pass over the string instead of split(":"), so that only the IDs and the span are allocated. Like
+        //      split(":"), trailing empty fields are ignored, so "v1:trace:span:1:" is still a 4-part trace context.
+        int length = traceContext.length();
+        int versionEnd = traceContext.indexOf(':');
+        int traceIdEnd = (versionEnd < 0) ? -1 : traceContext.indexOf(':', versionEnd + 1);
+        int spanIdEnd = (traceIdEnd < 0) ? -1 : traceContext.indexOf(':', traceIdEnd + 1);
+        int sampledEnd = (spanIdEnd < 0) ? -1 : traceContext.indexOf(':', spanIdEnd + 1);
+        if (sampledEnd < 0) {
+            sampledEnd = length;
+        }
+        if (spanIdEnd < 0 || sampledEnd == spanIdEnd + 1 || !onlyColons(traceContext, sampledEnd, length)) {
             logger.warn("Invalid trace context - did not contain 4 parts separated by a colon ':'. "
                         + "invalid_trace_context={}", traceContext);
             return null;
         }
 
-        String versionId = parts[0];
-        String traceId = unescapeColons(parts[1]);
-        String spanId = unescapeColons(parts[2]);
-        boolean sampleable = ("0".equals(parts[3])) ? false : true;
-
-        if (!"v1".equals(versionId)) {
+        if (versionEnd != 2 || !traceContext.startsWith("v1")) {
             logger.warn("Unhandled trace context version. Returning null. "
-                        + "unhandled_trace_context_version={}, unhandled_trace_context={}", versionId, traceContext);
+                        + "unhandled_trace_context_version={}, unhandled_trace_context={}",
+                        traceContext.substring(0, versionEnd), traceContext);
             return null;
         }
 
-        if (StringUtils.isBlank(traceId) || StringUtils.isBlank(spanId)) {
+        if (isBlank(traceContext, versionEnd + 1, traceIdEnd) || isBlank(traceContext, traceIdEnd + 1, spanIdEnd)) {
             logger.warn("Invalid trace context - Trace ID and Span ID must both be non-empty. "
                         + "invalid_trace_context={}", traceContext);
             return null;
         }
 
-        return Span.newBuilder("syntheticParentTraceContext", Span.SpanPurpose.CLIENT)
-                   .withTraceId(traceId)
-                   .withSpanId(spanId)
-                   .withSampleable(sampleable)
-                   .build();
+        String traceId = unescapeColons(traceContext, versionEnd + 1, traceIdEnd);
+        String spanId = unescapeColons(traceContext, traceIdEnd + 1, spanIdEnd);
+        boolean sampleable = !(sampledEnd == spanIdEnd + 2 && traceContext.charAt(spanIdEnd + 1) == '0');
+
+        return new Span(traceId, null, spanId, "syntheticParentTraceContext", sampleable, null,
+                        Span.SpanPurpose.CLIENT, TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis()),
+                        System.nanoTime(), null);
+    }
+
+    private static boolean onlyColons(String str, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (str.charAt(i) != ':') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isBlank(String str, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!Character.isWhitespace(str.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The given region of the string with {@link #URL_ENCODED_COLON} replaced by ':'. Only the returned string is
+     * allocated unless the region actually contains an escaped colon.
+     */
+    protected static String unescapeColons(String str, int from, int to) {
+        int escaped = str.indexOf(URL_ENCODED_COLON, from);
+        if (escaped < 0 || escaped + URL_ENCODED_COLON.length() > to) {
+            return str.substring(from, to);
+        }
+        return unescapeColons(str.substring(from, to));
     }
 
     /**
@@ -8,6 +8,7 @@ import wingtips.TraceAndSpanIdGenerator;
 import wingtips.TraceHeaders;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static wingtips.TraceHeaders.*;
 
@@ -68,13 +69,17 @@ public class HttpRequestTracingUtils {
         if (spanName == null || spanName.length() == 0)
             spanName = UNSPECIFIED_SPAN_NAME;
 
-        return Span.newBuilder(spanName, SpanPurpose.SERVER)
-                   .withTraceId(traceId)
-                   .withParentSpanId(getSpanIdFromRequest(request, TraceHeaders.PARENT_SPAN_ID, false))
-                   .withSpanId(getSpanIdFromRequest(request, TraceHeaders.SPAN_ID, true))
-                   .withSampleable(getSpanSampleableFlag(request))
-                   .withUserId(getUserIdFromRequestWithHeaders(request, userIdHeaderKeys))
-                   .build();
+        // The span is constructed directly rather than through a builder, since this runs for every request.
+        return new Span(traceId,
+                        getSpanIdFromRequest(request, TraceHeaders.PARENT_SPAN_ID, false),
+                        getSpanIdFromRequest(request, TraceHeaders.SPAN_ID, true),
+                        spanName,
+                        getSpanSampleableFlag(request),
+                        getUserIdFromRequestWithHeaders(request, userIdHeaderKeys),
+                        SpanPurpose.SERVER,
+                        TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis()),
+                        System.nanoTime(),
+                        null);
     }
 
     /**
@@ -132,7 +137,7 @@ public class HttpRequestTracingUtils {
     protected static String getTraceId(RequestWithHeaders request) {
         String requestTraceId = getHeaderWithAttributeAsBackup(request, TraceHeaders.TRACE_ID);
 
-        logger.debug(String.format("TraceId from client is TraceId=%s", requestTraceId));
+        logger.debug("TraceId from client is TraceId={}", requestTraceId);
 
         return requestTraceId;
     }
@@ -143,12 +148,17 @@ public class HttpRequestTracingUtils {
      * {@link String#trim()} before being returned if it is non-null.
      */
     protected static String getHeaderWithAttributeAsBackup(RequestWithHeaders request, String headerName) {
-        Object result = request.getHeader(headerName);
+        // Trimmed once; String.trim() only allocates when there is whitespace to remove.
+        String result = trimmedOrNull(request.getHeader(headerName));
 
-        if (result == null || result.toString().trim().length() == 0)
-            result = request.getAttribute(headerName);
+        if (result == null || result.length() == 0)
+            result = trimmedOrNull(request.getAttribute(headerName));
 
-        return (result == null) ? null : result.toString().trim();
+        return result;
+    }
+
+    private static String trimmedOrNull(Object value) {
+        return (value == null) ? null : value.toString().trim();
     }
 
     /**
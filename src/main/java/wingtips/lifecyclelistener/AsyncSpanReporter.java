@@ -0,0 +1,191 @@
+package wingtips.lifecyclelistener;
+
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.EventTranslatorOneArg;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.SleepingWaitStrategy;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import wingtips.Span;
+import wingtips.Tracer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@link SpanLifecycleListener} that reports completed sampled spans asynchronously: {@link #spanCompleted(Span)} only publishes the span to a bounded Disruptor
+ * ring buffer, and a single background thread serializes and writes the spans in batches through a {@link SpanExporter}. Request threads therefore no longer pay
+ * for span serialization and I/O.
+ * <p/>
+ * Publishing never blocks: when the ring buffer is full the span is dropped and counted in {@link #getDroppedCount()}. The ring buffer producer side uses a
+ * {@link SleepingWaitStrategy}, which does not lock or signal on publish.
+ * <p/>
+ * Register the reporter with {@link Tracer#addSpanLifecycleListener(SpanLifecycleListener)} and disable the tracer's own synchronous span logging with
+ * {@link Tracer#setValidSpanLoggingEnabled(boolean)} so spans are not output twice. Call {@link #close()} on shutdown to export the spans still in the buffer.
+ */
+public class AsyncSpanReporter implements SpanLifecycleListener, AutoCloseable {
+
+    private static final Logger classLogger = LoggerFactory.getLogger(AsyncSpanReporter.class);
+
+    private static final EventTranslatorOneArg<SpanEvent, Span> TRANSLATOR = (event, sequence, span) -> event.span = span;
+
+    private final Disruptor<SpanEvent> disruptor;
+    private final RingBuffer<SpanEvent> ringBuffer;
+
+    private final LongAdder publishedCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder exportedCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+
+    private volatile boolean closed;
+
+    /**
+     * @param exporter The exporter the background thread writes the spans with.
+     * @param bufferSize The number of spans the ring buffer holds - must be a power of 2.
+     * @param maxBatchSize The maximum number of spans passed to one {@link SpanExporter#export(List)} call.
+     */
+    public AsyncSpanReporter(SpanExporter exporter, int bufferSize, int maxBatchSize) {
+        if (exporter == null)
+            throw new IllegalArgumentException("exporter cannot be null");
+        if (maxBatchSize < 1)
+            throw new IllegalArgumentException("maxBatchSize must be at least 1");
+
+        this.disruptor = new Disruptor<>(SpanEvent::new, bufferSize, runnable -> {
+            Thread thread = new Thread(runnable, "AsyncSpanReporter");
+            thread.setDaemon(true);
+            return thread;
+        }, ProducerType.MULTI, new SleepingWaitStrategy());
+        // handleEventsWith takes generic varargs - passing a BatchingHandler array avoids the unchecked generic array creation
+        BatchingHandler[] handlers = { new BatchingHandler(exporter, maxBatchSize) };
+        this.disruptor.handleEventsWith(handlers);
+        this.ringBuffer = disruptor.start();
+    }
+
+    @Override
+    public void spanStarted(Span span) {
+        // Do nothing
+    }
+
+    @Override
+    public void spanSampled(Span span) {
+        // Do nothing
+    }
+
+    @Override
+    public void spanCompleted(Span span) {
+        if (!span.isSampleable())
+            return;
+
+        if (!closed && ringBuffer.tryPublishEvent(TRANSLATOR, span))
+            publishedCount.increment();
+        else
+            droppedCount.increment();
+    }
+
+    /**
+     * Stops accepting spans and waits up to 5 seconds for the spans already in the ring buffer to be exported.
+     * <p/>
+     * The wait is on the reporter's own counters rather than {@link Disruptor#shutdown(long, TimeUnit)}, which only waits for event processors that are
+     * already running and so returns at once, losing the buffered spans, when the background thread has not started yet.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (exportedCount.sum() + failedCount.sum() < publishedCount.sum()) {
+            if (System.nanoTime() - deadline > 0) {
+                classLogger.warn("Timed out exporting the spans left in the AsyncSpanReporter ring buffer, they are lost.");
+                break;
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        disruptor.halt();
+    }
+
+    /**
+     * @return The number of spans published to the ring buffer.
+     */
+    public long getPublishedCount() {
+        return publishedCount.sum();
+    }
+
+    /**
+     * @return The number of spans dropped because the ring buffer was full (or the reporter closed).
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * @return The number of spans exported.
+     */
+    public long getExportedCount() {
+        return exportedCount.sum();
+    }
+
+    /**
+     * @return The number of spans the exporter failed to export.
+     */
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+
+    /**
+     * @return The number of free slots in the ring buffer.
+     */
+    public long getRemainingCapacity() {
+        return ringBuffer.remainingCapacity();
+    }
+
+    /**
+     * Ring buffer entry.
+     */
+    private static final class SpanEvent {
+        private Span span;
+    }
+
+    /**
+     * Collects the spans of the ring buffer into batches of up to maxBatchSize, exporting at the end of each batch the Disruptor hands over.
+     */
+    private final class BatchingHandler implements EventHandler<SpanEvent> {
+
+        private final SpanExporter exporter;
+        private final int maxBatchSize;
+        private final List<Span> batch;
+
+        private BatchingHandler(SpanExporter exporter, int maxBatchSize) {
+            this.exporter = exporter;
+            this.maxBatchSize = maxBatchSize;
+            this.batch = new ArrayList<>(maxBatchSize);
+        }
+
+        @Override
+        public void onEvent(SpanEvent event, long sequence, boolean endOfBatch) {
+            batch.add(event.span);
+            // Release the span so the ring buffer doesn't keep it reachable.
+            event.span = null;
+
+            if (endOfBatch || batch.size() >= maxBatchSize)
+                exportBatch();
+        }
+
+        private void exportBatch() {
+            try {
+                exporter.export(batch);
+                exportedCount.add(batch.size());
+            }
+            catch (Exception e) {
+                failedCount.add(batch.size());
+                classLogger.warn("Failed to export {} spans, they are lost.", batch.size(), e);
+            }
+            finally {
+                batch.clear();
+            }
+        }
+    }
+}
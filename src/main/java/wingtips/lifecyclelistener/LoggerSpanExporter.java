@@ -0,0 +1,34 @@
+package wingtips.lifecyclelistener;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import wingtips.Span;
+import wingtips.Tracer;
+
+import java.util.List;
+
+/**
+ * {@link SpanExporter} that logs each span to the {@value Tracer#VALID_WINGTIPS_SPAN_LOGGER_NAME} logger, in the same format and with the same
+ * {@link Tracer#getSpanLoggingRepresentation()} as {@link Tracer} uses when it logs completed spans itself. Route that logger to its own rolling file appender
+ * to have the spans written to rotating files.
+ * <p/>
+ * The exporter runs on the {@link AsyncSpanReporter} thread, so the logger should be synchronous: an asynchronous logger whose queue full policy discards
+ * events would lose spans without them being counted as dropped.
+ */
+public class LoggerSpanExporter implements SpanExporter {
+
+    private static final Logger validSpanLogger = LoggerFactory.getLogger(Tracer.VALID_WINGTIPS_SPAN_LOGGER_NAME);
+
+    @Override
+    public void export(List<Span> spans) {
+        if (!validSpanLogger.isInfoEnabled())
+            return;
+
+        Tracer.SpanLoggingRepresentation representation = Tracer.getInstance().getSpanLoggingRepresentation();
+        for (Span span : spans) {
+            String serialized = (representation == Tracer.SpanLoggingRepresentation.KEY_VALUE) ? span.toKeyValueString() : span.toJSON();
+            validSpanLogger.info("[DISTRIBUTED_TRACING] {}", serialized);
+        }
+    }
+
+}
@@ -0,0 +1,20 @@
+package wingtips.lifecyclelistener;
+
+import wingtips.Span;
+
+import java.util.List;
+
+/**
+ * Writes completed spans somewhere (log files, a collector, etc). Used by {@link AsyncSpanReporter}, which calls it from its single background thread with the
+ * spans it dequeued in one batch, so implementations don't need to be thread safe.
+ */
+public interface SpanExporter {
+
+    /**
+     * Exports the given completed spans. The list is reused by the caller after this method returns, so implementations must not keep a reference to it.
+     *
+     * @throws Exception if the spans could not be exported - they are then counted as failed and dropped.
+     */
+    void export(List<Span> spans) throws Exception;
+
+}
@@ -0,0 +1,34 @@
+package wingtips.sampling;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * {@link RootSpanSamplingStrategy} that samples each root span independently with a fixed probability, e.g. 0.1 samples about 1 root span in 10. The decision
+ * is drawn from {@link ThreadLocalRandom}, so it does not contend across threads.
+ */
+public class ProbabilisticSamplingStrategy implements RootSpanSamplingStrategy {
+
+    private final double probability;
+
+    /**
+     * @param probability The probability a root span is sampled, between 0 (none) and 1 (all).
+     */
+    public ProbabilisticSamplingStrategy(double probability) {
+        if (probability < 0 || probability > 1)
+            throw new IllegalArgumentException("probability must be between 0 and 1, was " + probability);
+
+        this.probability = probability;
+    }
+
+    @Override
+    public boolean isNextRootSpanSampleable() {
+        if (probability >= 1)
+            return true;
+
+        return probability > 0 && ThreadLocalRandom.current().nextDouble() < probability;
+    }
+
+    public double getProbability() {
+        return probability;
+    }
+}
@@ -0,0 +1,47 @@
+package wingtips.sampling;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link RootSpanSamplingStrategy} that samples at most a fixed number of root spans per second, with bursts of up to a given number of root spans: a token
+ * bucket holding up to {@code burst} tokens and refilled with {@code permitsPerSecond} tokens per second, where sampling a root span takes one token.
+ * <p/>
+ * The bucket is kept as a single "theoretical arrival time" (the generic cell rate algorithm, which is equivalent to a token bucket) in an {@link AtomicLong}, so
+ * deciding is lock free: one read and, when the span is sampled, one compare-and-set.
+ */
+public class RateLimitedSamplingStrategy implements RootSpanSamplingStrategy {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrivalTimeNanos;
+
+    /**
+     * @param permitsPerSecond The number of root spans sampled per second once the burst is used up - must be positive.
+     * @param burst The number of root spans that can be sampled at once after a quiet period - must be at least 1.
+     */
+    public RateLimitedSamplingStrategy(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0)
+            throw new IllegalArgumentException("permitsPerSecond must be positive, was " + permitsPerSecond);
+        if (burst < 1)
+            throw new IllegalArgumentException("burst must be at least 1, was " + burst);
+
+        this.emissionIntervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burstToleranceNanos = emissionIntervalNanos * burst;
+        this.theoreticalArrivalTimeNanos = new AtomicLong(System.nanoTime() - burstToleranceNanos);
+    }
+
+    @Override
+    public boolean isNextRootSpanSampleable() {
+        long now = System.nanoTime();
+        while (true) {
+            long theoreticalArrivalTime = theoreticalArrivalTimeNanos.get();
+            long next = Math.max(theoreticalArrivalTime, now - burstToleranceNanos) + emissionIntervalNanos;
+            if (next - now > 0)
+                return false;
+
+            if (theoreticalArrivalTimeNanos.compareAndSet(theoreticalArrivalTime, next))
+                return true;
+        }
+    }
+}
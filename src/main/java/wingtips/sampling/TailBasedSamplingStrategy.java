@@ -0,0 +1,209 @@
+package wingtips.sampling;
+
+import wingtips.Span;
+import wingtips.Tracer;
+import wingtips.lifecyclelistener.SpanLifecycleListener;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tail-based sampling: every root span is sampled so that the trace is recorded, but the completed spans of a trace are buffered and only passed on to the
+ * delegate {@link SpanLifecycleListener} (typically a {@link wingtips.lifecyclelistener.AsyncSpanReporter}) if the trace turned out to be interesting - it was
+ * marked errored with {@link #markTraceErrored(String)}, or one of its spans took longer than the latency threshold. Other traces are discarded without being
+ * serialized, so reporting cost follows the interesting traffic rather than the total traffic.
+ * <p/>
+ * Register this instance both as the tracer's sampling strategy ({@link Tracer#setRootSpanSamplingStrategy(RootSpanSamplingStrategy)}) and as its span lifecycle
+ * listener ({@link Tracer#addSpanLifecycleListener(SpanLifecycleListener)}), instead of the delegate, and disable the tracer's own span logging with
+ * {@link Tracer#setValidSpanLoggingEnabled(boolean)}.
+ * <p/>
+ * A trace is decided when its local root span completes: the span without a parent span ID, or the {@link Span.SpanPurpose#SERVER} span that continued a trace
+ * received from another service. At most {@code maxBufferedTraces} traces are buffered; when the buffer is full, traces older than {@code maxTraceAgeMillis}
+ * (whose root span never completed) are evicted, and if there is still no room the new trace is not buffered and its spans are discarded.
+ */
+public class TailBasedSamplingStrategy implements RootSpanSamplingStrategy, SpanLifecycleListener {
+
+    private final SpanLifecycleListener delegate;
+    private final long latencyThresholdNanos;
+    private final int maxBufferedTraces;
+    private final long maxTraceAgeNanos;
+
+    private final Map<String, TraceBuffer> traces = new ConcurrentHashMap<>();
+
+    private final LongAdder keptCount = new LongAdder();
+    private final LongAdder discardedCount = new LongAdder();
+    private final LongAdder overflowCount = new LongAdder();
+
+    /**
+     * @param delegate The listener the spans of interesting traces are passed to.
+     * @param latencyThresholdMillis Traces with a span lasting longer than this are kept.
+     * @param maxBufferedTraces The maximum number of traces buffered at once.
+     * @param maxTraceAgeMillis The age after which a buffered trace can be evicted to make room for a new one.
+     */
+    public TailBasedSamplingStrategy(SpanLifecycleListener delegate, long latencyThresholdMillis, int maxBufferedTraces, long maxTraceAgeMillis) {
+        if (delegate == null)
+            throw new IllegalArgumentException("delegate cannot be null");
+
+        this.delegate = delegate;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.maxBufferedTraces = maxBufferedTraces;
+        this.maxTraceAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxTraceAgeMillis);
+    }
+
+    /**
+     * @return Always true - the decision is taken when the trace completes.
+     */
+    @Override
+    public boolean isNextRootSpanSampleable() {
+        return true;
+    }
+
+    /**
+     * Marks the trace with the given ID as errored, so that it is kept when it completes.
+     */
+    public void markTraceErrored(String traceId) {
+        if (traceId == null)
+            return;
+
+        TraceBuffer buffer = getOrCreateBuffer(traceId);
+        if (buffer != null)
+            buffer.errored = true;
+    }
+
+    /**
+     * Marks the trace of the current thread's span (if any) as errored. Unsampled spans never reach this strategy, so their
+     * trace is ignored rather than buffered until it is evicted.
+     */
+    public void markCurrentTraceErrored() {
+        Span currentSpan = Tracer.getInstance().getCurrentSpan();
+        if (currentSpan != null && currentSpan.isSampleable())
+            markTraceErrored(currentSpan.getTraceId());
+    }
+
+    @Override
+    public void spanStarted(Span span) {
+        delegate.spanStarted(span);
+    }
+
+    @Override
+    public void spanSampled(Span span) {
+        delegate.spanSampled(span);
+    }
+
+    @Override
+    public void spanCompleted(Span span) {
+        if (!span.isSampleable())
+            return;
+
+        boolean localRoot = (span.getParentSpanId() == null || span.getSpanPurpose() == Span.SpanPurpose.SERVER);
+        TraceBuffer buffer = localRoot ? traces.remove(span.getTraceId()) : getOrCreateBuffer(span.getTraceId());
+        boolean slow = span.getDurationNanos() != null && span.getDurationNanos() > latencyThresholdNanos;
+
+        if (!localRoot) {
+            if (buffer != null)
+                buffer.add(span, slow);
+            return;
+        }
+
+        // The local root completed, so the trace is decided now.
+        if (buffer == null) {
+            buffer = new TraceBuffer(System.nanoTime());
+        }
+        buffer.add(span, slow);
+        List<Span> spans = buffer.drain();
+        if (buffer.errored || buffer.slow) {
+            keptCount.increment();
+            for (Span completed : spans) {
+                delegate.spanCompleted(completed);
+            }
+        }
+        else {
+            discardedCount.increment();
+        }
+    }
+
+    private TraceBuffer getOrCreateBuffer(String traceId) {
+        TraceBuffer buffer = traces.get(traceId);
+        if (buffer != null)
+            return buffer;
+
+        if (traces.size() >= maxBufferedTraces) {
+            evictStaleTraces();
+            if (traces.size() >= maxBufferedTraces) {
+                overflowCount.increment();
+                return null;
+            }
+        }
+        return traces.computeIfAbsent(traceId, id -> new TraceBuffer(System.nanoTime()));
+    }
+
+    private void evictStaleTraces() {
+        long now = System.nanoTime();
+        Iterator<TraceBuffer> iterator = traces.values().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().createdAtNanos > maxTraceAgeNanos) {
+                iterator.remove();
+                discardedCount.increment();
+            }
+        }
+    }
+
+    /**
+     * @return The number of traces passed on to the delegate.
+     */
+    public long getKeptCount() {
+        return keptCount.sum();
+    }
+
+    /**
+     * @return The number of traces discarded, because they were neither errored nor slow or because they were evicted.
+     */
+    public long getDiscardedCount() {
+        return discardedCount.sum();
+    }
+
+    /**
+     * @return The number of times a trace could not be buffered because the buffer was full.
+     */
+    public long getOverflowCount() {
+        return overflowCount.sum();
+    }
+
+    /**
+     * @return The number of traces currently buffered.
+     */
+    public int getBufferedTraceCount() {
+        return traces.size();
+    }
+
+    /**
+     * The completed spans of one trace so far. Spans of a trace usually complete on one thread, but async helpers may complete them on others, so adding is
+     * synchronized.
+     */
+    private static final class TraceBuffer {
+
+        private final long createdAtNanos;
+        private final List<Span> spans = new ArrayList<>(4);
+        private volatile boolean errored;
+        private volatile boolean slow;
+
+        private TraceBuffer(long createdAtNanos) {
+            this.createdAtNanos = createdAtNanos;
+        }
+
+        private synchronized void add(Span span, boolean slowSpan) {
+            spans.add(span);
+            if (slowSpan)
+                slow = true;
+        }
+
+        private synchronized List<Span> drain() {
+            return new ArrayList<>(spans);
+        }
+    }
+}
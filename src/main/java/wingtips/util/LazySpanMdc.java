@@ -0,0 +1,86 @@
+package wingtips.util;
+
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.spi.ObjectThreadContextMap;
+import org.apache.logging.log4j.spi.ReadOnlyThreadContextMap;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+import org.slf4j.MDC;
+import wingtips.Span;
+
+/**
+ * Puts a lazily-rendered reference to a {@link Span} into the logging MDC instead of its JSON, so that the JSON is only
+ * built when a layout actually reads the MDC value (e.g. {@code %X{spanJson}}), not on every span push and pop.
+ *
+ * <p>This is only possible when SLF4J is bound to Log4j 2 and the Log4j 2 thread context map can hold object values
+ * (i.e. {@code log4j2.garbagefreeThreadContextMap=true}). In any other setup {@link #putSpanJson(String, Span)} returns
+ * false and the caller should put the eagerly-serialized JSON into the MDC instead.
+ *
+ * <p>The value is a snapshot of the span at put time: async loggers render it on their own thread, after the span may
+ * have been completed, and still see the span as it was when the log event was created. Taking the snapshot copies the
+ * span but does not serialize it.
+ *
+ * <p>NOTE: The value is not a String, so {@link MDC#get(String)} throws a {@link ClassCastException} for its key.
+ * Read it through layouts or {@link MDC#getCopyOfContextMap()} (which renders it to a String), or read the current span
+ * from the {@link wingtips.Tracer} instead.
+ */
+public final class LazySpanMdc {
+
+    private static final String LOG4J_MDC_ADAPTER_CLASS_NAME = "org.apache.logging.slf4j.Log4jMDCAdapter";
+
+    private static final boolean MDC_BOUND_TO_LOG4J = isMdcBoundToLog4j();
+
+    private LazySpanMdc() {
+        // Do nothing
+    }
+
+    /**
+     * Puts a lazily-rendered JSON snapshot of the given span under the given MDC key.
+     *
+     * @return true if the snapshot was put into the MDC, false if the MDC cannot hold object values - in which case
+     * nothing was done.
+     */
+    public static boolean putSpanJson(String key, Span span) {
+        if (!MDC_BOUND_TO_LOG4J)
+            return false;
+
+        ReadOnlyThreadContextMap threadContextMap = ThreadContext.getThreadContextMap();
+        if (!(threadContextMap instanceof ObjectThreadContextMap))
+            return false;
+
+        ((ObjectThreadContextMap) threadContextMap).putValue(key, new SpanJson(Span.newBuilder(span).build()));
+        return true;
+    }
+
+    private static boolean isMdcBoundToLog4j() {
+        try {
+            return MDC.getMDCAdapter() != null
+                   && LOG4J_MDC_ADAPTER_CLASS_NAME.equals(MDC.getMDCAdapter().getClass().getName());
+        }
+        catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * The MDC value: renders {@link Span#toJSON()} of a copy of the span when formatted. Nothing else references the copy,
+     * so it is never completed and its JSON never changes.
+     */
+    static final class SpanJson implements StringBuilderFormattable {
+
+        private final Span span;
+
+        SpanJson(Span span) {
+            this.span = span;
+        }
+
+        @Override
+        public void formatTo(StringBuilder buffer) {
+            buffer.append(span.toJSON());
+        }
+
+        @Override
+        public String toString() {
+            return span.toJSON();
+        }
+    }
+}